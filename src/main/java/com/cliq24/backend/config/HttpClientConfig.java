@@ -0,0 +1,139 @@
+package com.cliq24.backend.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * One pooled Apache HttpClient shared by every outbound platform integration.
+ * Per-platform read timeouts are applied on top of this in PlatformHttpClients.
+ *
+ * Interactive reads use a second, non-blocking client (PlatformAsyncHttp): a few I/O reactor
+ * threads multiplex every in-flight request, so waiting on a platform holds no thread at all.
+ */
+@Configuration
+public class HttpClientConfig {
+
+    @Value("${http.client.max-total:200}")
+    private int maxTotal;
+
+    @Value("${http.client.max-per-route:50}")
+    private int maxPerRoute;
+
+    @Value("${http.client.connect-timeout-ms:5000}")
+    private long connectTimeoutMs;
+
+    @Value("${http.client.idle-evict-seconds:30}")
+    private long idleEvictSeconds;
+
+    @Value("${http.client.connection-ttl-seconds:300}")
+    private long connectionTtlSeconds;
+
+    @Value("${http.client.async.io-threads:2}")
+    private int asyncIoThreads;
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager platformConnectionManager() {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(maxTotal)
+            .setMaxConnPerRoute(maxPerRoute)
+            // LIFO reuse keeps a small set of warm keep-alive connections per host
+            .setConnPoolPolicy(PoolReusePolicy.LIFO)
+            .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.STRICT)
+            .setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                .setTimeToLive(TimeValue.ofSeconds(connectionTtlSeconds))
+                .setValidateAfterInactivity(TimeValue.ofSeconds(10))
+                .build())
+            .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient platformHttpClient(PoolingHttpClientConnectionManager platformConnectionManager) {
+        return HttpClients.custom()
+            .setConnectionManager(platformConnectionManager)
+            .evictExpiredConnections()
+            .evictIdleConnections(TimeValue.ofSeconds(idleEvictSeconds))
+            .disableCookieManagement()
+            .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public PoolingAsyncClientConnectionManager platformAsyncConnectionManager() {
+        return PoolingAsyncClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(maxTotal)
+            .setMaxConnPerRoute(maxPerRoute)
+            .setConnPoolPolicy(PoolReusePolicy.LIFO)
+            .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.STRICT)
+            .setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                .setTimeToLive(TimeValue.ofSeconds(connectionTtlSeconds))
+                .setValidateAfterInactivity(TimeValue.ofSeconds(10))
+                .build())
+            .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpAsyncClient platformAsyncHttpClient(PoolingAsyncClientConnectionManager platformAsyncConnectionManager) {
+        CloseableHttpAsyncClient client = HttpAsyncClients.custom()
+            .setConnectionManager(platformAsyncConnectionManager)
+            .setIOReactorConfig(IOReactorConfig.custom().setIoThreadCount(asyncIoThreads).build())
+            .evictExpiredConnections()
+            .evictIdleConnections(TimeValue.ofSeconds(idleEvictSeconds))
+            .disableCookieManagement()
+            .build();
+        client.start();
+        return client;
+    }
+
+    /**
+     * Pool usage gauges: http.client.pool.{leased,available,pending,max}
+     */
+    @Bean
+    public MeterBinder platformConnectionPoolMetrics(PoolingHttpClientConnectionManager platformConnectionManager) {
+        return registry -> {
+            Gauge.builder("http.client.pool.leased", platformConnectionManager, m -> m.getTotalStats().getLeased())
+                .description("Outbound platform connections currently in use")
+                .register(registry);
+            Gauge.builder("http.client.pool.available", platformConnectionManager, m -> m.getTotalStats().getAvailable())
+                .description("Idle keep-alive connections ready for reuse")
+                .register(registry);
+            Gauge.builder("http.client.pool.pending", platformConnectionManager, m -> m.getTotalStats().getPending())
+                .description("Requests waiting for a pooled connection")
+                .register(registry);
+            Gauge.builder("http.client.pool.max", platformConnectionManager, m -> m.getTotalStats().getMax())
+                .register(registry);
+        };
+    }
+
+    /**
+     * The same gauges for the non-blocking client: http.client.async.pool.{leased,pending}
+     */
+    @Bean
+    public MeterBinder platformAsyncConnectionPoolMetrics(PoolingAsyncClientConnectionManager platformAsyncConnectionManager) {
+        return registry -> {
+            Gauge.builder("http.client.async.pool.leased", platformAsyncConnectionManager, m -> m.getTotalStats().getLeased())
+                .description("Outbound non-blocking platform connections currently in use")
+                .register(registry);
+            Gauge.builder("http.client.async.pool.pending", platformAsyncConnectionManager, m -> m.getTotalStats().getPending())
+                .description("Non-blocking requests waiting for a pooled connection")
+                .register(registry);
+        };
+    }
+}
@@ -1,6 +1,7 @@
 package com.cliq24.backend.config;
 
 import com.cliq24.backend.util.JwtUtil;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -45,17 +46,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         if (token != null) {
             try {
-                if (!jwtUtil.isTokenExpired(token)) {
-                    String userId = jwtUtil.extractUserId(token);
+                // One verification per request (and none for a recently verified token);
+                // parseClaims throws if the token is expired or forged
+                Claims claims = jwtUtil.parseClaims(token);
+                String userId = claims.getSubject();
 
-                    // Create authentication token
-                    UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(userId, null, new ArrayList<>());
-                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                // Create authentication token
+                UsernamePasswordAuthenticationToken authentication =
+                    new UsernamePasswordAuthenticationToken(userId, null, new ArrayList<>());
+                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                    // Set authentication in security context
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
-                }
+                // Set authentication in security context
+                SecurityContextHolder.getContext().setAuthentication(authentication);
             } catch (Exception e) {
                 // Invalid token, continue without authentication
                 logger.error("JWT validation failed: " + e.getMessage());
@@ -1,13 +1,45 @@
 package com.cliq24.backend.config;
 
+import com.cliq24.backend.model.Platform;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
 import org.springframework.data.mongodb.config.EnableMongoAuditing;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
 import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
 
+import java.util.List;
+
 @Configuration
 @EnableMongoRepositories(basePackages = "com.cliq24.backend.repository")
 @EnableMongoAuditing
 public class MongoConfig {
     // MongoDB configuration is handled via application.properties
     // This class enables MongoDB repositories and auditing
+
+    /**
+     * Platforms are stored as their short code; reads also accept the old name spellings
+     */
+    @Bean
+    public MongoCustomConversions mongoCustomConversions() {
+        return new MongoCustomConversions(List.of(new PlatformToCode(), new CodeToPlatform()));
+    }
+
+    @WritingConverter
+    static class PlatformToCode implements Converter<Platform, String> {
+        @Override
+        public String convert(Platform platform) {
+            return platform.code();
+        }
+    }
+
+    @ReadingConverter
+    static class CodeToPlatform implements Converter<String, Platform> {
+        @Override
+        public Platform convert(String value) {
+            return Platform.from(value);
+        }
+    }
 }
@@ -0,0 +1,187 @@
+package com.cliq24.backend.config;
+
+import com.cliq24.backend.model.Platform;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs pending data migrations (MongoMigrations), creates the indexes declared on our
+ * documents (@Indexed / @CompoundIndex) - Spring's auto-index-creation is off by default -
+ * then checks the query plan of every hot repository query.
+ *
+ * A hot query whose plan contains a COLLSCAN means an index is missing or no longer matches
+ * the query; with mongo.index-check.fail-on-collscan=true that stops startup rather than
+ * letting logins and dashboard loads degrade as the collections grow.
+ */
+@Component
+public class MongoIndexes {
+
+    private static final Logger logger = LogManager.getLogger(MongoIndexes.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoMappingContext mappingContext;
+    private final MongoMigrations mongoMigrations;
+
+    @Value("${mongo.index-check.enabled:true}")
+    private boolean checkEnabled;
+
+    @Value("${mongo.index-check.fail-on-collscan:true}")
+    private boolean failOnCollectionScan;
+
+    @Autowired
+    public MongoIndexes(MongoTemplate mongoTemplate, MongoMappingContext mappingContext,
+                        MongoMigrations mongoMigrations) {
+        this.mongoTemplate = mongoTemplate;
+        this.mappingContext = mappingContext;
+        this.mongoMigrations = mongoMigrations;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onStartup() {
+        try {
+            mongoMigrations.run();
+            createIndexes();
+        } catch (DataAccessResourceFailureException e) {
+            logger.error("MongoDB unavailable, skipping migrations and index creation: {}", e.getMessage());
+            return;
+        }
+        if (checkEnabled) {
+            checkQueryPlans();
+        }
+    }
+
+    public void createIndexes() {
+        MongoPersistentEntityIndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+        for (MongoPersistentEntity<?> entity : mappingContext.getPersistentEntities()) {
+            if (!entity.isAnnotationPresent(org.springframework.data.mongodb.core.mapping.Document.class)) {
+                continue;
+            }
+            IndexOperations indexOps = mongoTemplate.indexOps(entity.getType());
+            resolver.resolveIndexFor(entity.getTypeInformation()).forEach(index -> {
+                try {
+                    String name = indexOps.ensureIndex(index);
+                    logger.debug("Ensured index {}.{}", entity.getCollection(), name);
+                } catch (DataAccessResourceFailureException e) {
+                    throw e;
+                } catch (Exception e) {
+                    // e.g. existing duplicates blocking a unique index - the plan check reports what's missing
+                    logger.error("Could not create index {} on {}: {}",
+                        index.getIndexOptions().get("name"), entity.getCollection(), e.getMessage());
+                }
+            });
+        }
+    }
+
+    /**
+     * The filters the hot derived queries send, keyed by repository method
+     */
+    private static Map<String, QueryShape> hotQueries() {
+        Map<String, QueryShape> queries = new LinkedHashMap<>();
+        queries.put("SocialAccountRepository.findByUserId",
+            new QueryShape("social_accounts", new Document("userId", "x")));
+        queries.put("SocialAccountRepository.findByUserIdAndPlatform",
+            new QueryShape("social_accounts", new Document("userId", "x").append("platform", Platform.FACEBOOK.code())));
+        queries.put("SocialAccountRepository.countByUserId",
+            new QueryShape("social_accounts", new Document("userId", "x")));
+        queries.put("SocialAccountRepository.findByLastSyncedBeforeOrLastSyncedIsNull",
+            new QueryShape("social_accounts", new Document("$or", List.of(
+                new Document("lastSynced", new Document("$lt", new Date())),
+                new Document("lastSynced", null)))));
+        queries.put("UserRepository.findByGoogleId",
+            new QueryShape("users", new Document("googleId", "x")));
+        queries.put("UserRepository.findByEmail",
+            new QueryShape("users", new Document("email", "x")));
+        queries.put("UserRepository.findByStripeCustomerId",
+            new QueryShape("users", new Document("stripeCustomerId", "x")));
+        queries.put("UserDashboardRepository.findByAccountsId",
+            new QueryShape("user_dashboards", new Document("accounts._id", "x")));
+        return queries;
+    }
+
+    public void checkQueryPlans() {
+        List<String> collectionScans = new ArrayList<>();
+        hotQueries().forEach((query, shape) -> {
+            try {
+                Document plan = mongoTemplate.getCollection(shape.collection()).find(shape.filter()).explain();
+                Document winningPlan = plan.get("queryPlanner", Document.class).get("winningPlan", Document.class);
+                if (winningPlan.containsKey("queryPlan")) {
+                    winningPlan = winningPlan.get("queryPlan", Document.class); // Slot-based engine (MongoDB 7+)
+                }
+                logger.info("Query plan for {}: {}", query, describe(winningPlan));
+                if (containsStage(winningPlan, "COLLSCAN")) {
+                    collectionScans.add(query);
+                }
+            } catch (Exception e) {
+                logger.warn("Could not explain {}: {}", query, e.getMessage());
+            }
+        });
+
+        if (collectionScans.isEmpty()) {
+            return;
+        }
+        String message = "Collection scan in query plan of " + collectionScans;
+        if (failOnCollectionScan) {
+            throw new IllegalStateException(message + " - add or fix the index, or set mongo.index-check.fail-on-collscan=false");
+        }
+        logger.error(message);
+    }
+
+    /**
+     * Stages from the root down, e.g. FETCH > IXSCAN(user_platform)
+     */
+    private static String describe(Document stage) {
+        StringBuilder description = new StringBuilder(stage.getString("stage"));
+        if (stage.containsKey("indexName")) {
+            description.append('(').append(stage.getString("indexName")).append(')');
+        }
+        Document input = stage.get("inputStage", Document.class);
+        if (input != null) {
+            description.append(" > ").append(describe(input));
+        }
+        List<Document> inputs = stage.getList("inputStages", Document.class);
+        if (inputs != null) {
+            description.append(" > [");
+            for (int i = 0; i < inputs.size(); i++) {
+                description.append(i > 0 ? ", " : "").append(describe(inputs.get(i)));
+            }
+            description.append(']');
+        }
+        return description.toString();
+    }
+
+    private static boolean containsStage(Document stage, String name) {
+        if (name.equals(stage.getString("stage"))) {
+            return true;
+        }
+        Document input = stage.get("inputStage", Document.class);
+        if (input != null && containsStage(input, name)) {
+            return true;
+        }
+        List<Document> inputs = stage.getList("inputStages", Document.class);
+        return inputs != null && inputs.stream().anyMatch(child -> containsStage(child, name));
+    }
+
+    private record QueryShape(String collection, Document filter) {
+    }
+}
@@ -0,0 +1,146 @@
+package com.cliq24.backend.config;
+
+import com.cliq24.backend.model.Platform;
+import com.cliq24.backend.model.SocialAccount;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import com.mongodb.client.model.ReplaceOptions;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * One-time data migrations, run by MongoIndexes before it creates indexes (a new unique
+ * index can depend on the data being cleaned up first). Applied migrations are recorded in
+ * schema_migrations. Each migration is idempotent, so replicas starting together are safe.
+ */
+@Component
+public class MongoMigrations {
+
+    private static final Logger logger = LogManager.getLogger(MongoMigrations.class);
+
+    private static final String MIGRATIONS = "schema_migrations";
+    private static final String SOCIAL_ACCOUNTS = "social_accounts";
+    private static final String QUARANTINE = "social_accounts_quarantine";
+    private static final String DASHBOARDS = "user_dashboards";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    public MongoMigrations(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public void run() {
+        Map<String, Runnable> migrations = new LinkedHashMap<>();
+        migrations.put("001-platform-codes", this::migratePlatformCodes);
+        migrations.put("002-quarantine-unknown-platforms", this::quarantineUnknownPlatforms);
+
+        migrations.forEach((id, migration) -> {
+            if (mongoTemplate.exists(Query.query(where("_id").is(id)), MIGRATIONS)) {
+                return;
+            }
+            logger.info("Running MongoDB migration {}", id);
+            migration.run();
+            mongoTemplate.upsert(Query.query(where("_id").is(id)), Update.update("appliedAt", new Date()), MIGRATIONS);
+            logger.info("MongoDB migration {} applied", id);
+        });
+    }
+
+    /**
+     * social_accounts.platform held "Facebook", "facebook", ... depending on which connect path
+     * wrote it, and lookups used yet another spelling - so reconnecting often created a second
+     * account. Rewrite every spelling to the platform code, keep the most recently connected
+     * account per (userId, platform), and drop the old non-unique index so the unique one can
+     * take its place. Raw updates bypass DashboardEventListener, so the affected users'
+     * dashboards are dropped to be rebuilt on their next read.
+     */
+    private void migratePlatformCodes() {
+        for (String stored : mongoTemplate.findDistinct(new Query(), "platform", SOCIAL_ACCOUNTS, String.class)) {
+            Platform platform;
+            try {
+                platform = Platform.from(stored);
+            } catch (IllegalArgumentException e) {
+                logger.warn("Leaving social accounts with unknown platform '{}' for quarantine", stored);
+                continue;
+            }
+            if (!platform.code().equals(stored)) {
+                dropDashboards(Query.query(where("platform").is(stored)));
+                long updated = mongoTemplate.updateMulti(Query.query(where("platform").is(stored)),
+                    Update.update("platform", platform.code()), SOCIAL_ACCOUNTS).getModifiedCount();
+                logger.info("Migrated {} social accounts from platform '{}' to '{}'", updated, stored, platform.code());
+            }
+        }
+
+        List<Document> duplicates = mongoTemplate.getCollection(SOCIAL_ACCOUNTS).aggregate(List.of(
+            new Document("$sort", new Document("connectedAt", -1)),
+            new Document("$group", new Document("_id", new Document("userId", "$userId").append("platform", "$platform"))
+                .append("ids", new Document("$push", "$_id"))
+                .append("count", new Document("$sum", 1))),
+            new Document("$match", new Document("count", new Document("$gt", 1)))
+        )).into(new ArrayList<>());
+
+        for (Document group : duplicates) {
+            String userId = group.get("_id", Document.class).getString("userId");
+            List<Object> ids = group.getList("ids", Object.class);
+            // Removing through the entity class lets DashboardEventListener rebuild the user's dashboard
+            long removed = mongoTemplate.remove(
+                Query.query(where("_id").in(ids.subList(1, ids.size())).and("userId").is(userId)),
+                SocialAccount.class).getDeletedCount();
+            logger.info("Removed {} duplicate {} accounts for user {}, kept {}",
+                removed, group.get("_id", Document.class).getString("platform"), userId, ids.get(0));
+        }
+
+        for (IndexInfo index : mongoTemplate.indexOps(SOCIAL_ACCOUNTS).getIndexInfo()) {
+            if ("user_platform".equals(index.getName()) && !index.isUnique()) {
+                mongoTemplate.indexOps(SOCIAL_ACCOUNTS).dropIndex(index.getName());
+            }
+        }
+    }
+
+    /**
+     * Accounts whose platform isn't one we know (or is missing) can't be read back - the
+     * platform converter throws - and would break every findByUserId and scheduler page that
+     * touches them. Move them to social_accounts_quarantine for inspection.
+     *
+     * Also drops every dashboard: databases that ran 001 before it dropped dashboards itself
+     * still hold entries from before the rewrite. They rebuild on the next read.
+     */
+    private void quarantineUnknownPlatforms() {
+        List<String> codes = Arrays.stream(Platform.values()).map(Platform::code).collect(Collectors.toList());
+        Query unknown = Query.query(where("platform").nin(codes));
+
+        List<Document> accounts = mongoTemplate.find(unknown, Document.class, SOCIAL_ACCOUNTS);
+        for (Document account : accounts) {
+            mongoTemplate.getCollection(QUARANTINE).replaceOne(new Document("_id", account.get("_id")),
+                account.append("quarantinedAt", new Date()), new ReplaceOptions().upsert(true));
+        }
+        long removed = mongoTemplate.remove(unknown, SOCIAL_ACCOUNTS).getDeletedCount();
+        if (removed > 0) {
+            logger.warn("Moved {} social accounts with unknown platforms to {}", removed, QUARANTINE);
+        }
+
+        mongoTemplate.remove(new Query(), DASHBOARDS);
+    }
+
+    private void dropDashboards(Query accounts) {
+        List<String> userIds = mongoTemplate.findDistinct(accounts, "userId", SOCIAL_ACCOUNTS, String.class);
+        if (!userIds.isEmpty()) {
+            mongoTemplate.remove(Query.query(where("_id").in(userIds)), DASHBOARDS);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.cliq24.backend.config;
 
 import com.cliq24.backend.model.User;
 import com.cliq24.backend.repository.UserRepository;
+import com.cliq24.backend.service.UserCache;
 import com.cliq24.backend.util.JwtUtil;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -25,6 +26,7 @@ public class OAuth2LoginSuccessHandler extends SimpleUrlAuthenticationSuccessHan
     private static final Logger logger = LogManager.getLogger(OAuth2LoginSuccessHandler.class);
 
     private final UserRepository userRepository;
+    private final UserCache userCache;
     private final JwtUtil jwtUtil;
 
     @Value("${cors.allowed.origins:http://localhost:3000}")
@@ -34,8 +36,9 @@ public class OAuth2LoginSuccessHandler extends SimpleUrlAuthenticationSuccessHan
     private boolean cookieSecure;
 
     @Autowired
-    public OAuth2LoginSuccessHandler(UserRepository userRepository, JwtUtil jwtUtil) {
+    public OAuth2LoginSuccessHandler(UserRepository userRepository, UserCache userCache, JwtUtil jwtUtil) {
         this.userRepository = userRepository;
+        this.userCache = userCache;
         this.jwtUtil = jwtUtil;
     }
 
@@ -98,7 +101,7 @@ public class OAuth2LoginSuccessHandler extends SimpleUrlAuthenticationSuccessHan
                             currentPicture.startsWith("data:") ? "data URL" : "file", email);
                     }
 
-                    return userRepository.save(existingUser);
+                    return userCache.save(existingUser);
                 })
                 .orElseGet(() -> {
                     logger.info("Creating new user: {}", email);
@@ -108,7 +111,7 @@ public class OAuth2LoginSuccessHandler extends SimpleUrlAuthenticationSuccessHan
                     newUser.setName(name);
                     newUser.setPicture(picture);
                     newUser.setCreatedAt(LocalDateTime.now());
-                    return userRepository.save(newUser);
+                    return userCache.save(newUser);
                 });
     }
 }
@@ -0,0 +1,31 @@
+package com.cliq24.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    @Value("${sync.scheduler.concurrency:4}")
+    private int syncConcurrency;
+
+    /**
+     * Bounded pool for background metrics syncs - keeps platform calls off Tomcat request threads
+     */
+    @Bean(name = "metricsSyncExecutor")
+    public ThreadPoolTaskExecutor metricsSyncExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(syncConcurrency);
+        executor.setMaxPoolSize(syncConcurrency);
+        executor.setQueueCapacity(Integer.MAX_VALUE);
+        executor.setThreadNamePrefix("metrics-sync-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+}
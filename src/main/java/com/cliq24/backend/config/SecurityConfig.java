@@ -1,5 +1,6 @@
 package com.cliq24.backend.config;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -49,6 +50,8 @@ public class SecurityConfig {
                 })
             )
             .authorizeHttpRequests(auth -> auth
+                // Async results re-dispatch without the JWT filter; the original request was already authorized
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/", "/index.html", "/app.js", "/style.css", "/logo.PNG",
                                 "/privacy.html", "/terms.html", "/data-deletion.html", "/goal-selection.html",
                                 "/auth/google", "/auth/register", "/auth/login", "/auth/logout", "/auth/health",
@@ -60,7 +63,7 @@ public class SecurityConfig {
                                 "/api/social-accounts/Twitter", "/api/social-accounts/twitter/callback",
                                 "/api/social-accounts/YouTube", "/api/social-accounts/youtube/callback",
                                 "/api/social-accounts/Snapchat", "/api/social-accounts/snapchat/callback",
-                                "/api/subscription/webhook",
+                                "/api/subscription/webhook", "/actuator/health",
                                 "/uploads/**", "/*.png", "/*.jpg", "/*.css", "/*.js", "/*.html", "/*.txt", "/*.json").permitAll()
                 .anyRequest().authenticated()
             )
@@ -76,7 +79,8 @@ public class SecurityConfig {
           CorsConfiguration configuration = new CorsConfiguration();
           configuration.setAllowedOrigins(Arrays.asList(allowedOrigins.split(",")));
           configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
-          configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "X-Requested-With"));
+          configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "X-Requested-With", "Idempotency-Key"));
+          configuration.setExposedHeaders(Arrays.asList("X-Next-Cursor"));
           configuration.setAllowCredentials(true);
           configuration.setMaxAge(3600L);
           UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
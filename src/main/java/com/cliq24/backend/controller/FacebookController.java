@@ -6,10 +6,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.cliq24.backend.dto.CursorPageDTO;
+import com.cliq24.backend.exception.GlobalExceptionHandler;
 import com.cliq24.backend.platforms.FacebookService;
+import com.cliq24.backend.service.IdempotencyService;
 
-import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/facebook")
@@ -18,57 +21,56 @@ public class FacebookController {
 
     private static final Logger logger = LogManager.getLogger(FacebookController.class);
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final FacebookService facebookService;
+    private final IdempotencyService idempotencyService;
 
     @Autowired
-    public FacebookController(FacebookService facebookService) {
+    public FacebookController(FacebookService facebookService, IdempotencyService idempotencyService) {
         this.facebookService = facebookService;
+        this.idempotencyService = idempotencyService;
     }
 
     /**
      * Get recent messages for a Facebook account
-     * GET /api/facebook/{accountId}/messages
+     * GET /api/facebook/{accountId}/messages?limit=25
      */
     @GetMapping("/{accountId}/messages")
-    public ResponseEntity<?> getMessages(@PathVariable String accountId) {
-        try {
-            logger.info("Getting messages for Facebook account: {}", accountId);
+    public CompletableFuture<ResponseEntity<?>> getMessages(
+            @PathVariable String accountId,
+            @RequestParam(defaultValue = "${facebook.messages.limit:25}") int limit) {
+        logger.info("Getting messages for Facebook account: {}", accountId);
 
-            // Get userId from SecurityContext
-            org.springframework.security.core.Authentication auth =
-                org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication();
+        // Get userId from SecurityContext
+        org.springframework.security.core.Authentication auth =
+            org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication();
 
-            if (auth == null || !auth.isAuthenticated() || "anonymousUser".equals(auth.getName())) {
-                return ResponseEntity.status(401)
-                    .body(Map.of("error", "Unauthorized", "message", "Please login first"));
-            }
-
-            String userId = auth.getName();
+        if (auth == null || !auth.isAuthenticated() || "anonymousUser".equals(auth.getName())) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(401)
+                .body(Map.of("error", "Unauthorized", "message", "Please login first")));
+        }
 
-            // Verify the account belongs to this user and get messages
-            List<Map<String, Object>> messages = facebookService.getRecentMessages(userId, accountId);
+        String userId = auth.getName();
 
-            return ResponseEntity.ok(messages);
-        } catch (RuntimeException e) {
-            logger.error("Failed to get messages: {}", e.getMessage(), e);
-            return ResponseEntity.badRequest()
-                .body(Map.of("error", "Failed to get messages", "message", e.getMessage()));
-        } catch (Exception e) {
-            logger.error("Unexpected error getting messages: {}", e.getMessage(), e);
-            return ResponseEntity.status(500)
-                .body(Map.of("error", "Server error", "message", e.getMessage()));
-        }
+        // Verify the account belongs to this user and get messages; the request thread is
+        // released while Graph answers
+        return GlobalExceptionHandler.platformResponse("Failed to get messages",
+            () -> facebookService.getRecentMessages(userId, accountId, limit), ResponseEntity::ok);
     }
 
     /**
      * Send a message via Facebook
      * POST /api/facebook/{accountId}/messages/send
      * Body: { "recipientId": "...", "message": "..." }
+     * Optional Idempotency-Key header: resubmitting with the same key returns the first result
+     * instead of sending the message again
      */
     @PostMapping("/{accountId}/messages/send")
     public ResponseEntity<?> sendMessage(
             @PathVariable String accountId,
-            @RequestBody Map<String, String> request) {
+            @RequestBody Map<String, String> request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         try {
             logger.info("Sending message from Facebook account: {}", accountId);
 
@@ -96,7 +98,9 @@ public class FacebookController {
             }
 
             // Send the message
-            Map<String, Object> result = facebookService.sendMessage(userId, accountId, recipientId, message);
+            Map<String, Object> result = idempotencyService.execute(userId + ":" + accountId, idempotencyKey,
+                recipientId + "\n" + message,
+                () -> facebookService.sendMessage(userId, accountId, recipientId, message));
 
             return ResponseEntity.ok(result);
         } catch (RuntimeException e) {
@@ -112,104 +116,85 @@ public class FacebookController {
 
     /**
      * Get posts from Facebook Page
-     * GET /api/facebook/{accountId}/posts
+     * GET /api/facebook/{accountId}/posts?limit=10&cursor=...
+     * The next page's cursor comes back in the X-Next-Cursor header (absent on the last page)
      */
     @GetMapping("/{accountId}/posts")
-    public ResponseEntity<?> getPosts(
+    public CompletableFuture<ResponseEntity<?>> getPosts(
             @PathVariable String accountId,
-            @RequestParam(defaultValue = "10") int limit) {
-        try {
-            logger.info("Getting posts for Facebook account: {}", accountId);
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) String cursor) {
+        logger.info("Getting posts for Facebook account: {}", accountId);
 
-            // Get userId from SecurityContext
-            org.springframework.security.core.Authentication auth =
-                org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication();
+        // Get userId from SecurityContext
+        org.springframework.security.core.Authentication auth =
+            org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication();
 
-            if (auth == null || !auth.isAuthenticated() || "anonymousUser".equals(auth.getName())) {
-                return ResponseEntity.status(401)
-                    .body(Map.of("error", "Unauthorized", "message", "Please login first"));
-            }
-
-            String userId = auth.getName();
-            List<Map<String, Object>> posts = facebookService.getPosts(userId, accountId, limit);
-
-            return ResponseEntity.ok(posts);
-        } catch (RuntimeException e) {
-            logger.error("Failed to get posts: {}", e.getMessage(), e);
-            return ResponseEntity.badRequest()
-                .body(Map.of("error", "Failed to get posts", "message", e.getMessage()));
-        } catch (Exception e) {
-            logger.error("Unexpected error getting posts: {}", e.getMessage(), e);
-            return ResponseEntity.status(500)
-                .body(Map.of("error", "Server error", "message", e.getMessage()));
+        if (auth == null || !auth.isAuthenticated() || "anonymousUser".equals(auth.getName())) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(401)
+                .body(Map.of("error", "Unauthorized", "message", "Please login first")));
         }
+
+        String userId = auth.getName();
+        return GlobalExceptionHandler.platformResponse("Failed to get posts",
+            () -> facebookService.getPosts(userId, accountId, limit, cursor), this::pageResponse);
     }
 
     /**
      * Get photos from Facebook Page
-     * GET /api/facebook/{accountId}/photos
+     * GET /api/facebook/{accountId}/photos?limit=10&cursor=...
+     * The next page's cursor comes back in the X-Next-Cursor header (absent on the last page)
      */
     @GetMapping("/{accountId}/photos")
-    public ResponseEntity<?> getPhotos(
+    public CompletableFuture<ResponseEntity<?>> getPhotos(
             @PathVariable String accountId,
-            @RequestParam(defaultValue = "10") int limit) {
-        try {
-            logger.info("Getting photos for Facebook account: {}", accountId);
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) String cursor) {
+        logger.info("Getting photos for Facebook account: {}", accountId);
 
-            org.springframework.security.core.Authentication auth =
-                org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication();
+        org.springframework.security.core.Authentication auth =
+            org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication();
 
-            if (auth == null || !auth.isAuthenticated() || "anonymousUser".equals(auth.getName())) {
-                return ResponseEntity.status(401)
-                    .body(Map.of("error", "Unauthorized", "message", "Please login first"));
-            }
-
-            String userId = auth.getName();
-            List<Map<String, Object>> photos = facebookService.getPhotos(userId, accountId, limit);
-
-            return ResponseEntity.ok(photos);
-        } catch (RuntimeException e) {
-            logger.error("Failed to get photos: {}", e.getMessage(), e);
-            return ResponseEntity.badRequest()
-                .body(Map.of("error", "Failed to get photos", "message", e.getMessage()));
-        } catch (Exception e) {
-            logger.error("Unexpected error getting photos: {}", e.getMessage(), e);
-            return ResponseEntity.status(500)
-                .body(Map.of("error", "Server error", "message", e.getMessage()));
+        if (auth == null || !auth.isAuthenticated() || "anonymousUser".equals(auth.getName())) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(401)
+                .body(Map.of("error", "Unauthorized", "message", "Please login first")));
         }
+
+        String userId = auth.getName();
+        return GlobalExceptionHandler.platformResponse("Failed to get photos",
+            () -> facebookService.getPhotos(userId, accountId, limit, cursor), this::pageResponse);
     }
 
     /**
      * Get videos from Facebook Page
-     * GET /api/facebook/{accountId}/videos
+     * GET /api/facebook/{accountId}/videos?limit=10&cursor=...
+     * The next page's cursor comes back in the X-Next-Cursor header (absent on the last page)
      */
     @GetMapping("/{accountId}/videos")
-    public ResponseEntity<?> getVideos(
+    public CompletableFuture<ResponseEntity<?>> getVideos(
             @PathVariable String accountId,
-            @RequestParam(defaultValue = "10") int limit) {
-        try {
-            logger.info("Getting videos for Facebook account: {}", accountId);
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) String cursor) {
+        logger.info("Getting videos for Facebook account: {}", accountId);
 
-            org.springframework.security.core.Authentication auth =
-                org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication();
+        org.springframework.security.core.Authentication auth =
+            org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication();
 
-            if (auth == null || !auth.isAuthenticated() || "anonymousUser".equals(auth.getName())) {
-                return ResponseEntity.status(401)
-                    .body(Map.of("error", "Unauthorized", "message", "Please login first"));
-            }
+        if (auth == null || !auth.isAuthenticated() || "anonymousUser".equals(auth.getName())) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(401)
+                .body(Map.of("error", "Unauthorized", "message", "Please login first")));
+        }
 
-            String userId = auth.getName();
-            List<Map<String, Object>> videos = facebookService.getVideos(userId, accountId, limit);
+        String userId = auth.getName();
+        return GlobalExceptionHandler.platformResponse("Failed to get videos",
+            () -> facebookService.getVideos(userId, accountId, limit, cursor), this::pageResponse);
+    }
 
-            return ResponseEntity.ok(videos);
-        } catch (RuntimeException e) {
-            logger.error("Failed to get videos: {}", e.getMessage(), e);
-            return ResponseEntity.badRequest()
-                .body(Map.of("error", "Failed to get videos", "message", e.getMessage()));
-        } catch (Exception e) {
-            logger.error("Unexpected error getting videos: {}", e.getMessage(), e);
-            return ResponseEntity.status(500)
-                .body(Map.of("error", "Server error", "message", e.getMessage()));
+    private ResponseEntity<?> pageResponse(CursorPageDTO<?> page) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            builder.header(NEXT_CURSOR_HEADER, page.nextCursor());
         }
+        return builder.body(page.items());
     }
 }
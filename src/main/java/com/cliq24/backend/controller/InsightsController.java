@@ -1,17 +1,22 @@
 package com.cliq24.backend.controller;
 
 import com.cliq24.backend.model.SocialAccount;
+import com.cliq24.backend.platforms.PlatformCallExecutor;
 import com.cliq24.backend.repository.SocialAccountRepository;
 import com.cliq24.backend.service.AIInsightsService;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @RestController
 @RequestMapping("/api/insights")
@@ -22,12 +27,18 @@ public class InsightsController {
 
     private final AIInsightsService aiInsightsService;
     private final SocialAccountRepository socialAccountRepository;
+    private final PlatformCallExecutor platformCallExecutor;
+
+    @Value("${insights.stream.timeout-ms:60000}")
+    private long streamTimeoutMs;
 
     @Autowired
     public InsightsController(AIInsightsService aiInsightsService,
-                             SocialAccountRepository socialAccountRepository) {
+                             SocialAccountRepository socialAccountRepository,
+                             PlatformCallExecutor platformCallExecutor) {
         this.aiInsightsService = aiInsightsService;
         this.socialAccountRepository = socialAccountRepository;
+        this.platformCallExecutor = platformCallExecutor;
     }
 
     /**
@@ -54,7 +65,7 @@ public class InsightsController {
 
             return ResponseEntity.ok(Map.of(
                 "accountId", accountId,
-                "platform", account.getPlatform(),
+                "platform", account.getPlatform().displayName(),
                 "insight", insight
             ));
 
@@ -65,6 +76,64 @@ public class InsightsController {
         }
     }
 
+    /**
+     * Stream AI-generated insights as Server-Sent Events
+     * Usage: GET /api/insights/{accountId}/stream
+     * Events: "delta" ({"text": "..."}) as text is generated, then "done" - or "error" if
+     * generation failed after text was sent, in which case the text so far is incomplete
+     */
+    @GetMapping(value = "/{accountId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamInsights(@PathVariable String accountId) {
+        String userId;
+        SocialAccount account;
+        try {
+            userId = getCurrentUserId();
+            account = socialAccountRepository.findById(accountId)
+                .orElseThrow(() -> new RuntimeException("Account not found"));
+        } catch (Exception e) {
+            logger.error("Error streaming insights for account {}: {}", accountId, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+
+        // Verify the account belongs to the user
+        if (!account.getUserId().equals(userId)) {
+            return ResponseEntity.status(403).build();
+        }
+
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        AtomicBoolean clientGone = new AtomicBoolean(false);
+        emitter.onCompletion(() -> clientGone.set(true));
+        emitter.onTimeout(() -> clientGone.set(true));
+
+        // Bounded by the stream's own timeout - platform.call-timeout-ms would cut long generations off mid-stream
+        platformCallExecutor.submit("claude", () -> aiInsightsService.streamInsights(userId, account, text -> {
+            if (clientGone.get()) {
+                return; // Keep reading so the finished insight still gets cached
+            }
+            try {
+                emitter.send(SseEmitter.event().name("delta").data(Map.of("text", text)));
+            } catch (Exception e) {
+                clientGone.set(true);
+            }
+        }), streamTimeoutMs).whenComplete((insight, error) -> {
+            try {
+                if (error != null) {
+                    logger.error("Insight stream failed for account {}: {}", accountId, error.getMessage());
+                    emitter.send(SseEmitter.event().name("error").data(Map.of(
+                        "error", "Failed to generate insight",
+                        "accountId", accountId)));
+                } else {
+                    emitter.send(SseEmitter.event().name("done").data(Map.of("accountId", accountId)));
+                }
+                emitter.complete();
+            } catch (Exception e) {
+                // Client already disconnected
+            }
+        });
+
+        return ResponseEntity.ok(emitter);
+    }
+
     /**
      * Refresh insights for an account (clears cache and regenerates)
      * Usage: POST /api/insights/{accountId}/refresh
@@ -92,7 +161,7 @@ public class InsightsController {
 
             return ResponseEntity.ok(Map.of(
                 "accountId", accountId,
-                "platform", account.getPlatform(),
+                "platform", account.getPlatform().displayName(),
                 "insight", insight,
                 "refreshed", true
             ));
@@ -6,10 +6,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.cliq24.backend.exception.GlobalExceptionHandler;
 import com.cliq24.backend.platforms.LinkedInService;
 
-import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/linkedin")
@@ -30,34 +31,23 @@ public class LinkedInController {
      * GET /api/linkedin/{accountId}/profile
      */
     @GetMapping("/{accountId}/profile")
-    public ResponseEntity<?> getProfile(@PathVariable String accountId) {
-        try {
-            logger.info("Getting profile for LinkedIn account: {}", accountId);
-
-            // Get userId from SecurityContext
-            org.springframework.security.core.Authentication auth =
-                org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication();
+    public CompletableFuture<ResponseEntity<?>> getProfile(@PathVariable String accountId) {
+        logger.info("Getting profile for LinkedIn account: {}", accountId);
 
-            if (auth == null || !auth.isAuthenticated() || "anonymousUser".equals(auth.getName())) {
-                return ResponseEntity.status(401)
-                    .body(Map.of("error", "Unauthorized", "message", "Please login first"));
-            }
+        // Get userId from SecurityContext
+        org.springframework.security.core.Authentication auth =
+            org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication();
 
-            String userId = auth.getName();
+        if (auth == null || !auth.isAuthenticated() || "anonymousUser".equals(auth.getName())) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(401)
+                .body(Map.of("error", "Unauthorized", "message", "Please login first")));
+        }
 
-            // Get LinkedIn profile
-            Map<String, Object> profile = linkedInService.getProfile(userId, accountId);
+        String userId = auth.getName();
 
-            return ResponseEntity.ok(profile);
-        } catch (RuntimeException e) {
-            logger.error("Failed to get profile: {}", e.getMessage(), e);
-            return ResponseEntity.badRequest()
-                .body(Map.of("error", "Failed to get profile", "message", e.getMessage()));
-        } catch (Exception e) {
-            logger.error("Unexpected error getting profile: {}", e.getMessage(), e);
-            return ResponseEntity.status(500)
-                .body(Map.of("error", "Server error", "message", e.getMessage()));
-        }
+        // Get LinkedIn profile; the request thread is released while LinkedIn answers
+        return GlobalExceptionHandler.platformResponse("Failed to get profile",
+            () -> linkedInService.getProfile(userId, accountId), ResponseEntity::ok);
     }
 
     /**
@@ -65,34 +55,23 @@ public class LinkedInController {
      * GET /api/linkedin/{accountId}/posts
      */
     @GetMapping("/{accountId}/posts")
-    public ResponseEntity<?> getPosts(
+    public CompletableFuture<ResponseEntity<?>> getPosts(
             @PathVariable String accountId,
             @RequestParam(defaultValue = "10") int limit) {
-        try {
-            logger.info("Getting posts for LinkedIn account: {}", accountId);
-
-            // Get userId from SecurityContext
-            org.springframework.security.core.Authentication auth =
-                org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication();
+        logger.info("Getting posts for LinkedIn account: {}", accountId);
 
-            if (auth == null || !auth.isAuthenticated() || "anonymousUser".equals(auth.getName())) {
-                return ResponseEntity.status(401)
-                    .body(Map.of("error", "Unauthorized", "message", "Please login first"));
-            }
+        // Get userId from SecurityContext
+        org.springframework.security.core.Authentication auth =
+            org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication();
 
-            String userId = auth.getName();
-            List<Map<String, Object>> posts = linkedInService.getPosts(userId, accountId, limit);
-
-            return ResponseEntity.ok(posts);
-        } catch (RuntimeException e) {
-            logger.error("Failed to get posts: {}", e.getMessage(), e);
-            return ResponseEntity.badRequest()
-                .body(Map.of("error", "Failed to get posts", "message", e.getMessage()));
-        } catch (Exception e) {
-            logger.error("Unexpected error getting posts: {}", e.getMessage(), e);
-            return ResponseEntity.status(500)
-                .body(Map.of("error", "Server error", "message", e.getMessage()));
+        if (auth == null || !auth.isAuthenticated() || "anonymousUser".equals(auth.getName())) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(401)
+                .body(Map.of("error", "Unauthorized", "message", "Please login first")));
         }
+
+        String userId = auth.getName();
+        return GlobalExceptionHandler.platformResponse("Failed to get posts",
+            () -> linkedInService.getPosts(userId, accountId, limit), ResponseEntity::ok);
     }
 
     /**
@@ -1,12 +1,16 @@
 package com.cliq24.backend.controller;
 
+import com.cliq24.backend.dto.AccountMetricsDTO;
 import com.cliq24.backend.dto.SocialAccountDTO;
 import com.cliq24.backend.service.SocialAccountService;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.io.IOException;
 import java.net.URLEncoder;
@@ -91,6 +95,9 @@ public class SocialAccountController {
     // Store PKCE code verifiers temporarily (in production, use Redis or session)
     private static final ConcurrentHashMap<String, String> pkceVerifiers = new ConcurrentHashMap<>();
 
+    // Revalidate every time, but never let shared caches keep per-user data
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     @Autowired
     public SocialAccountController(SocialAccountService socialAccountService,
                                    com.cliq24.backend.mapper.SocialAccountMapper socialAccountMapper) {
@@ -122,8 +129,31 @@ public class SocialAccountController {
         return pkceVerifiers.remove(state);
     }
     
+    /**
+     * ETag from everything the client renders for each account - metrics, stale and reconnect
+     * flags, names - so polling gets a 304 only while none of it has changed. lastSynced alone
+     * misses a failed sync flipping stale, or a rename without a new sync.
+     */
+    private static String accountsETag(List<SocialAccountDTO> accounts) {
+        int hash = 1;
+        for (SocialAccountDTO account : accounts) {
+            AccountMetricsDTO metrics = account.getMetrics();
+            hash = 31 * hash + java.util.Objects.hash(account.getId(), account.getPlatform(),
+                account.getUsername(), account.getProfilePicture(), account.getLastSynced(),
+                account.getEngagementScore(), account.getIsActive(), account.getNeedsReconnection(),
+                account.getStale());
+            if (metrics != null) {
+                hash = 31 * hash + java.util.Objects.hash(metrics.getEngagementScore(), metrics.getConnections(),
+                    metrics.getPosts(), metrics.getPendingResponses(), metrics.getNewMessages(),
+                    metrics.getRecentPosts(), metrics.getLikes(), metrics.getComments(), metrics.getShares(),
+                    metrics.getViews(), metrics.getEngagementRate());
+            }
+        }
+        return "W/\"" + Integer.toHexString(hash) + "-" + accounts.size() + "\"";
+    }
+
     @GetMapping
-    public ResponseEntity<List<SocialAccountDTO>> getUserAccounts() {
+    public ResponseEntity<List<SocialAccountDTO>> getUserAccounts(WebRequest webRequest) {
         // Get userId from SecurityContext (set by JWT filter from cookie or header)
         org.springframework.security.core.Authentication auth =
             org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication();
@@ -134,14 +164,42 @@ public class SocialAccountController {
 
         String userId = auth.getName();
         List<SocialAccountDTO> accounts = socialAccountService.getUserAccountsByUserId(userId);
-        return ResponseEntity.ok(accounts);
+
+        String etag = accountsETag(accounts);
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(accounts);
+    }
+
+    /**
+     * Dashboard summary: account DTOs plus overall score, label and totals
+     * GET /api/social-accounts/dashboard
+     */
+    @GetMapping("/dashboard")
+    public ResponseEntity<com.cliq24.backend.model.UserDashboard> getDashboard(WebRequest webRequest) {
+        org.springframework.security.core.Authentication auth =
+            org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication();
+
+        if (auth == null || !auth.isAuthenticated() || "anonymousUser".equals(auth.getName())) {
+            return ResponseEntity.status(401).build();
+        }
+
+        com.cliq24.backend.model.UserDashboard dashboard = socialAccountService.getDashboardByUserId(auth.getName());
+
+        // The document is rebuilt on every account change, so the account states identify it
+        String etag = accountsETag(dashboard.getAccounts());
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(dashboard);
     }
 
     /**
      * Get a single social account by ID
      */
     @GetMapping("/account/{accountId}")
-    public ResponseEntity<?> getAccountById(@PathVariable String accountId) {
+    public ResponseEntity<?> getAccountById(@PathVariable String accountId, WebRequest webRequest) {
         org.springframework.security.core.Authentication auth =
             org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication();
 
@@ -163,13 +221,53 @@ public class SocialAccountController {
 
             // Convert to DTO
             com.cliq24.backend.dto.SocialAccountDTO accountDTO = socialAccountMapper.toDTO(account);
-            return ResponseEntity.ok(accountDTO);
+
+            List<SocialAccountDTO> single = List.of(accountDTO);
+            String etag = accountsETag(single);
+            if (webRequest.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+            }
+            return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(accountDTO);
         } catch (RuntimeException e) {
             return ResponseEntity.status(404)
                 .body(java.util.Map.of("error", "Not found", "message", e.getMessage()));
         }
     }
 
+    /**
+     * Metrics history for charts
+     * GET /api/social-accounts/account/{accountId}/history?days=90&resolution=daily
+     * resolution: raw, hourly, daily or weekly
+     */
+    @GetMapping("/account/{accountId}/history")
+    public ResponseEntity<?> getMetricsHistory(
+            @PathVariable String accountId,
+            @RequestParam(defaultValue = "90") int days,
+            @RequestParam(defaultValue = "daily") String resolution) {
+        org.springframework.security.core.Authentication auth =
+            org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication();
+
+        if (auth == null || !auth.isAuthenticated() || "anonymousUser".equals(auth.getName())) {
+            return ResponseEntity.status(401)
+                .body(java.util.Map.of("error", "Unauthorized", "message", "Please login first"));
+        }
+
+        String userId = auth.getName();
+
+        try {
+            List<com.cliq24.backend.model.MetricsSnapshot> points =
+                socialAccountService.getMetricsHistoryByUserId(accountId, userId, days, resolution);
+            return ResponseEntity.ok(java.util.Map.of(
+                "accountId", accountId,
+                "resolution", resolution,
+                "points", points
+            ));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest()
+                .body(java.util.Map.of("error", "Failed to get history", "message", e.getMessage()));
+        }
+    }
+
     /**
      * Initiate Facebook OAuth connection
      */
@@ -537,8 +635,13 @@ public class SocialAccountController {
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * Sync one account; within the freshness window the stored metrics are returned
+     * unless force=true
+     */
     @PostMapping("/{accountId}/sync")
-    public ResponseEntity<SocialAccountDTO> syncMetrics(@PathVariable String accountId) {
+    public ResponseEntity<SocialAccountDTO> syncMetrics(@PathVariable String accountId,
+                                                        @RequestParam(defaultValue = "false") boolean force) {
         // Get userId from SecurityContext
         org.springframework.security.core.Authentication auth =
             org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication();
@@ -548,10 +651,28 @@ public class SocialAccountController {
         }
 
         String userId = auth.getName();
-        SocialAccountDTO account = socialAccountService.syncMetricsByUserId(accountId, userId);
+        SocialAccountDTO account = socialAccountService.syncMetricsByUserId(accountId, userId, force);
         return ResponseEntity.ok(account);
     }
 
+    /**
+     * Sync all of the current user's accounts in parallel
+     * POST /api/social-accounts/sync-all
+     */
+    @PostMapping("/sync-all")
+    public ResponseEntity<?> syncAllAccounts() {
+        // Get userId from SecurityContext
+        org.springframework.security.core.Authentication auth =
+            org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication();
+
+        if (auth == null || !auth.isAuthenticated() || "anonymousUser".equals(auth.getName())) {
+            return ResponseEntity.status(401).build();
+        }
+
+        String userId = auth.getName();
+        return ResponseEntity.ok(socialAccountService.syncAllByUserId(userId));
+    }
+
     /**
      * Initiate Twitter/X OAuth connection with PKCE
      */
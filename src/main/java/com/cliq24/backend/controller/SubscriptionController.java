@@ -1,9 +1,9 @@
 package com.cliq24.backend.controller;
 
 import com.cliq24.backend.model.User;
-import com.cliq24.backend.repository.UserRepository;
 import com.cliq24.backend.service.AuthService;
 import com.cliq24.backend.service.SubscriptionService;
+import com.cliq24.backend.service.UserCache;
 import com.stripe.exception.SignatureVerificationException;
 import com.stripe.exception.StripeException;
 import com.stripe.model.Event;
@@ -33,15 +33,15 @@ public class SubscriptionController {
 
     private final SubscriptionService subscriptionService;
     private final AuthService authService;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
 
     @Autowired
     public SubscriptionController(SubscriptionService subscriptionService,
                                    AuthService authService,
-                                   UserRepository userRepository) {
+                                   UserCache userCache) {
         this.subscriptionService = subscriptionService;
         this.authService = authService;
-        this.userRepository = userRepository;
+        this.userCache = userCache;
     }
 
     /**
@@ -93,7 +93,7 @@ public class SubscriptionController {
             }
 
             String userId = auth.getName();
-            User user = userRepository.findById(userId)
+            User user = userCache.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
             Map<String, Object> response = new HashMap<>();
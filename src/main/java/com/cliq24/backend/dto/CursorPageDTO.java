@@ -0,0 +1,10 @@
+package com.cliq24.backend.dto;
+
+import java.util.List;
+
+/**
+ * One page of a list plus the opaque cursor for the next page (null on the last page).
+ * Controllers return the items as the body and the cursor in the X-Next-Cursor header.
+ */
+public record CursorPageDTO<T>(List<T> items, String nextCursor) {
+}
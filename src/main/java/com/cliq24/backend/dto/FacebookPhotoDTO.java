@@ -0,0 +1,11 @@
+package com.cliq24.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * An uploaded Page photo; imageUrl is the largest rendition Graph returns
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record FacebookPhotoDTO(String id, String caption, String createdTime, String link, String imageUrl,
+                               Integer likeCount) {
+}
@@ -0,0 +1,11 @@
+package com.cliq24.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * A Page feed post, reduced to the fields the Facebook dashboard shows
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record FacebookPostDTO(String id, String message, String createdTime, String picture, String link,
+                              Integer likeCount, Integer commentCount, Integer shareCount) {
+}
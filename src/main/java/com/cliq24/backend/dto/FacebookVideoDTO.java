@@ -0,0 +1,11 @@
+package com.cliq24.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * A Page video with its view and like counts
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record FacebookVideoDTO(String id, String title, String description, String createdTime, String videoUrl,
+                               String thumbnail, String link, Integer views, Integer likeCount) {
+}
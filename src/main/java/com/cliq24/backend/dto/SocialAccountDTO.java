@@ -23,6 +23,7 @@ public class SocialAccountDTO {
     // Status
     private Boolean isActive;
     private Boolean needsReconnection;
+    private Boolean stale; // Platform unavailable - metrics are the last known values
 
     public SocialAccountDTO() {
     }
@@ -145,6 +146,14 @@ public class SocialAccountDTO {
         this.needsReconnection = needsReconnection;
     }
 
+    public Boolean getStale() {
+        return stale;
+    }
+
+    public void setStale(Boolean stale) {
+        this.stale = stale;
+    }
+
     public static class SocialAccountDTOBuilder {
         private String id;
         private String userId;
@@ -158,6 +167,7 @@ public class SocialAccountDTO {
         private Integer engagementScore;
         private Boolean isActive;
         private Boolean needsReconnection;
+        private Boolean stale;
 
         SocialAccountDTOBuilder() {
         }
@@ -222,10 +232,17 @@ public class SocialAccountDTO {
             return this;
         }
 
+        public SocialAccountDTOBuilder stale(Boolean stale) {
+            this.stale = stale;
+            return this;
+        }
+
         public SocialAccountDTO build() {
-            return new SocialAccountDTO(id, userId, platform, platformUserId, username,
+            SocialAccountDTO dto = new SocialAccountDTO(id, userId, platform, platformUserId, username,
                                        profilePicture, metrics, connectedAt, lastSynced,
                                        engagementScore, isActive, needsReconnection);
+            dto.setStale(stale);
+            return dto;
         }
     }
 }
@@ -1,6 +1,8 @@
 package com.cliq24.backend.exception;
 
 import com.cliq24.backend.dto.ErrorResponseDTO;
+import com.cliq24.backend.platforms.PlatformApiException;
+import com.cliq24.backend.platforms.PlatformRateLimitException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.http.HttpStatus;
@@ -9,13 +11,83 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.WebRequest;
 
+import java.net.SocketTimeoutException;
 import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
     private static final Logger logger = LogManager.getLogger(GlobalExceptionHandler.class);
 
+    /**
+     * Error body for a failed platform call, for the platform endpoints that answer with
+     * {error, message}: a timeout is 504, a quota refusal 429, any other platform failure 503,
+     * any other runtime failure (bad input, not the caller's account) 400, anything else 500
+     */
+    public static ResponseEntity<Map<String, String>> platformFailure(String error, Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+            ? throwable.getCause() : throwable;
+
+        if (isTimeout(cause)) {
+            logger.error("{}: platform request timed out", error);
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+                .body(Map.of("error", error, "message", "Platform request timed out"));
+        }
+        if (cause instanceof PlatformApiException) {
+            HttpStatus status = cause instanceof PlatformRateLimitException
+                ? HttpStatus.TOO_MANY_REQUESTS
+                : HttpStatus.SERVICE_UNAVAILABLE;
+            logger.warn("{} ({}): {}", error, status.value(), cause.getMessage());
+            return ResponseEntity.status(status)
+                .body(Map.of("error", error, "message", String.valueOf(cause.getMessage())));
+        }
+        if (cause instanceof RuntimeException) {
+            logger.error("{}: {}", error, cause.getMessage(), cause);
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", error, "message", String.valueOf(cause.getMessage())));
+        }
+        logger.error("Unexpected error - {}: {}", error, cause.getMessage(), cause);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+            .body(Map.of("error", "Server error", "message", String.valueOf(cause.getMessage())));
+    }
+
+    /**
+     * Async counterpart of platformFailure for the non-blocking platform endpoints: the response
+     * for call's result, or the same {error, message} body whether the call failed before going
+     * async (bad cursor, not the caller's account) or its future failed
+     */
+    public static <T> CompletableFuture<ResponseEntity<?>> platformResponse(
+            String error, Supplier<CompletableFuture<T>> call, Function<T, ResponseEntity<?>> toResponse) {
+        try {
+            return call.get()
+                .thenApply(toResponse)
+                .exceptionally(throwable -> platformFailure(error, throwable));
+        } catch (RuntimeException e) {
+            return CompletableFuture.completedFuture(platformFailure(error, e));
+        }
+    }
+
+    /**
+     * A call timeout, or a socket read timeout wrapped by the HTTP client
+     */
+    private static boolean isTimeout(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof TimeoutException || t instanceof SocketTimeoutException) {
+                return true;
+            }
+            if (t.getCause() == t) {
+                break;
+            }
+        }
+        return false;
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<ErrorResponseDTO> handleRuntimeException(
             RuntimeException ex, WebRequest request) {
@@ -33,6 +105,28 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR);
     }
     
+    @ExceptionHandler(PlatformApiException.class)
+    public ResponseEntity<ErrorResponseDTO> handlePlatformApiException(
+            PlatformApiException ex, WebRequest request) {
+
+        logger.warn("Platform call failed ({}): {}", ex.getPlatform(), ex.getMessage());
+
+        // Quota refusals are the caller's to retry later; anything else means the platform is unavailable
+        HttpStatus status = ex instanceof PlatformRateLimitException
+                ? HttpStatus.TOO_MANY_REQUESTS
+                : HttpStatus.SERVICE_UNAVAILABLE;
+
+        ErrorResponseDTO error = ErrorResponseDTO.builder()
+                .message(ex.getMessage())
+                .error(status.getReasonPhrase())
+                .status(status.value())
+                .timestamp(LocalDateTime.now())
+                .path(request.getDescription(false))
+                .build();
+
+        return new ResponseEntity<>(error, status);
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ErrorResponseDTO> handleIllegalArgumentException(
             IllegalArgumentException ex, WebRequest request) {
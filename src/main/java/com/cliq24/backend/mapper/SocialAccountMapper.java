@@ -3,11 +3,15 @@ package com.cliq24.backend.mapper;
 import com.cliq24.backend.dto.AccountMetricsDTO;
 import com.cliq24.backend.dto.SocialAccountDTO;
 import com.cliq24.backend.model.AccountMetrics;
+import com.cliq24.backend.model.Platform;
 import com.cliq24.backend.model.SocialAccount;
+import com.cliq24.backend.model.SocialAccountSummary;
 import com.cliq24.backend.util.ScoreCalculator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDateTime;
+
 @Component
 public class SocialAccountMapper {
 
@@ -23,21 +27,40 @@ public class SocialAccountMapper {
             return null;
         }
         
-        AccountMetricsDTO metricsDTO = toMetricsDTO(account.getMetrics());
-        Integer score = scoreCalculator.calculateEngagementScore(account.getMetrics());
+        return toDTO(account.getId(), account.getUserId(), account.getPlatform(), account.getPlatformUserId(),
+                account.getUsername(), account.getMetrics(), account.getConnectedAt(), account.getLastSynced(),
+                account.getTokenExpiresAt(), account.getMetricsStale());
+    }
+
+    public SocialAccountDTO toDTO(SocialAccountSummary summary) {
+        if (summary == null) {
+            return null;
+        }
+
+        return toDTO(summary.id(), summary.userId(), summary.platform(), summary.platformUserId(),
+                summary.username(), summary.metrics(), summary.connectedAt(), summary.lastSynced(),
+                summary.tokenExpiresAt(), summary.metricsStale());
+    }
+
+    private SocialAccountDTO toDTO(String id, String userId, Platform platform, String platformUserId,
+                                   String username, AccountMetrics metrics, LocalDateTime connectedAt,
+                                   LocalDateTime lastSynced, LocalDateTime tokenExpiresAt, Boolean metricsStale) {
+        AccountMetricsDTO metricsDTO = toMetricsDTO(metrics);
+        Integer score = scoreCalculator.calculateEngagementScore(metrics);
         
         return SocialAccountDTO.builder()
-                .id(account.getId())
-                .userId(account.getUserId())
-                .platform(account.getPlatform())
-                .platformUserId(account.getPlatformUserId())
-                .username(account.getUsername())
+                .id(id)
+                .userId(userId)
+                .platform(platform != null ? platform.displayName() : null)
+                .platformUserId(platformUserId)
+                .username(username)
                 .metrics(metricsDTO)
-                .connectedAt(account.getConnectedAt())
-                .lastSynced(account.getLastSynced())
+                .connectedAt(connectedAt)
+                .lastSynced(lastSynced)
                 .engagementScore(score)
                 .isActive(true)
-                .needsReconnection(isTokenExpired(account))
+                .needsReconnection(tokenExpiresAt != null && tokenExpiresAt.isBefore(LocalDateTime.now()))
+                .stale(Boolean.TRUE.equals(metricsStale))
                 .build();
     }
     
@@ -68,11 +91,4 @@ public class SocialAccountMapper {
         
         return metrics;
     }
-    
-    private boolean isTokenExpired(SocialAccount account) {
-        if (account.getTokenExpiresAt() == null) {
-            return false;
-        }
-        return account.getTokenExpiresAt().isBefore(java.time.LocalDateTime.now());
-    }
 }
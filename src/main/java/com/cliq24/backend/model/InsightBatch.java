@@ -0,0 +1,115 @@
+package com.cliq24.backend.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.Instant;
+
+/**
+ * A Message Batches job. Recorded as PENDING before the (paid) submit, so a batch can't be
+ * submitted without a record of it, and kept in Mongo so any node can pick up the results
+ * once the batch has ended. The accounts waiting on each prompt are in InsightBatchTargets.
+ */
+@Document(collection = "insight_batches")
+public class InsightBatch {
+    public static final String PENDING = "PENDING";
+    public static final String SUBMITTED = "SUBMITTED";
+    public static final String PROCESSING = "PROCESSING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    @Id
+    private String id;
+
+    private String batchId; // batch id from the API, once submitted
+    private String status = PENDING;
+    private int requestCount;
+    private int succeededCount;
+    private int erroredCount;
+    private Instant createdAt;
+    private Instant submittedAt;
+    private Instant claimedAt; // when a node took it for import - the claim lapses after the lease
+    private Instant completedAt;
+
+    public InsightBatch() {
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getBatchId() {
+        return batchId;
+    }
+
+    public void setBatchId(String batchId) {
+        this.batchId = batchId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getRequestCount() {
+        return requestCount;
+    }
+
+    public void setRequestCount(int requestCount) {
+        this.requestCount = requestCount;
+    }
+
+    public int getSucceededCount() {
+        return succeededCount;
+    }
+
+    public void setSucceededCount(int succeededCount) {
+        this.succeededCount = succeededCount;
+    }
+
+    public int getErroredCount() {
+        return erroredCount;
+    }
+
+    public void setErroredCount(int erroredCount) {
+        this.erroredCount = erroredCount;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public void setSubmittedAt(Instant submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+
+    public Instant getClaimedAt() {
+        return claimedAt;
+    }
+
+    public void setClaimedAt(Instant claimedAt) {
+        this.claimedAt = claimedAt;
+    }
+
+    public Instant getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(Instant completedAt) {
+        this.completedAt = completedAt;
+    }
+}
@@ -0,0 +1,56 @@
+package com.cliq24.backend.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One chunk of the accounts waiting on an insight batch. A nightly batch can cover every
+ * account, which would overflow a single 16MB document, so the targets are split up.
+ */
+@Document(collection = "insight_batch_targets")
+public class InsightBatchTargets {
+    @Id
+    private String id;
+
+    @Indexed(name = "batch_id")
+    private String batchId; // InsightBatch.id
+
+    // fingerprint (the request's custom_id) -> "userId:accountId" entries waiting on it
+    private Map<String, List<String>> targets = new HashMap<>();
+
+    public InsightBatchTargets() {
+    }
+
+    public InsightBatchTargets(String batchId, Map<String, List<String>> targets) {
+        this.batchId = batchId;
+        this.targets = targets;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getBatchId() {
+        return batchId;
+    }
+
+    public void setBatchId(String batchId) {
+        this.batchId = batchId;
+    }
+
+    public Map<String, List<String>> getTargets() {
+        return targets;
+    }
+
+    public void setTargets(Map<String, List<String>> targets) {
+        this.targets = targets;
+    }
+}
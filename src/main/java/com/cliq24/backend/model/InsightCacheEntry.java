@@ -0,0 +1,55 @@
+package com.cliq24.backend.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.Instant;
+
+/**
+ * Second-level copy of a generated insight, keyed by the fingerprint of the prompt inputs.
+ * Shared by every node and kept across deploys. expiresAt is only set when a TTL is
+ * configured; the TTL index ignores entries without it.
+ */
+@Document(collection = "insights_cache")
+public class InsightCacheEntry {
+    @Id
+    private String id; // input fingerprint
+
+    private String insight;
+    private Instant createdAt;
+    private Instant expiresAt;
+
+    public InsightCacheEntry() {
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getInsight() {
+        return insight;
+    }
+
+    public void setInsight(String insight) {
+        this.insight = insight;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,120 @@
+package com.cliq24.backend.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.TimeSeries;
+import org.springframework.data.mongodb.core.timeseries.Granularity;
+import java.time.Instant;
+
+/**
+ * One point-in-time copy of an account's metrics. Stored in a MongoDB time-series
+ * collection with the account id as the meta field, using short field names to keep
+ * buckets small.
+ */
+@Document(collection = "metrics_history")
+@TimeSeries(collection = "metrics_history", timeField = "t", metaField = "a", granularity = Granularity.HOURS)
+public class MetricsSnapshot {
+    @Id
+    private String id;
+
+    @Field("a")
+    private String accountId;
+
+    @Field("t")
+    private Instant timestamp;
+
+    @Field("c")
+    private Integer connections;
+
+    @Field("p")
+    private Integer posts;
+
+    @Field("pr")
+    private Integer pendingResponses;
+
+    @Field("nm")
+    private Integer newMessages;
+
+    @Field("es")
+    private Integer engagementScore;
+
+    public MetricsSnapshot() {
+    }
+
+    public static MetricsSnapshot of(String accountId, AccountMetrics metrics, Instant timestamp) {
+        MetricsSnapshot snapshot = new MetricsSnapshot();
+        snapshot.setAccountId(accountId);
+        snapshot.setTimestamp(timestamp);
+        snapshot.setConnections(metrics.getConnections());
+        snapshot.setPosts(metrics.getPosts());
+        snapshot.setPendingResponses(metrics.getPendingResponses());
+        snapshot.setNewMessages(metrics.getNewMessages());
+        snapshot.setEngagementScore(metrics.getEngagementScore());
+        return snapshot;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(String accountId) {
+        this.accountId = accountId;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Instant timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public Integer getConnections() {
+        return connections;
+    }
+
+    public void setConnections(Integer connections) {
+        this.connections = connections;
+    }
+
+    public Integer getPosts() {
+        return posts;
+    }
+
+    public void setPosts(Integer posts) {
+        this.posts = posts;
+    }
+
+    public Integer getPendingResponses() {
+        return pendingResponses;
+    }
+
+    public void setPendingResponses(Integer pendingResponses) {
+        this.pendingResponses = pendingResponses;
+    }
+
+    public Integer getNewMessages() {
+        return newMessages;
+    }
+
+    public void setNewMessages(Integer newMessages) {
+        this.newMessages = newMessages;
+    }
+
+    public Integer getEngagementScore() {
+        return engagementScore;
+    }
+
+    public void setEngagementScore(Integer engagementScore) {
+        this.engagementScore = engagementScore;
+    }
+}
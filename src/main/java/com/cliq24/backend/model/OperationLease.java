@@ -0,0 +1,55 @@
+package com.cliq24.backend.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.Instant;
+
+/**
+ * Cross-replica lock on an in-flight operation (an account sync or an insight generation).
+ * Whoever holds an unexpired lease runs the operation; other replicas wait for it to be released.
+ * The nightly insights batch also inserts one per cron slot so a single replica submits.
+ */
+@Document(collection = "operation_leases")
+public class OperationLease {
+    @Id
+    private String id; // operation key, e.g. sync:<accountId>
+
+    private String owner;
+    private Instant acquiredAt;
+    private Instant expiresAt;
+
+    public OperationLease() {
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public Instant getAcquiredAt() {
+        return acquiredAt;
+    }
+
+    public void setAcquiredAt(Instant acquiredAt) {
+        this.acquiredAt = acquiredAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,59 @@
+package com.cliq24.backend.model;
+
+import java.util.Locale;
+
+/**
+ * The social platforms an account can belong to. Stored in MongoDB as the two-letter code
+ * (see MongoConfig), so (userId, platform) lookups are exact matches on the compound index.
+ */
+public enum Platform {
+    FACEBOOK("fb", "Facebook"),
+    INSTAGRAM("ig", "Instagram"),
+    TWITTER("tw", "Twitter"),
+    LINKEDIN("li", "LinkedIn"),
+    TIKTOK("tt", "TikTok"),
+    YOUTUBE("yt", "YouTube"),
+    SNAPCHAT("sc", "Snapchat");
+
+    private final String code;
+    private final String displayName;
+
+    Platform(String code, String displayName) {
+        this.code = code;
+        this.displayName = displayName;
+    }
+
+    public String code() {
+        return code;
+    }
+
+    public String displayName() {
+        return displayName;
+    }
+
+    /**
+     * Lowercase key used for configuration, metrics tags, goals and per-platform clients, e.g. "linkedin"
+     */
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Parse a stored code or any spelling of the platform name ("facebook", "Facebook", "FACEBOOK")
+     */
+    public static Platform from(String value) {
+        if (value != null) {
+            for (Platform platform : values()) {
+                if (platform.code.equals(value) || platform.name().equalsIgnoreCase(value)) {
+                    return platform;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Unsupported platform: " + value);
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -1,18 +1,22 @@
 package com.cliq24.backend.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 
 @Document(collection = "social_accounts")
+// One account per platform per user; also serves findByUserId / countByUserId (prefix)
+@CompoundIndex(name = "user_platform", def = "{'userId': 1, 'platform': 1}", unique = true)
 public class SocialAccount {
     @Id
     private String id;
 
     private String userId;
-    private String platform;
+    private Platform platform; // Stored as Platform.code()
     private String platformUserId;
     private String username;
     private String accountName; // Display name (e.g., "John Doe" vs username "@johndoe")
@@ -21,7 +25,9 @@ public class SocialAccount {
     private LocalDateTime tokenExpiresAt;
 
     private AccountMetrics metrics;
+    @Indexed(name = "last_synced") // Background sync scans for stale accounts
     private LocalDateTime lastSynced;
+    private Boolean metricsStale; // Last refresh failed - metrics are from lastSynced
     private LocalDateTime connectedAt = LocalDateTime.now();
 
     // LinkedIn-specific fields
@@ -47,11 +53,11 @@ public class SocialAccount {
         this.userId = userId;
     }
 
-    public String getPlatform() {
+    public Platform getPlatform() {
         return platform;
     }
 
-    public void setPlatform(String platform) {
+    public void setPlatform(Platform platform) {
         this.platform = platform;
     }
 
@@ -142,5 +148,12 @@ public class SocialAccount {
     public void setManualMetrics(Map<String, Integer> manualMetrics) {
         this.manualMetrics = manualMetrics;
     }
-}
 
+    public Boolean getMetricsStale() {
+        return metricsStale;
+    }
+
+    public void setMetricsStale(Boolean metricsStale) {
+        this.metricsStale = metricsStale;
+    }
+}
@@ -0,0 +1,22 @@
+package com.cliq24.backend.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of a social_accounts document with just what the dashboard list shows.
+ * Spring Data derives the field projection from these components, so tokens and
+ * manualMetrics never leave MongoDB on this path.
+ */
+public record SocialAccountSummary(
+    String id,
+    String userId,
+    Platform platform,
+    String platformUserId,
+    String username,
+    AccountMetrics metrics,
+    LocalDateTime tokenExpiresAt,
+    LocalDateTime lastSynced,
+    Boolean metricsStale,
+    LocalDateTime connectedAt
+) {
+}
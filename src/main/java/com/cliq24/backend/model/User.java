@@ -1,6 +1,7 @@
 package com.cliq24.backend.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -12,8 +13,12 @@ public class User {
     @Id
     private String id;
 
+    @Indexed(name = "google_id", unique = true, sparse = true) // Email/password users have none
     private String googleId;
+
+    @Indexed(name = "email", unique = true)
     private String email;
+
     private String name;
     private String picture;
     private String passwordHash; // For email/password authentication
@@ -25,6 +30,7 @@ public class User {
     // Subscription fields
     private String subscriptionTier = "FREE"; // FREE, PREMIUM
     private String subscriptionStatus = "ACTIVE"; // ACTIVE, CANCELED, PAST_DUE, INCOMPLETE
+    @Indexed(name = "stripe_customer", sparse = true) // Webhook lookups; most users never subscribe
     private String stripeCustomerId;
     private String stripeSubscriptionId;
     private LocalDateTime subscriptionEndsAt;
@@ -0,0 +1,149 @@
+package com.cliq24.backend.model;
+
+import com.cliq24.backend.dto.SocialAccountDTO;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Materialized dashboard for one user: ready-to-serve account DTOs plus the overall
+ * score and totals. Kept current by DashboardService as accounts are saved or removed.
+ */
+@Document(collection = "user_dashboards")
+// findByAccountsId - embedded DTO ids are stored as _id
+@CompoundIndex(name = "account_id", def = "{'accounts._id': 1}")
+public class UserDashboard {
+    @Id
+    private String userId;
+
+    @Version
+    @JsonIgnore
+    private Long version;
+
+    private List<SocialAccountDTO> accounts = new ArrayList<>();
+    private Integer overallScore = 0;
+    private String scoreLabel;
+    private String scoreColor;
+    private Integer totalFollowers = 0;
+    private Integer totalPosts = 0;
+
+    // Token expiry per account id; the earliest future one is when needsReconnection flags go stale
+    @JsonIgnore
+    private Map<String, LocalDateTime> tokenExpiries = new HashMap<>();
+    @JsonIgnore
+    private LocalDateTime nextTokenExpiry;
+    // Placeholder left by an account write that found no document - the next read rebuilds it
+    @JsonIgnore
+    private boolean stale;
+    private LocalDateTime updatedAt;
+
+    public UserDashboard() {
+    }
+
+    public UserDashboard(String userId) {
+        this.userId = userId;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public List<SocialAccountDTO> getAccounts() {
+        return accounts;
+    }
+
+    public void setAccounts(List<SocialAccountDTO> accounts) {
+        this.accounts = accounts;
+    }
+
+    public Integer getOverallScore() {
+        return overallScore;
+    }
+
+    public void setOverallScore(Integer overallScore) {
+        this.overallScore = overallScore;
+    }
+
+    public String getScoreLabel() {
+        return scoreLabel;
+    }
+
+    public void setScoreLabel(String scoreLabel) {
+        this.scoreLabel = scoreLabel;
+    }
+
+    public String getScoreColor() {
+        return scoreColor;
+    }
+
+    public void setScoreColor(String scoreColor) {
+        this.scoreColor = scoreColor;
+    }
+
+    public Integer getTotalFollowers() {
+        return totalFollowers;
+    }
+
+    public void setTotalFollowers(Integer totalFollowers) {
+        this.totalFollowers = totalFollowers;
+    }
+
+    public Integer getTotalPosts() {
+        return totalPosts;
+    }
+
+    public void setTotalPosts(Integer totalPosts) {
+        this.totalPosts = totalPosts;
+    }
+
+    public Map<String, LocalDateTime> getTokenExpiries() {
+        return tokenExpiries;
+    }
+
+    public void setTokenExpiries(Map<String, LocalDateTime> tokenExpiries) {
+        this.tokenExpiries = tokenExpiries;
+    }
+
+    public LocalDateTime getNextTokenExpiry() {
+        return nextTokenExpiry;
+    }
+
+    public void setNextTokenExpiry(LocalDateTime nextTokenExpiry) {
+        this.nextTokenExpiry = nextTokenExpiry;
+    }
+
+    public boolean isStale() {
+        return stale;
+    }
+
+    public void setStale(boolean stale) {
+        this.stale = stale;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
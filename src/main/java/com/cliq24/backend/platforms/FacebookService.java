@@ -1,29 +1,90 @@
 package com.cliq24.backend.platforms;
 
+import com.cliq24.backend.dto.CursorPageDTO;
+import com.cliq24.backend.dto.FacebookPhotoDTO;
+import com.cliq24.backend.dto.FacebookPostDTO;
+import com.cliq24.backend.dto.FacebookVideoDTO;
 import com.cliq24.backend.model.AccountMetrics;
+import com.cliq24.backend.model.Platform;
 import com.cliq24.backend.model.SocialAccount;
 import com.cliq24.backend.repository.SocialAccountRepository;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.apache.hc.core5.http.ContentType;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.RestTemplate;
-
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Service
 public class FacebookService {
 
     private static final Logger logger = LogManager.getLogger(FacebookService.class);
 
+    private static final String MESSAGE_FIELDS = "id,from,message,created_time";
+    private static final String CONVERSATION_FIELDS =
+        "id,snippet,updated_time,unread_count,participants,messages.limit(1){" + MESSAGE_FIELDS + "}";
+    private static final int MAX_CONVERSATIONS = 100;
+    private static final int GRAPH_BATCH_LIMIT = 50;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private static final String PAGE_METRICS_FIELDS =
+        "name,followers_count,fan_count,published_posts.limit(0).summary(total_count)";
+
+    private static final String POST_FIELDS =
+        "id,message,created_time,full_picture,permalink_url,likes.summary(true),comments.summary(true),shares";
+    private static final String PHOTO_FIELDS =
+        "id,images,created_time,name,likes.summary(true),comments.summary(true),link";
+    private static final String VIDEO_FIELDS =
+        "id,title,description,created_time,source,picture,permalink_url,likes.summary(true),comments.summary(true),views";
+
     private final SocialAccountRepository socialAccountRepository;
     private final RestTemplate restTemplate;
+    private final PlatformAsyncHttp platformAsyncHttp;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, GraphPage<?>> pageCache;
+
+    @Value("${facebook.messages.limit:25}")
+    private int defaultMessagesLimit;
 
     @Autowired
-    public FacebookService(SocialAccountRepository socialAccountRepository) {
+    public FacebookService(SocialAccountRepository socialAccountRepository,
+                           PlatformHttpClients platformHttpClients,
+                           PlatformAsyncHttp platformAsyncHttp,
+                           ObjectMapper objectMapper,
+                           @Value("${facebook.page-cache.max-pages:2000}") long maxCachedPages,
+                           @Value("${facebook.page-cache.ttl-seconds:120}") long pageCacheTtlSeconds) {
         this.socialAccountRepository = socialAccountRepository;
-        this.restTemplate = new RestTemplate();
+        this.restTemplate = platformHttpClients.forPlatform("facebook");
+        this.platformAsyncHttp = platformAsyncHttp;
+        this.objectMapper = objectMapper;
+        this.pageCache = Caffeine.newBuilder()
+            .maximumSize(maxCachedPages)
+            .expireAfterWrite(Duration.ofSeconds(pageCacheTtlSeconds))
+            .build();
     }
 
     public AccountMetrics syncMetrics(SocialAccount account) {
@@ -45,22 +106,18 @@ public class FacebookService {
         try {
             String pageId = account.getPlatformUserId();
 
-            // Fetch Page info including follower count - try multiple field variations
-            String pageInfoUrl = String.format(
-                "https://graph.facebook.com/v18.0/%s?fields=followers_count,fan_count,name,likes,talking_about_count,new_like_count&access_token=%s",
-                pageId, accessToken
-            );
-
-            logger.info("Fetching page info from Facebook API for page: {}", pageId);
-            Map<String, Object> pageInfo = restTemplate.getForObject(pageInfoUrl, Map.class);
-
-            // Log what we actually received from Facebook
-            logger.info("Facebook API response: {}", pageInfo);
+            // Page info and the post total in one request: the published_posts edge is expanded with
+            // limit(0), so Graph returns only its summary count and no post objects
+            logger.info("Fetching page metrics from Facebook API for page: {}", pageId);
+            Map<String, Object> pageInfo = restTemplate.getForObject(
+                "https://graph.facebook.com/v18.0/{pageId}?fields={fields}&access_token={accessToken}",
+                Map.class, pageId, PAGE_METRICS_FIELDS, accessToken);
 
             // Get follower count - try multiple field names
             int followerCount = 0;
+            int postCount = 0;
             if (pageInfo != null) {
-                logger.info("Available fields in response: {}", pageInfo.keySet());
+                logger.debug("Available fields in response: {}", pageInfo.keySet());
 
                 if (pageInfo.containsKey("followers_count")) {
                     followerCount = ((Number) pageInfo.get("followers_count")).intValue();
@@ -68,42 +125,15 @@ public class FacebookService {
                 } else if (pageInfo.containsKey("fan_count")) {
                     followerCount = ((Number) pageInfo.get("fan_count")).intValue();
                     logger.info("Got follower count from 'fan_count': {}", followerCount);
-                } else if (pageInfo.containsKey("likes")) {
-                    followerCount = ((Number) pageInfo.get("likes")).intValue();
-                    logger.info("Got follower count from 'likes': {}", followerCount);
                 } else {
                     logger.warn("No follower count field found in response. Available fields: {}", pageInfo.keySet());
                 }
                 logger.info("Facebook page {} has {} followers", pageInfo.get("name"), followerCount);
-            } else {
-                logger.error("Received null response from Facebook API");
-            }
 
-            // Fetch post count (get recent posts and count them, or use summary)
-            String postsUrl = String.format(
-                "https://graph.facebook.com/v18.0/%s/posts?summary=true&limit=100&access_token=%s",
-                pageId, accessToken
-            );
-
-            logger.info("Fetching posts from Facebook API");
-            Map<String, Object> postsResponse = restTemplate.getForObject(postsUrl, Map.class);
-            int postCount = 0;
-            if (postsResponse != null && postsResponse.containsKey("data")) {
-                List<?> posts = (List<?>) postsResponse.get("data");
-                postCount = posts.size();
-                logger.info("Retrieved {} posts from feed", postCount);
-
-                // If we got 100 posts, there might be more, but we'll use 100 as the count
-                if (postCount == 100 && postsResponse.containsKey("summary")) {
-                    Map<String, Object> summary = (Map<String, Object>) postsResponse.get("summary");
-                    if (summary.containsKey("total_count")) {
-                        postCount = ((Number) summary.get("total_count")).intValue();
-                        logger.info("Using total_count from summary: {}", postCount);
-                    }
-                }
+                postCount = summaryTotalCount(pageInfo.get("published_posts"));
                 logger.info("Facebook page has {} posts", postCount);
             } else {
-                logger.warn("No posts data in response. Response: {}", postsResponse);
+                logger.error("Received null response from Facebook API");
             }
 
             // Set the metrics
@@ -117,116 +147,236 @@ public class FacebookService {
 
             logger.info("Successfully synced Facebook metrics: followers={}, posts={}", followerCount, postCount);
 
+        } catch (PlatformApiException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Failed to sync Facebook metrics: {}", e.getMessage(), e);
-            // Return default metrics on error
-            metrics.setConnections(0);
-            metrics.setPosts(0);
-            metrics.setPendingResponses(0);
-            metrics.setNewMessages(0);
+            // Let the caller keep the last known metrics rather than overwrite them with zeros
+            throw new PlatformApiException("facebook", "Failed to sync Facebook metrics: " + e.getMessage(), e);
         }
 
         return metrics;
     }
 
     /**
-     * Get recent messages for a Facebook account
-     * Returns the last 5 messages from conversations
+     * summary.total_count of an expanded edge, or 0 if Graph left the edge out (e.g. missing permission)
      */
-    public List<Map<String, Object>> getRecentMessages(String userId, String accountId) {
-        logger.debug("Getting recent messages for account {} owned by user {}", accountId, userId);
-
-        // Verify the account belongs to this user
-        SocialAccount account = socialAccountRepository.findById(accountId)
-            .orElseThrow(() -> new RuntimeException("Social account not found"));
-
-        if (!account.getUserId().equals(userId)) {
-            throw new RuntimeException("Unauthorized: Account does not belong to user");
+    private static int summaryTotalCount(Object edge) {
+        if (edge instanceof Map<?, ?> edgeMap && edgeMap.get("summary") instanceof Map<?, ?> summary
+                && summary.get("total_count") instanceof Number total) {
+            return total.intValue();
         }
+        logger.warn("No post count summary in Facebook response: {}", edge);
+        return 0;
+    }
 
-        if (!"Facebook".equals(account.getPlatform())) {
-            throw new RuntimeException("This endpoint is only for Facebook accounts");
-        }
+    /**
+     * Get recent messages from Facebook Page conversations, using the configured thread count
+     */
+    public CompletableFuture<List<Map<String, Object>>> getRecentMessages(String userId, String accountId) {
+        return getRecentMessages(userId, accountId, defaultMessagesLimit);
+    }
+
+    /**
+     * Get the latest message from each of the page's most recent conversations.
+     * The latest message is embedded via field expansion, so the whole inbox is one round trip;
+     * conversations Graph didn't expand are filled in with a single batch request.
+     * Non-blocking: the account is checked on the calling thread, then the future completes
+     * from the async client.
+     */
+    public CompletableFuture<List<Map<String, Object>>> getRecentMessages(String userId, String accountId, int limit) {
+        logger.debug("Getting recent messages for account {} owned by user {}", accountId, userId);
+        SocialAccount account = getOwnedFacebookAccount(userId, accountId);
 
         String accessToken = account.getAccessToken();
         if (accessToken == null || accessToken.isEmpty()) {
             logger.warn("No access token for account {}, returning mock data", accountId);
-            return generateMockMessages();
+            return CompletableFuture.completedFuture(generateMockMessages());
         }
 
-        try {
-            String pageId = account.getPlatformUserId();
+        int conversationLimit = Math.max(1, Math.min(limit, MAX_CONVERSATIONS));
+        String pageId = account.getPlatformUserId();
+
+        // Fetch conversations with each one's latest message expanded inline
+        URI conversationsUri = UriComponentsBuilder
+            .fromHttpUrl("https://graph.facebook.com/v18.0/{pageId}/conversations")
+            .queryParam("fields", "{fields}")
+            .queryParam("limit", conversationLimit)
+            .queryParam("access_token", "{accessToken}")
+            .encode()
+            .buildAndExpand(pageId, CONVERSATION_FIELDS, accessToken)
+            .toUri();
+
+        logger.info("Fetching {} conversations from Facebook API for page: {}", conversationLimit, pageId);
+        return platformAsyncHttp.get("facebook", conversationsUri, new HttpHeaders())
+            .thenCompose(response -> {
+                Map<String, Object> body = readJson(response.body());
+                if (!body.containsKey("data")) {
+                    logger.warn("No conversations data returned from Facebook API");
+                    return CompletableFuture.completedFuture(new ArrayList<Map<String, Object>>());
+                }
 
-            // Fetch conversations from the page
-            String conversationsUrl = String.format(
-                "https://graph.facebook.com/v18.0/%s/conversations?fields=id,snippet,updated_time,unread_count,participants&limit=5&access_token=%s",
-                pageId, accessToken
-            );
+                List<Map<String, Object>> conversations = (List<Map<String, Object>>) body.get("data");
+                Map<String, Map<String, Object>> latestByConversation = new HashMap<>();
+                List<String> notExpanded = new ArrayList<>();
+
+                for (Map<String, Object> conversation : conversations) {
+                    String conversationId = (String) conversation.get("id");
+                    if (!conversation.containsKey("messages")) {
+                        notExpanded.add(conversationId);
+                        continue;
+                    }
+                    Map<String, Object> latestMessage = firstDataItem(conversation.get("messages"));
+                    if (latestMessage != null) {
+                        latestByConversation.put(conversationId, latestMessage);
+                    }
+                }
+
+                if (!notExpanded.isEmpty()) {
+                    logger.info("{} conversations came back without messages, fetching them in a batch", notExpanded.size());
+                }
+                return fetchLatestMessages(notExpanded, accessToken).thenApply(batched -> {
+                    latestByConversation.putAll(batched);
+
+                    List<Map<String, Object>> messages = new ArrayList<>();
+                    for (Map<String, Object> conversation : conversations) {
+                        Map<String, Object> latestMessage = latestByConversation.get((String) conversation.get("id"));
+                        if (latestMessage != null) {
+                            messages.add(formatMessage(conversation, latestMessage));
+                        }
+                    }
 
-            logger.info("Fetching conversations from Facebook API for page: {}", pageId);
-            Map<String, Object> response = restTemplate.getForObject(conversationsUrl, Map.class);
+                    logger.info("Returning {} real messages from Facebook", messages.size());
+                    return messages;
+                });
+            })
+            // Surface the failure (the breaker has already seen it); demo data is only for accounts without a token
+            .handle((messages, error) -> {
+                if (error != null) {
+                    throw graphFailure("messages", error);
+                }
+                return messages;
+            });
+    }
 
-            if (response == null || !response.containsKey("data")) {
-                logger.warn("No conversations data returned from Facebook API");
-                return generateMockMessages();
+    /**
+     * Latest message for each conversation via the Graph batch endpoint. Graph runs the
+     * requests inside a batch in parallel, so each chunk of 50 costs one round trip;
+     * the chunks themselves go out concurrently.
+     */
+    private CompletableFuture<Map<String, Map<String, Object>>> fetchLatestMessages(List<String> conversationIds,
+                                                                                     String accessToken) {
+        List<CompletableFuture<Map<String, Map<String, Object>>>> chunks = new ArrayList<>();
+
+        for (int from = 0; from < conversationIds.size(); from += GRAPH_BATCH_LIMIT) {
+            List<String> chunk = conversationIds.subList(from, Math.min(from + GRAPH_BATCH_LIMIT, conversationIds.size()));
+            List<Map<String, String>> batch = new ArrayList<>();
+            for (String conversationId : chunk) {
+                batch.add(Map.of(
+                    "method", "GET",
+                    "relative_url", conversationId + "/messages?fields=" + MESSAGE_FIELDS + "&limit=1"
+                ));
             }
 
-            List<Map<String, Object>> conversations = (List<Map<String, Object>>) response.get("data");
-            List<Map<String, Object>> messages = new ArrayList<>();
-
-            // Process each conversation
-            for (Map<String, Object> conversation : conversations) {
-                String conversationId = (String) conversation.get("id");
-
-                // Fetch messages from this conversation
-                String messagesUrl = String.format(
-                    "https://graph.facebook.com/v18.0/%s/messages?fields=id,from,message,created_time&limit=1&access_token=%s",
-                    conversationId, accessToken
-                );
-
-                Map<String, Object> messagesResponse = restTemplate.getForObject(messagesUrl, Map.class);
-
-                if (messagesResponse != null && messagesResponse.containsKey("data")) {
-                    List<Map<String, Object>> conversationMessages = (List<Map<String, Object>>) messagesResponse.get("data");
-
-                    if (!conversationMessages.isEmpty()) {
-                        Map<String, Object> latestMessage = conversationMessages.get(0);
-                        Map<String, Object> formattedMessage = new HashMap<>();
-
-                        formattedMessage.put("id", latestMessage.get("id"));
-                        formattedMessage.put("message", latestMessage.get("message"));
-                        formattedMessage.put("timestamp", latestMessage.get("created_time"));
-
-                        // Get sender info from participants
-                        if (conversation.containsKey("participants")) {
-                            Map<String, Object> participants = (Map<String, Object>) conversation.get("participants");
-                            if (participants.containsKey("data")) {
-                                List<Map<String, Object>> participantList = (List<Map<String, Object>>) participants.get("data");
-                                if (!participantList.isEmpty()) {
-                                    Map<String, Object> participant = participantList.get(0);
-                                    formattedMessage.put("senderId", participant.get("id"));
-                                    formattedMessage.put("senderName", participant.get("name"));
-                                }
-                            }
-                        }
+            String body;
+            try {
+                body = "access_token=" + URLEncoder.encode(accessToken, StandardCharsets.UTF_8)
+                    + "&batch=" + URLEncoder.encode(objectMapper.writeValueAsString(batch), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
 
-                        // Check if message is read based on unread_count
-                        int unreadCount = conversation.containsKey("unread_count") ?
-                            ((Number) conversation.get("unread_count")).intValue() : 0;
-                        formattedMessage.put("read", unreadCount == 0);
+            chunks.add(platformAsyncHttp.post("facebook", URI.create("https://graph.facebook.com/v18.0/"),
+                    new HttpHeaders(), body, ContentType.APPLICATION_FORM_URLENCODED)
+                .thenApply(response -> readLatestMessages(chunk, response.body())));
+        }
 
-                        messages.add(formattedMessage);
-                    }
+        return CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).thenApply(done -> {
+            Map<String, Map<String, Object>> latestByConversation = new HashMap<>();
+            chunks.forEach(chunk -> latestByConversation.putAll(chunk.join()));
+            return latestByConversation;
+        });
+    }
+
+    private Map<String, Map<String, Object>> readLatestMessages(List<String> chunk, byte[] body) {
+        Map<String, Map<String, Object>> latestByConversation = new HashMap<>();
+        try {
+            List<Map<String, Object>> responses = objectMapper.readValue(body, List.class);
+            if (responses == null) {
+                return latestByConversation;
+            }
+
+            // Batch responses come back in request order; failed entries are null or non-200
+            for (int i = 0; i < responses.size() && i < chunk.size(); i++) {
+                Map<String, Object> item = responses.get(i);
+                if (item == null || !Integer.valueOf(200).equals(item.get("code")) || item.get("body") == null) {
+                    continue;
+                }
+                Map<String, Object> messagesResponse = objectMapper.readValue((String) item.get("body"), Map.class);
+                Map<String, Object> latestMessage = firstDataItem(messagesResponse);
+                if (latestMessage != null) {
+                    latestByConversation.put(chunk.get(i), latestMessage);
                 }
             }
+        } catch (IOException e) {
+            // Only an unreadable batch body is skipped; HTTP failures propagate to the caller
+            logger.warn("Batch message fetch failed for {} conversations: {}", chunk.size(), e.getMessage());
+        }
+        return latestByConversation;
+    }
 
-            logger.info("Returning {} real messages from Facebook", messages.size());
-            return messages;
+    private Map<String, Object> readJson(byte[] body) {
+        try {
+            Map<String, Object> map = objectMapper.readValue(body, Map.class);
+            return map != null ? map : Map.of();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
-        } catch (Exception e) {
-            logger.error("Failed to fetch messages from Facebook API: {}", e.getMessage(), e);
-            return generateMockMessages();
+    /**
+     * A failed Graph read as PlatformApiException, keeping the cause (e.g. a timeout) for platformFailure
+     */
+    private static PlatformApiException graphFailure(String what, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof PlatformApiException platformError) {
+            return platformError;
+        }
+        logger.error("Failed to fetch {} from Facebook API: {}", what, cause.getMessage(), cause);
+        return new PlatformApiException("facebook", "Failed to fetch Facebook " + what + ": " + cause.getMessage(), cause);
+    }
+
+    private Map<String, Object> firstDataItem(Object edge) {
+        if (!(edge instanceof Map)) {
+            return null;
         }
+        Object data = ((Map<String, Object>) edge).get("data");
+        if (!(data instanceof List) || ((List<?>) data).isEmpty()) {
+            return null;
+        }
+        return (Map<String, Object>) ((List<?>) data).get(0);
+    }
+
+    private Map<String, Object> formatMessage(Map<String, Object> conversation, Map<String, Object> latestMessage) {
+        Map<String, Object> formattedMessage = new HashMap<>();
+
+        formattedMessage.put("id", latestMessage.get("id"));
+        formattedMessage.put("message", latestMessage.get("message"));
+        formattedMessage.put("timestamp", latestMessage.get("created_time"));
+
+        // Get sender info from participants
+        Map<String, Object> participant = firstDataItem(conversation.get("participants"));
+        if (participant != null) {
+            formattedMessage.put("senderId", participant.get("id"));
+            formattedMessage.put("senderName", participant.get("name"));
+        }
+
+        // Check if message is read based on unread_count
+        int unreadCount = conversation.containsKey("unread_count") ?
+            ((Number) conversation.get("unread_count")).intValue() : 0;
+        formattedMessage.put("read", unreadCount == 0);
+
+        return formattedMessage;
     }
 
     /**
@@ -243,7 +393,7 @@ public class FacebookService {
             throw new RuntimeException("Unauthorized: Account does not belong to user");
         }
 
-        if (!"Facebook".equals(account.getPlatform())) {
+        if (account.getPlatform() != Platform.FACEBOOK) {
             throw new RuntimeException("This endpoint is only for Facebook accounts");
         }
 
@@ -295,7 +445,7 @@ public class FacebookService {
 
         } catch (Exception e) {
             logger.error("Failed to send message via Facebook API: {}", e.getMessage(), e);
-            throw new RuntimeException("Failed to send message: " + e.getMessage());
+            throw new RuntimeException("Failed to send message: " + e.getMessage(), e);
         }
     }
 
@@ -336,11 +486,37 @@ public class FacebookService {
     }
 
     /**
-     * Get real posts from Facebook Page
+     * Get real posts from Facebook Page, one page at a time.
+     * cursor is the nextCursor of the previous page, or null for the newest posts.
      */
-    public List<Map<String, Object>> getPosts(String userId, String accountId, int limit) {
+    public CompletableFuture<CursorPageDTO<FacebookPostDTO>> getPosts(String userId, String accountId, int limit,
+                                                                     String cursor) {
         logger.debug("Getting posts for account {} owned by user {}", accountId, userId);
+        return fetchPage(getOwnedFacebookAccount(userId, accountId), "feed", POST_FIELDS, Map.of(),
+            limit, cursor, this::readPost, this::getMockPosts);
+    }
 
+    /**
+     * Get real photos from Facebook Page, one page at a time
+     */
+    public CompletableFuture<CursorPageDTO<FacebookPhotoDTO>> getPhotos(String userId, String accountId, int limit,
+                                                                       String cursor) {
+        logger.debug("Getting photos for account {} owned by user {}", accountId, userId);
+        return fetchPage(getOwnedFacebookAccount(userId, accountId), "photos", PHOTO_FIELDS, Map.of("type", "uploaded"),
+            limit, cursor, this::readPhoto, ArrayList::new);
+    }
+
+    /**
+     * Get real videos from Facebook Page, one page at a time
+     */
+    public CompletableFuture<CursorPageDTO<FacebookVideoDTO>> getVideos(String userId, String accountId, int limit,
+                                                                       String cursor) {
+        logger.debug("Getting videos for account {} owned by user {}", accountId, userId);
+        return fetchPage(getOwnedFacebookAccount(userId, accountId), "videos", VIDEO_FIELDS, Map.of(),
+            limit, cursor, this::readVideo, ArrayList::new);
+    }
+
+    private SocialAccount getOwnedFacebookAccount(String userId, String accountId) {
         // Verify the account belongs to this user
         SocialAccount account = socialAccountRepository.findById(accountId)
             .orElseThrow(() -> new RuntimeException("Social account not found"));
@@ -349,247 +525,315 @@ public class FacebookService {
             throw new RuntimeException("Unauthorized: Account does not belong to user");
         }
 
-        if (!"Facebook".equals(account.getPlatform())) {
+        if (account.getPlatform() != Platform.FACEBOOK) {
             throw new RuntimeException("This endpoint is only for Facebook accounts");
         }
+        return account;
+    }
+
+    // ===== Cursor pagination =====
+    // Graph's own "after" cursors are wrapped in an opaque token bound to the account and edge,
+    // so a cursor can't be replayed against another page. Fetched pages are kept in a bounded
+    // cache, so scrolling back and forth through history costs nothing after the first pass.
+
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<CursorPageDTO<T>> fetchPage(SocialAccount account, String edge, String fields,
+                                                              Map<String, String> params, int limit, String cursor,
+                                                              GraphItemReader<T> itemReader,
+                                                              java.util.function.Supplier<List<T>> fallback) {
+        // Validate before calling Graph, so a bad cursor is the caller's error, not a platform failure
+        String after = decodeCursor(cursor, account.getId(), edge);
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
 
         String accessToken = account.getAccessToken();
         if (accessToken == null || accessToken.isEmpty()) {
-            logger.warn("No access token for account {}, returning mock data", accountId);
-            return getMockPosts();
+            logger.warn("No access token for account {}, returning mock data", account.getId());
+            return CompletableFuture.completedFuture(new CursorPageDTO<>(fallback.get(), null));
         }
 
-        try {
-            String pageId = account.getPlatformUserId();
-            String apiUrl = String.format(
-                "https://graph.facebook.com/v18.0/%s/feed?fields=id,message,created_time,full_picture,permalink_url,likes.summary(true),comments.summary(true),shares&limit=%d&access_token=%s",
-                pageId, limit, accessToken
-            );
-
-            logger.info("Fetching posts from Facebook API for page: {}", pageId);
-            Map<String, Object> response = restTemplate.getForObject(apiUrl, Map.class);
-
-            if (response == null || !response.containsKey("data")) {
-                logger.warn("No posts data returned from Facebook API");
-                return getMockPosts();
-            }
+        String cacheKey = account.getId() + "|" + edge + "|" + pageSize + "|" + (after != null ? after : "");
+        GraphPage<T> cached = (GraphPage<T>) pageCache.getIfPresent(cacheKey);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(
+                new CursorPageDTO<>(cached.items(), encodeCursor(cached.after(), account.getId(), edge)));
+        }
 
-            List<Map<String, Object>> posts = (List<Map<String, Object>>) response.get("data");
-            List<Map<String, Object>> formattedPosts = new ArrayList<>();
-
-            for (Map<String, Object> post : posts) {
-                Map<String, Object> formattedPost = new HashMap<>();
-                formattedPost.put("id", post.get("id"));
-                formattedPost.put("message", post.get("message"));
-                formattedPost.put("createdTime", post.get("created_time"));
-                formattedPost.put("picture", post.get("full_picture"));
-                formattedPost.put("link", post.get("permalink_url"));
-
-                // Extract like count
-                if (post.containsKey("likes")) {
-                    Map<String, Object> likes = (Map<String, Object>) post.get("likes");
-                    if (likes.containsKey("summary")) {
-                        Map<String, Object> summary = (Map<String, Object>) likes.get("summary");
-                        formattedPost.put("likeCount", summary.get("total_count"));
-                    }
-                }
+        String pageId = account.getPlatformUserId();
+        UriComponentsBuilder builder = UriComponentsBuilder
+            .fromHttpUrl("https://graph.facebook.com/v18.0/{pageId}/" + edge)
+            .queryParam("fields", "{fields}")
+            .queryParam("limit", pageSize)
+            .queryParam("access_token", "{accessToken}");
+        params.forEach(builder::queryParam);
+
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("pageId", pageId);
+        variables.put("fields", fields);
+        variables.put("accessToken", accessToken);
+        if (after != null) {
+            builder.queryParam("after", "{after}");
+            variables.put("after", after);
+        }
 
-                // Extract comment count
-                if (post.containsKey("comments")) {
-                    Map<String, Object> comments = (Map<String, Object>) post.get("comments");
-                    if (comments.containsKey("summary")) {
-                        Map<String, Object> summary = (Map<String, Object>) comments.get("summary");
-                        formattedPost.put("commentCount", summary.get("total_count"));
-                    }
+        logger.info("Fetching {} from Facebook API for page: {}", edge, pageId);
+        return platformAsyncHttp.get("facebook", builder.encode().buildAndExpand(variables).toUri(), new HttpHeaders())
+            .thenApply(response -> {
+                GraphPage<T> page = readDataArray(response.body(), itemReader);
+                if (page == null) {
+                    // An answer without a data array is a failed page, not the end of the list
+                    throw new PlatformApiException("facebook", "Facebook returned no " + edge + " data");
                 }
 
-                // Extract share count
-                if (post.containsKey("shares")) {
-                    Map<String, Object> shares = (Map<String, Object>) post.get("shares");
-                    formattedPost.put("shareCount", shares.get("count"));
+                pageCache.put(cacheKey, page);
+                logger.info("Returning {} real {} from Facebook", page.items().size(), edge);
+                return new CursorPageDTO<>(page.items(), encodeCursor(page.after(), account.getId(), edge));
+            })
+            // Surface the failure (the breaker has already seen it); demo data is only for accounts without a token
+            .handle((page, error) -> {
+                if (error != null) {
+                    throw graphFailure(edge, error);
                 }
+                return page;
+            });
+    }
 
-                formattedPosts.add(formattedPost);
-            }
-
-            logger.info("Returning {} real posts from Facebook", formattedPosts.size());
-            return formattedPosts;
-
-        } catch (Exception e) {
-            logger.error("Failed to fetch posts from Facebook API: {}", e.getMessage(), e);
-            return getMockPosts();
+    static String encodeCursor(String after, String accountId, String edge) {
+        if (after == null) {
+            return null;
         }
+        String raw = accountId + "|" + edge + "|" + after;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
     }
 
-    /**
-     * Get real photos from Facebook Page
-     */
-    public List<Map<String, Object>> getPhotos(String userId, String accountId, int limit) {
-        logger.debug("Getting photos for account {} owned by user {}", accountId, userId);
-
-        SocialAccount account = socialAccountRepository.findById(accountId)
-            .orElseThrow(() -> new RuntimeException("Social account not found"));
-
-        if (!account.getUserId().equals(userId)) {
-            throw new RuntimeException("Unauthorized: Account does not belong to user");
+    static String decodeCursor(String cursor, String accountId, String edge) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
         }
-
-        if (!"Facebook".equals(account.getPlatform())) {
-            throw new RuntimeException("This endpoint is only for Facebook accounts");
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 3);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
         }
-
-        String accessToken = account.getAccessToken();
-        if (accessToken == null || accessToken.isEmpty()) {
-            logger.warn("No access token for account {}, returning mock data", accountId);
-            return getMockPhotos();
+        if (parts.length != 3 || !parts[0].equals(accountId) || !parts[1].equals(edge)) {
+            throw new IllegalArgumentException("Invalid cursor");
         }
+        return parts[2];
+    }
 
-        try {
-            String pageId = account.getPlatformUserId();
-            String apiUrl = String.format(
-                "https://graph.facebook.com/v18.0/%s/photos?fields=id,images,created_time,name,likes.summary(true),comments.summary(true),link&type=uploaded&limit=%d&access_token=%s",
-                pageId, limit, accessToken
-            );
+    // ===== Streaming Graph list decoding =====
+    // List responses are read token by token from the response bytes: each item in "data" becomes
+    // a record holding only the fields we show, and everything else (comment/like data arrays,
+    // smaller image renditions) is skipped without building a tree.
 
-            logger.info("Fetching photos from Facebook API for page: {}", pageId);
-            Map<String, Object> response = restTemplate.getForObject(apiUrl, Map.class);
+    @FunctionalInterface
+    private interface GraphItemReader<T> {
+        T read(JsonParser parser) throws IOException;
+    }
 
-            if (response == null || !response.containsKey("data")) {
-                logger.warn("No photos data returned from Facebook API");
-                return getMockPhotos();
-            }
+    /**
+     * One page of a Graph list; after is the cursor for the next page, null on the last page
+     */
+    private record GraphPage<T>(List<T> items, String after) {
+    }
 
-            List<Map<String, Object>> photos = (List<Map<String, Object>>) response.get("data");
-            List<Map<String, Object>> formattedPhotos = new ArrayList<>();
-
-            for (Map<String, Object> photo : photos) {
-                Map<String, Object> formattedPhoto = new HashMap<>();
-                formattedPhoto.put("id", photo.get("id"));
-                formattedPhoto.put("caption", photo.get("name"));
-                formattedPhoto.put("createdTime", photo.get("created_time"));
-                formattedPhoto.put("link", photo.get("link"));
-
-                // Get the highest resolution image
-                if (photo.containsKey("images")) {
-                    List<Map<String, Object>> images = (List<Map<String, Object>>) photo.get("images");
-                    if (!images.isEmpty()) {
-                        formattedPhoto.put("imageUrl", images.get(0).get("source"));
+    /**
+     * Items of a Graph list response, or null if the response had no "data" array
+     */
+    private <T> GraphPage<T> readDataArray(byte[] body, GraphItemReader<T> itemReader) {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            List<T> items = null;
+            String after = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("data".equals(field) && value == JsonToken.START_ARRAY) {
+                    items = new ArrayList<>();
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        items.add(itemReader.read(parser));
                     }
+                } else if ("paging".equals(field) && value == JsonToken.START_OBJECT) {
+                    after = readNextCursor(parser);
+                } else {
+                    parser.skipChildren();
                 }
+            }
+            return items != null ? new GraphPage<>(items, after) : null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
-                // Extract like count
-                if (photo.containsKey("likes")) {
-                    Map<String, Object> likes = (Map<String, Object>) photo.get("likes");
-                    if (likes.containsKey("summary")) {
-                        Map<String, Object> summary = (Map<String, Object>) likes.get("summary");
-                        formattedPhoto.put("likeCount", summary.get("total_count"));
+    /**
+     * paging.cursors.after - but only when paging.next says there is another page
+     */
+    private static String readNextCursor(JsonParser parser) throws IOException {
+        String after = null;
+        boolean hasNext = false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if ("next".equals(field)) {
+                hasNext = value == JsonToken.VALUE_STRING;
+            } else if ("cursors".equals(field) && value == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String cursorField = parser.getCurrentName();
+                    parser.nextToken();
+                    if ("after".equals(cursorField)) {
+                        after = parser.getValueAsString();
+                    } else {
+                        parser.skipChildren();
                     }
                 }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return hasNext ? after : null;
+    }
 
-                formattedPhotos.add(formattedPhoto);
+    private FacebookPostDTO readPost(JsonParser parser) throws IOException {
+        String id = null, message = null, createdTime = null, picture = null, link = null;
+        Integer likeCount = null, commentCount = null, shareCount = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case "id" -> id = parser.getValueAsString();
+                case "message" -> message = parser.getValueAsString();
+                case "created_time" -> createdTime = parser.getValueAsString();
+                case "full_picture" -> picture = parser.getValueAsString();
+                case "permalink_url" -> link = parser.getValueAsString();
+                case "likes" -> likeCount = readSummaryTotal(parser);
+                case "comments" -> commentCount = readSummaryTotal(parser);
+                case "shares" -> shareCount = readIntField(parser, "count");
+                default -> parser.skipChildren();
             }
+        }
+        return new FacebookPostDTO(id, message, createdTime, picture, link, likeCount, commentCount, shareCount);
+    }
 
-            logger.info("Returning {} real photos from Facebook", formattedPhotos.size());
-            return formattedPhotos;
+    private FacebookPhotoDTO readPhoto(JsonParser parser) throws IOException {
+        String id = null, caption = null, createdTime = null, link = null, imageUrl = null;
+        Integer likeCount = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case "id" -> id = parser.getValueAsString();
+                case "name" -> caption = parser.getValueAsString();
+                case "created_time" -> createdTime = parser.getValueAsString();
+                case "link" -> link = parser.getValueAsString();
+                case "images" -> imageUrl = readFirstImageSource(parser);
+                case "likes" -> likeCount = readSummaryTotal(parser);
+                default -> parser.skipChildren();
+            }
+        }
+        return new FacebookPhotoDTO(id, caption, createdTime, link, imageUrl, likeCount);
+    }
 
-        } catch (Exception e) {
-            logger.error("Failed to fetch photos from Facebook API: {}", e.getMessage(), e);
-            return getMockPhotos();
+    private FacebookVideoDTO readVideo(JsonParser parser) throws IOException {
+        String id = null, title = null, description = null, createdTime = null;
+        String videoUrl = null, thumbnail = null, link = null;
+        Integer views = null, likeCount = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case "id" -> id = parser.getValueAsString();
+                case "title" -> title = parser.getValueAsString();
+                case "description" -> description = parser.getValueAsString();
+                case "created_time" -> createdTime = parser.getValueAsString();
+                case "source" -> videoUrl = parser.getValueAsString();
+                case "picture" -> thumbnail = parser.getValueAsString();
+                case "permalink_url" -> link = parser.getValueAsString();
+                case "views" -> views = parser.getValueAsInt();
+                case "likes" -> likeCount = readSummaryTotal(parser);
+                default -> parser.skipChildren();
+            }
         }
+        return new FacebookVideoDTO(id, title, description, createdTime, videoUrl, thumbnail, link, views, likeCount);
     }
 
     /**
-     * Get real videos from Facebook Page
+     * summary.total_count of a likes/comments edge, skipping its data array
      */
-    public List<Map<String, Object>> getVideos(String userId, String accountId, int limit) {
-        logger.debug("Getting videos for account {} owned by user {}", accountId, userId);
-
-        SocialAccount account = socialAccountRepository.findById(accountId)
-            .orElseThrow(() -> new RuntimeException("Social account not found"));
-
-        if (!account.getUserId().equals(userId)) {
-            throw new RuntimeException("Unauthorized: Account does not belong to user");
+    private static Integer readSummaryTotal(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
         }
-
-        if (!"Facebook".equals(account.getPlatform())) {
-            throw new RuntimeException("This endpoint is only for Facebook accounts");
+        Integer total = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            if ("summary".equals(field)) {
+                total = readIntField(parser, "total_count");
+            } else {
+                parser.skipChildren();
+            }
         }
+        return total;
+    }
 
-        String accessToken = account.getAccessToken();
-        if (accessToken == null || accessToken.isEmpty()) {
-            logger.warn("No access token for account {}, returning mock data", accountId);
-            return getMockVideos();
+    private static Integer readIntField(JsonParser parser, String name) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
         }
-
-        try {
-            String pageId = account.getPlatformUserId();
-            String apiUrl = String.format(
-                "https://graph.facebook.com/v18.0/%s/videos?fields=id,title,description,created_time,source,picture,permalink_url,likes.summary(true),comments.summary(true),views&limit=%d&access_token=%s",
-                pageId, limit, accessToken
-            );
-
-            logger.info("Fetching videos from Facebook API for page: {}", pageId);
-            Map<String, Object> response = restTemplate.getForObject(apiUrl, Map.class);
-
-            if (response == null || !response.containsKey("data")) {
-                logger.warn("No videos data returned from Facebook API");
-                return getMockVideos();
+        Integer value = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            if (name.equals(field)) {
+                value = parser.getValueAsInt();
+            } else {
+                parser.skipChildren();
             }
+        }
+        return value;
+    }
 
-            List<Map<String, Object>> videos = (List<Map<String, Object>>) response.get("data");
-            List<Map<String, Object>> formattedVideos = new ArrayList<>();
-
-            for (Map<String, Object> video : videos) {
-                Map<String, Object> formattedVideo = new HashMap<>();
-                formattedVideo.put("id", video.get("id"));
-                formattedVideo.put("title", video.get("title"));
-                formattedVideo.put("description", video.get("description"));
-                formattedVideo.put("createdTime", video.get("created_time"));
-                formattedVideo.put("videoUrl", video.get("source"));
-                formattedVideo.put("thumbnail", video.get("picture"));
-                formattedVideo.put("link", video.get("permalink_url"));
-                formattedVideo.put("views", video.get("views"));
-
-                // Extract like count
-                if (video.containsKey("likes")) {
-                    Map<String, Object> likes = (Map<String, Object>) video.get("likes");
-                    if (likes.containsKey("summary")) {
-                        Map<String, Object> summary = (Map<String, Object>) likes.get("summary");
-                        formattedVideo.put("likeCount", summary.get("total_count"));
-                    }
+    /**
+     * Graph lists renditions largest first - keep the first source, skip the rest
+     */
+    private static String readFirstImageSource(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+        String source = null;
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            if (source != null) {
+                parser.skipChildren();
+                continue;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                if ("source".equals(field)) {
+                    source = parser.getValueAsString();
+                } else {
+                    parser.skipChildren();
                 }
-
-                formattedVideos.add(formattedVideo);
             }
-
-            logger.info("Returning {} real videos from Facebook", formattedVideos.size());
-            return formattedVideos;
-
-        } catch (Exception e) {
-            logger.error("Failed to fetch videos from Facebook API: {}", e.getMessage(), e);
-            return getMockVideos();
         }
+        return source;
     }
 
-    // Mock data fallbacks
-    private List<Map<String, Object>> getMockPosts() {
-        List<Map<String, Object>> posts = new ArrayList<>();
-        Map<String, Object> post = new HashMap<>();
-        post.put("id", "mock_1");
-        post.put("message", "This is a mock post. Connect your Facebook account with proper permissions to see real posts.");
-        post.put("createdTime", LocalDateTime.now().toString());
-        post.put("likeCount", 0);
-        post.put("commentCount", 0);
-        posts.add(post);
+    // Mock data fallback
+    private List<FacebookPostDTO> getMockPosts() {
+        List<FacebookPostDTO> posts = new ArrayList<>();
+        posts.add(new FacebookPostDTO("mock_1",
+            "This is a mock post. Connect your Facebook account with proper permissions to see real posts.",
+            LocalDateTime.now().toString(), null, null, 0, 0, null));
         return posts;
     }
-
-    private List<Map<String, Object>> getMockPhotos() {
-        return new ArrayList<>();
-    }
-
-    private List<Map<String, Object>> getMockVideos() {
-        return new ArrayList<>();
-    }
 }
 
@@ -4,6 +4,7 @@ import com.cliq24.backend.model.AccountMetrics;
 import com.cliq24.backend.model.SocialAccount;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
@@ -13,7 +14,12 @@ import java.util.Map;
 public class InstagramService {
 
     private static final Logger logger = LogManager.getLogger(InstagramService.class);
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final RestTemplate restTemplate;
+
+    @Autowired
+    public InstagramService(PlatformHttpClients platformHttpClients) {
+        this.restTemplate = platformHttpClients.forPlatform("instagram");
+    }
 
     public AccountMetrics syncMetrics(SocialAccount account) {
         logger.info("Syncing metrics for Instagram account: {}", account.getUsername());
@@ -53,16 +59,11 @@ public class InstagramService {
 
             logger.info("Instagram engagement score: {}", engagementScore);
 
+        } catch (PlatformApiException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Error fetching Instagram metrics: {}", e.getMessage(), e);
-
-            // Fall back to demo metrics on error
-            logger.warn("Using demo metrics due to API error");
-            metrics.setEngagementScore(92);
-            metrics.setConnections(28300);
-            metrics.setPosts(567);
-            metrics.setPendingResponses(8);
-            metrics.setNewMessages(45);
+            throw new PlatformApiException("instagram", "Failed to sync Instagram metrics: " + e.getMessage(), e);
         }
 
         return metrics;
@@ -1,11 +1,14 @@
 package com.cliq24.backend.platforms;
 
 import com.cliq24.backend.model.AccountMetrics;
+import com.cliq24.backend.model.Platform;
 import com.cliq24.backend.model.SocialAccount;
 import com.cliq24.backend.repository.SocialAccountRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
@@ -13,6 +16,8 @@ import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Service
 public class LinkedInService {
@@ -21,11 +26,21 @@ public class LinkedInService {
 
     private final SocialAccountRepository socialAccountRepository;
     private final RestTemplate restTemplate;
+    private final PlatformAsyncHttp platformAsyncHttp;
+    private final ObjectMapper objectMapper;
+
+    @Value("${linkedin.share-stats.batch-size:20}")
+    private int shareStatsBatchSize;
 
     @Autowired
-    public LinkedInService(SocialAccountRepository socialAccountRepository) {
+    public LinkedInService(SocialAccountRepository socialAccountRepository,
+                           PlatformHttpClients platformHttpClients,
+                           PlatformAsyncHttp platformAsyncHttp,
+                           ObjectMapper objectMapper) {
         this.socialAccountRepository = socialAccountRepository;
-        this.restTemplate = new RestTemplate();
+        this.restTemplate = platformHttpClients.forPlatform("linkedin");
+        this.platformAsyncHttp = platformAsyncHttp;
+        this.objectMapper = objectMapper;
     }
 
     public AccountMetrics syncMetrics(SocialAccount account) {
@@ -81,9 +96,11 @@ public class LinkedInService {
 
             return metrics;
 
+        } catch (PlatformApiException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Failed to sync company page metrics: {}", e.getMessage(), e);
-            return getDefaultMetrics();
+            throw new PlatformApiException("linkedin", "Failed to sync LinkedIn metrics: " + e.getMessage(), e);
         }
     }
 
@@ -164,9 +181,11 @@ public class LinkedInService {
 
             logger.info("Extracted follower stats: {}", stats);
 
+        } catch (PlatformApiException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Error fetching organization follower stats: {}", e.getMessage(), e);
-            // Return empty stats on error
+            throw new PlatformApiException("linkedin", "Failed to fetch follower statistics: " + e.getMessage(), e);
         }
 
         return stats;
@@ -382,9 +401,10 @@ public class LinkedInService {
     }
 
     /**
-     * Get LinkedIn profile information
+     * Get LinkedIn profile information. Non-blocking: the account is checked on the calling
+     * thread, then the future completes from the async client.
      */
-    public Map<String, Object> getProfile(String userId, String accountId) {
+    public CompletableFuture<Map<String, Object>> getProfile(String userId, String accountId) {
         logger.debug("Getting LinkedIn profile for account: {}", accountId);
 
         SocialAccount account = socialAccountRepository.findById(accountId)
@@ -394,38 +414,32 @@ public class LinkedInService {
             throw new RuntimeException("Unauthorized");
         }
 
-        if (!"LinkedIn".equals(account.getPlatform())) {
+        if (account.getPlatform() != Platform.LINKEDIN) {
             throw new RuntimeException("This endpoint is only for LinkedIn accounts");
         }
 
-        try {
-            String accessToken = account.getAccessToken();
-            String apiUrl = "https://api.linkedin.com/v2/me?projection=(id,firstName,lastName,profilePicture(displayImage~:playableStreams))";
-
-            org.springframework.http.HttpHeaders headers = new org.springframework.http.HttpHeaders();
-            headers.set("Authorization", "Bearer " + accessToken);
-
-            org.springframework.http.HttpEntity<String> entity =
-                new org.springframework.http.HttpEntity<>(headers);
+        String apiUrl = "https://api.linkedin.com/v2/me?projection=(id,firstName,lastName,profilePicture(displayImage~:playableStreams))";
 
-            Map response = restTemplate.exchange(
-                apiUrl,
-                org.springframework.http.HttpMethod.GET,
-                entity,
-                Map.class
-            ).getBody();
+        org.springframework.http.HttpHeaders headers = new org.springframework.http.HttpHeaders();
+        headers.set("Authorization", "Bearer " + account.getAccessToken());
 
-            Map<String, Object> profile = new HashMap<>();
-            profile.put("id", response.get("id"));
-            profile.put("firstName", getLocalizedField(response, "firstName"));
-            profile.put("lastName", getLocalizedField(response, "lastName"));
+        return platformAsyncHttp.get("linkedin", java.net.URI.create(apiUrl), headers)
+            .thenApply(result -> {
+                Map response = readJson(result.body());
 
-            return profile;
+                Map<String, Object> profile = new HashMap<>();
+                profile.put("id", response.get("id"));
+                profile.put("firstName", getLocalizedField(response, "firstName"));
+                profile.put("lastName", getLocalizedField(response, "lastName"));
 
-        } catch (Exception e) {
-            logger.error("Failed to fetch LinkedIn profile: {}", e.getMessage());
-            throw new RuntimeException("Failed to fetch profile");
-        }
+                return profile;
+            })
+            .handle((profile, error) -> {
+                if (error != null) {
+                    throw linkedInFailure("profile", error);
+                }
+                return profile;
+            });
     }
 
     /**
@@ -446,9 +460,10 @@ public class LinkedInService {
     }
 
     /**
-     * Get posts for company pages with engagement statistics
+     * Get posts for company pages with engagement statistics. Non-blocking: the posts request
+     * and then the statistics batches complete from the async client.
      */
-    public List<Map<String, Object>> getPosts(String userId, String accountId, int limit) {
+    public CompletableFuture<List<Map<String, Object>>> getPosts(String userId, String accountId, int limit) {
         logger.info("Getting posts for LinkedIn account: {}", accountId);
 
         SocialAccount account = socialAccountRepository.findById(accountId)
@@ -461,7 +476,7 @@ public class LinkedInService {
         if (!"company".equalsIgnoreCase(account.getAccountType())) {
             // Personal accounts can't fetch posts via API
             logger.info("Personal account detected - returning empty posts list");
-            return new ArrayList<>();
+            return CompletableFuture.completedFuture(new ArrayList<>());
         }
 
         String accessToken = account.getAccessToken();
@@ -469,173 +484,243 @@ public class LinkedInService {
 
         if (accessToken == null || organizationId == null) {
             logger.warn("Missing access token or organization ID");
-            return new ArrayList<>();
+            return CompletableFuture.completedFuture(new ArrayList<>());
         }
 
-        try {
-            // Fetch UGC posts from LinkedIn
-            List<Map<String, Object>> posts = fetchUGCPosts(organizationId, accessToken, limit);
-
-            // Enrich each post with statistics
-            for (Map<String, Object> post : posts) {
-                String shareUrn = (String) post.get("shareUrn");
-                if (shareUrn != null) {
-                    Map<String, Object> stats = getShareStatistics(shareUrn, accessToken);
-                    post.putAll(stats); // Add engagement metrics to post
+        // Fetch UGC posts, then enrich them with statistics - batched lookups instead of one call per post
+        return fetchUGCPosts(organizationId, accessToken, limit)
+            .thenCompose(posts -> {
+                List<String> shareUrns = new ArrayList<>();
+                for (Map<String, Object> post : posts) {
+                    String shareUrn = (String) post.get("shareUrn");
+                    if (shareUrn != null) {
+                        shareUrns.add(shareUrn);
+                    }
                 }
-            }
 
-            logger.info("Successfully fetched {} posts with statistics", posts.size());
-            return posts;
+                return getShareStatistics(organizationId, shareUrns, accessToken).thenApply(statsByUrn -> {
+                    for (Map<String, Object> post : posts) {
+                        Map<String, Object> stats = statsByUrn.get((String) post.get("shareUrn"));
+                        if (stats != null) {
+                            post.putAll(stats); // Add engagement metrics to post
+                        }
+                    }
 
-        } catch (Exception e) {
-            logger.error("Failed to fetch LinkedIn posts: {}", e.getMessage(), e);
-            return new ArrayList<>();
-        }
+                    logger.info("Successfully fetched {} posts with statistics", posts.size());
+                    return posts;
+                });
+            })
+            .handle((posts, error) -> {
+                if (error != null) {
+                    throw linkedInFailure("posts", error);
+                }
+                return posts;
+            });
     }
 
     /**
      * Fetch UGC posts from LinkedIn API
      */
-    private List<Map<String, Object>> fetchUGCPosts(String organizationId, String accessToken, int limit) {
-        List<Map<String, Object>> posts = new ArrayList<>();
-
-        try {
-            String organizationUrn = "urn:li:organization:" + organizationId;
-            String apiUrl = String.format(
-                "https://api.linkedin.com/v2/ugcPosts?q=authors&authors=List(%s)&count=%d&sortBy=LAST_MODIFIED",
-                URLEncoder.encode(organizationUrn, StandardCharsets.UTF_8),
-                limit
-            );
-
-            org.springframework.http.HttpHeaders headers = new org.springframework.http.HttpHeaders();
-            headers.set("Authorization", "Bearer " + accessToken);
-            headers.set("X-Restli-Protocol-Version", "2.0.0");
-            headers.set("LinkedIn-Version", "202301");
-
-            org.springframework.http.HttpEntity<String> entity = new org.springframework.http.HttpEntity<>(headers);
-
-            logger.info("Fetching UGC posts from: {}", apiUrl);
-
-            Map response = restTemplate.exchange(
-                apiUrl,
-                org.springframework.http.HttpMethod.GET,
-                entity,
-                Map.class
-            ).getBody();
-
+    private CompletableFuture<List<Map<String, Object>>> fetchUGCPosts(String organizationId, String accessToken,
+                                                                       int limit) {
+        String organizationUrn = "urn:li:organization:" + organizationId;
+        String apiUrl = String.format(
+            "https://api.linkedin.com/v2/ugcPosts?q=authors&authors=List(%s)&count=%d&sortBy=LAST_MODIFIED",
+            URLEncoder.encode(organizationUrn, StandardCharsets.UTF_8),
+            limit
+        );
+
+        org.springframework.http.HttpHeaders headers = new org.springframework.http.HttpHeaders();
+        headers.set("Authorization", "Bearer " + accessToken);
+        headers.set("X-Restli-Protocol-Version", "2.0.0");
+        headers.set("LinkedIn-Version", "202301");
+
+        logger.info("Fetching UGC posts from: {}", apiUrl);
+
+        // Pre-encoded URI so the restli List(...) syntax and encoded URN go out untouched
+        return platformAsyncHttp.get("linkedin", java.net.URI.create(apiUrl), headers).thenApply(result -> {
+            Map response = readJson(result.body());
             logger.info("UGC Posts API response received");
 
-            if (response != null && response.containsKey("elements")) {
+            List<Map<String, Object>> posts = new ArrayList<>();
+            if (response.containsKey("elements")) {
                 List<Map<String, Object>> elements = (List<Map<String, Object>>) response.get("elements");
 
                 for (Map<String, Object> element : elements) {
-                    Map<String, Object> post = new HashMap<>();
-
-                    // Extract post ID/URN
-                    String id = (String) element.get("id");
-                    post.put("id", id);
-                    post.put("shareUrn", id); // Use for fetching statistics
-
-                    // Extract post text
-                    if (element.containsKey("specificContent")) {
-                        Map<String, Object> specificContent = (Map<String, Object>) element.get("specificContent");
-                        if (specificContent.containsKey("com.linkedin.ugc.ShareContent")) {
-                            Map<String, Object> shareContent = (Map<String, Object>) specificContent.get("com.linkedin.ugc.ShareContent");
-                            if (shareContent.containsKey("shareCommentary")) {
-                                Map<String, Object> commentary = (Map<String, Object>) shareContent.get("shareCommentary");
-                                post.put("text", commentary.get("text"));
-                            }
-                        }
-                    }
+                    posts.add(toPost(element));
+                }
 
-                    // Extract created timestamp
-                    if (element.containsKey("created")) {
-                        Map<String, Object> created = (Map<String, Object>) element.get("created");
-                        Long time = ((Number) created.get("time")).longValue();
-                        post.put("createdAt", java.time.Instant.ofEpochMilli(time).toString());
-                    }
+                logger.info("Parsed {} UGC posts", posts.size());
+            }
+            return posts;
+        });
+    }
 
-                    // Extract author
-                    post.put("author", element.get("author"));
+    private Map<String, Object> toPost(Map<String, Object> element) {
+        Map<String, Object> post = new HashMap<>();
 
-                    posts.add(post);
+        // Extract post ID/URN
+        String id = (String) element.get("id");
+        post.put("id", id);
+        post.put("shareUrn", id); // Use for fetching statistics
+
+        // Extract post text
+        if (element.containsKey("specificContent")) {
+            Map<String, Object> specificContent = (Map<String, Object>) element.get("specificContent");
+            if (specificContent.containsKey("com.linkedin.ugc.ShareContent")) {
+                Map<String, Object> shareContent = (Map<String, Object>) specificContent.get("com.linkedin.ugc.ShareContent");
+                if (shareContent.containsKey("shareCommentary")) {
+                    Map<String, Object> commentary = (Map<String, Object>) shareContent.get("shareCommentary");
+                    post.put("text", commentary.get("text"));
                 }
-
-                logger.info("Parsed {} UGC posts", posts.size());
             }
+        }
 
-        } catch (Exception e) {
-            logger.error("Error fetching UGC posts: {}", e.getMessage(), e);
-            throw e;
+        // Extract created timestamp
+        if (element.containsKey("created")) {
+            Map<String, Object> created = (Map<String, Object>) element.get("created");
+            Long time = ((Number) created.get("time")).longValue();
+            post.put("createdAt", java.time.Instant.ofEpochMilli(time).toString());
         }
 
-        return posts;
+        // Extract author
+        post.put("author", element.get("author"));
+
+        return post;
     }
 
     /**
-     * Get statistics for a specific share/post
+     * Get statistics for many shares/posts, keyed by URN. URNs are sent as shares=List(...) /
+     * ugcPosts=List(...) in chunks of linkedin.share-stats.batch-size, with chunks in flight concurrently.
      */
-    private Map<String, Object> getShareStatistics(String shareUrn, String accessToken) {
-        Map<String, Object> stats = new HashMap<>();
+    private CompletableFuture<Map<String, Map<String, Object>>> getShareStatistics(String organizationId,
+                                                                                    List<String> urns,
+                                                                                    String accessToken) {
+        if (urns.isEmpty()) {
+            return CompletableFuture.completedFuture(new HashMap<>());
+        }
 
-        try {
-            String apiUrl = String.format(
-                "https://api.linkedin.com/v2/organizationalEntityShareStatistics?q=organizationalEntity&shares=List(%s)",
-                URLEncoder.encode(shareUrn, StandardCharsets.UTF_8)
-            );
+        // The endpoint takes share and ugcPost URNs under different parameters
+        List<String> shareUrns = new ArrayList<>();
+        List<String> ugcPostUrns = new ArrayList<>();
+        for (String urn : urns) {
+            (urn.startsWith("urn:li:ugcPost:") ? ugcPostUrns : shareUrns).add(urn);
+        }
 
-            org.springframework.http.HttpHeaders headers = new org.springframework.http.HttpHeaders();
-            headers.set("Authorization", "Bearer " + accessToken);
-            headers.set("X-Restli-Protocol-Version", "2.0.0");
+        List<CompletableFuture<Map<String, Map<String, Object>>>> batches = new ArrayList<>();
+        batches.addAll(submitStatisticsBatches(organizationId, "shares", shareUrns, accessToken));
+        batches.addAll(submitStatisticsBatches(organizationId, "ugcPosts", ugcPostUrns, accessToken));
 
-            org.springframework.http.HttpEntity<String> entity = new org.springframework.http.HttpEntity<>(headers);
+        return CompletableFuture.allOf(batches.toArray(CompletableFuture[]::new)).thenApply(done -> {
+            Map<String, Map<String, Object>> statsByUrn = new HashMap<>();
+            batches.forEach(batch -> statsByUrn.putAll(batch.join()));
+            logger.debug("Fetched statistics for {}/{} posts in {} batches", statsByUrn.size(), urns.size(), batches.size());
+            return statsByUrn;
+        });
+    }
 
-            logger.debug("Fetching share statistics for: {}", shareUrn);
+    private List<CompletableFuture<Map<String, Map<String, Object>>>> submitStatisticsBatches(
+            String organizationId, String parameter, List<String> urns, String accessToken) {
+        List<CompletableFuture<Map<String, Map<String, Object>>>> batches = new ArrayList<>();
+        int size = Math.max(1, shareStatsBatchSize);
+
+        for (int from = 0; from < urns.size(); from += size) {
+            List<String> chunk = urns.subList(from, Math.min(from + size, urns.size()));
+            batches.add(fetchShareStatistics(organizationId, parameter, chunk, accessToken)
+                .exceptionally(e -> {
+                    // Return what we have - a failed batch shouldn't fail the whole request
+                    logger.error("Error fetching share statistics batch: {}", e.getMessage());
+                    return Map.of();
+                }));
+        }
+        return batches;
+    }
 
-            Map response = restTemplate.exchange(
-                apiUrl,
-                org.springframework.http.HttpMethod.GET,
-                entity,
-                Map.class
-            ).getBody();
+    private CompletableFuture<Map<String, Map<String, Object>>> fetchShareStatistics(String organizationId,
+                                                                                     String parameter,
+                                                                                     List<String> urns,
+                                                                                     String accessToken) {
+        StringJoiner urnList = new StringJoiner(",", "List(", ")");
+        for (String urn : urns) {
+            urnList.add(URLEncoder.encode(urn, StandardCharsets.UTF_8));
+        }
 
-            if (response != null && response.containsKey("elements")) {
+        String apiUrl = String.format(
+            "https://api.linkedin.com/v2/organizationalEntityShareStatistics?q=organizationalEntity&organizationalEntity=%s&%s=%s",
+            URLEncoder.encode("urn:li:organization:" + organizationId, StandardCharsets.UTF_8),
+            parameter,
+            urnList
+        );
+
+        org.springframework.http.HttpHeaders headers = new org.springframework.http.HttpHeaders();
+        headers.set("Authorization", "Bearer " + accessToken);
+        headers.set("X-Restli-Protocol-Version", "2.0.0");
+
+        logger.debug("Fetching share statistics for {} {}", urns.size(), parameter);
+
+        // Pre-encoded URI so the restli List(...) syntax and encoded URNs go out untouched
+        return platformAsyncHttp.get("linkedin", java.net.URI.create(apiUrl), headers).thenApply(result -> {
+            Map response = readJson(result.body());
+            Map<String, Map<String, Object>> statsByUrn = new HashMap<>();
+
+            if (response.containsKey("elements")) {
                 List<Map<String, Object>> elements = (List<Map<String, Object>>) response.get("elements");
 
-                if (!elements.isEmpty()) {
-                    Map<String, Object> shareStats = elements.get(0);
-
-                    // Extract total share statistics
-                    if (shareStats.containsKey("totalShareStatistics")) {
-                        Map<String, Object> totalStats = (Map<String, Object>) shareStats.get("totalShareStatistics");
-
-                        stats.put("impressionCount", totalStats.getOrDefault("impressionCount", 0));
-                        stats.put("likeCount", totalStats.getOrDefault("likeCount", 0));
-                        stats.put("commentCount", totalStats.getOrDefault("commentCount", 0));
-                        stats.put("shareCount", totalStats.getOrDefault("shareCount", 0));
-                        stats.put("clickCount", totalStats.getOrDefault("clickCount", 0));
-                        stats.put("engagement", totalStats.getOrDefault("engagement", 0));
-
-                        // Calculate engagement rate
-                        int impressions = ((Number) totalStats.getOrDefault("impressionCount", 0)).intValue();
-                        int engagementTotal = ((Number) totalStats.getOrDefault("engagement", 0)).intValue();
-
-                        if (impressions > 0) {
-                            double engagementRate = (engagementTotal * 100.0) / impressions;
-                            stats.put("engagementRate", Math.round(engagementRate * 100.0) / 100.0);
-                        } else {
-                            stats.put("engagementRate", 0.0);
-                        }
+                for (Map<String, Object> shareStats : elements) {
+                    // Each element names the share or ugcPost it belongs to
+                    Object urn = shareStats.containsKey("ugcPost") ? shareStats.get("ugcPost") : shareStats.get("share");
+                    if (urn == null || !shareStats.containsKey("totalShareStatistics")) {
+                        continue;
                     }
-
-                    logger.debug("Share statistics: {}", stats);
+                    statsByUrn.put(urn.toString(),
+                        toStatistics((Map<String, Object>) shareStats.get("totalShareStatistics")));
                 }
             }
 
-        } catch (Exception e) {
-            logger.error("Error fetching share statistics: {}", e.getMessage(), e);
-            // Return empty stats on error - don't fail the whole request
+            return statsByUrn;
+        });
+    }
+
+    private Map readJson(byte[] body) {
+        try {
+            Map response = objectMapper.readValue(body, Map.class);
+            return response != null ? response : Map.of();
+        } catch (java.io.IOException e) {
+            throw new java.io.UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * A failed LinkedIn read as PlatformApiException, keeping the cause (e.g. a timeout) for platformFailure
+     */
+    private static PlatformApiException linkedInFailure(String what, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof PlatformApiException platformError) {
+            return platformError;
+        }
+        logger.error("Failed to fetch LinkedIn {}: {}", what, cause.getMessage(), cause);
+        return new PlatformApiException("linkedin", "Failed to fetch LinkedIn " + what + ": " + cause.getMessage(), cause);
+    }
+
+    private Map<String, Object> toStatistics(Map<String, Object> totalStats) {
+        Map<String, Object> stats = new HashMap<>();
+
+        stats.put("impressionCount", totalStats.getOrDefault("impressionCount", 0));
+        stats.put("likeCount", totalStats.getOrDefault("likeCount", 0));
+        stats.put("commentCount", totalStats.getOrDefault("commentCount", 0));
+        stats.put("shareCount", totalStats.getOrDefault("shareCount", 0));
+        stats.put("clickCount", totalStats.getOrDefault("clickCount", 0));
+        stats.put("engagement", totalStats.getOrDefault("engagement", 0));
+
+        // Calculate engagement rate
+        int impressions = ((Number) totalStats.getOrDefault("impressionCount", 0)).intValue();
+        int engagementTotal = ((Number) totalStats.getOrDefault("engagement", 0)).intValue();
+
+        if (impressions > 0) {
+            double engagementRate = (engagementTotal * 100.0) / impressions;
+            stats.put("engagementRate", Math.round(engagementRate * 100.0) / 100.0);
+        } else {
+            stats.put("engagementRate", 0.0);
         }
 
         return stats;
@@ -654,7 +739,7 @@ public class LinkedInService {
             throw new RuntimeException("Unauthorized");
         }
 
-        if (!"LinkedIn".equals(account.getPlatform())) {
+        if (account.getPlatform() != Platform.LINKEDIN) {
             throw new RuntimeException("This endpoint is only for LinkedIn accounts");
         }
 
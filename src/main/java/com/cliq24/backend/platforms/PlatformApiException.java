@@ -0,0 +1,24 @@
+package com.cliq24.backend.platforms;
+
+/**
+ * A platform API call failed (or wasn't attempted). Replaces the old habit of returning zeroed
+ * metrics, so callers can keep the last known values instead of overwriting them.
+ */
+public class PlatformApiException extends RuntimeException {
+
+    private final String platform;
+
+    public PlatformApiException(String platform, String message) {
+        super(message);
+        this.platform = platform;
+    }
+
+    public PlatformApiException(String platform, String message, Throwable cause) {
+        super(message, cause);
+        this.platform = platform;
+    }
+
+    public String getPlatform() {
+        return platform;
+    }
+}
@@ -0,0 +1,186 @@
+package com.cliq24.backend.platforms;
+
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.async.methods.SimpleRequestProducer;
+import org.apache.hc.client5.http.async.methods.SimpleResponseConsumer;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.util.Timeout;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Non-blocking platform requests for interactive reads, on the shared async HttpClient.
+ *
+ * Each request takes the same path as a RestTemplate call - circuit breaker, per-platform cap
+ * (PlatformCallExecutor.callAsync), retries (PlatformRetries.retryAsync) and the rate governor
+ * on every attempt - but nothing waits on a thread: the future completes from the I/O reactor.
+ *
+ * Failures look like RestTemplate's, so callers, the breaker and platformFailure treat them the
+ * same: a 4xx/5xx answer is HttpClientErrorException/HttpServerErrorException, an I/O error or
+ * read timeout is ResourceAccessException.
+ */
+@Component
+public class PlatformAsyncHttp {
+
+    private static final Logger logger = LogManager.getLogger(PlatformAsyncHttp.class);
+
+    private final CloseableHttpAsyncClient platformAsyncHttpClient;
+    private final Environment environment;
+    private final PlatformCallExecutor platformCallExecutor;
+    private final PlatformRetries platformRetries;
+    private final RateLimitGovernor rateLimitGovernor;
+
+    @Value("${http.client.read-timeout-ms.default:10000}")
+    private long defaultReadTimeoutMs;
+
+    @Value("${http.client.connection-request-timeout-ms:2000}")
+    private long connectionRequestTimeoutMs;
+
+    /**
+     * A buffered platform response
+     */
+    public record Response(int status, HttpHeaders headers, byte[] body) {
+    }
+
+    @Autowired
+    public PlatformAsyncHttp(CloseableHttpAsyncClient platformAsyncHttpClient, Environment environment,
+                             PlatformCallExecutor platformCallExecutor, PlatformRetries platformRetries,
+                             RateLimitGovernor rateLimitGovernor) {
+        this.platformAsyncHttpClient = platformAsyncHttpClient;
+        this.environment = environment;
+        this.platformCallExecutor = platformCallExecutor;
+        this.platformRetries = platformRetries;
+        this.rateLimitGovernor = rateLimitGovernor;
+    }
+
+    /**
+     * GET uri; completes with the 2xx response
+     */
+    public CompletableFuture<Response> get(String platform, URI uri, HttpHeaders headers) {
+        return exchange(platform, HttpMethod.GET, uri, headers, null, null);
+    }
+
+    /**
+     * POST a body; not retried, like any non-idempotent platform call
+     */
+    public CompletableFuture<Response> post(String platform, URI uri, HttpHeaders headers,
+                                            String body, ContentType contentType) {
+        return exchange(platform, HttpMethod.POST, uri, headers, body, contentType);
+    }
+
+    private CompletableFuture<Response> exchange(String platform, HttpMethod method, URI uri, HttpHeaders headers,
+                                                 String body, ContentType contentType) {
+        String key = platform.toLowerCase(Locale.ROOT);
+        return platformCallExecutor.callAsync(key, () ->
+            platformRetries.retryAsync(key, method, () -> send(key, method, uri, headers, body, contentType))
+                .handle((response, error) -> {
+                    if (error != null) {
+                        throw failure(method, uri, error);
+                    }
+                    return requireSuccess(response);
+                }));
+    }
+
+    /**
+     * One attempt, charged to the platform's quota before it goes out
+     */
+    private CompletableFuture<Response> send(String platform, HttpMethod method, URI uri, HttpHeaders headers,
+                                             String body, ContentType contentType) {
+        rateLimitGovernor.beforeRequest(platform, uri, headers);
+
+        SimpleRequestBuilder builder = SimpleRequestBuilder.create(method.name())
+            .setUri(uri)
+            .setRequestConfig(RequestConfig.custom()
+                .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs(platform)))
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectionRequestTimeoutMs))
+                .build());
+        headers.forEach((name, values) -> values.forEach(value -> builder.addHeader(name, value)));
+        if (body != null) {
+            builder.setBody(body, contentType);
+        }
+        SimpleHttpRequest request = builder.build();
+
+        CompletableFuture<Response> future = new CompletableFuture<>();
+        platformAsyncHttpClient.execute(SimpleRequestProducer.create(request), SimpleResponseConsumer.create(),
+            new FutureCallback<SimpleHttpResponse>() {
+                @Override
+                public void completed(SimpleHttpResponse result) {
+                    Response response = toResponse(result);
+                    rateLimitGovernor.afterResponse(platform, uri, headers, response.status(), response.headers());
+                    future.complete(response);
+                }
+
+                @Override
+                public void failed(Exception e) {
+                    future.completeExceptionally(e);
+                }
+
+                @Override
+                public void cancelled() {
+                    future.completeExceptionally(new CancellationException(method + " " + uri.getPath() + " cancelled"));
+                }
+            });
+        return future;
+    }
+
+    private long readTimeoutMs(String platform) {
+        return environment.getProperty("http.client.read-timeout-ms." + platform, Long.class, defaultReadTimeoutMs);
+    }
+
+    private static Response toResponse(SimpleHttpResponse result) {
+        HttpHeaders headers = new HttpHeaders();
+        for (Header header : result.getHeaders()) {
+            headers.add(header.getName(), header.getValue());
+        }
+        byte[] body = result.getBodyBytes();
+        return new Response(result.getCode(), headers, body != null ? body : new byte[0]);
+    }
+
+    private static Response requireSuccess(Response response) {
+        int status = response.status();
+        if (status < 400) {
+            return response;
+        }
+        HttpStatusCode code = HttpStatusCode.valueOf(status);
+        String reason = String.valueOf(status);
+        if (status >= 500) {
+            throw HttpServerErrorException.create(code, reason, response.headers(), response.body(), StandardCharsets.UTF_8);
+        }
+        throw HttpClientErrorException.create(code, reason, response.headers(), response.body(), StandardCharsets.UTF_8);
+    }
+
+    private static RuntimeException failure(HttpMethod method, URI uri, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof IOException) {
+            // The query string may carry an access token, so only the path is reported
+            logger.debug("{} {} failed: {}", method, uri.getPath(), cause.getMessage());
+            return new ResourceAccessException("I/O error on " + method + " request for \""
+                + uri.getScheme() + "://" + uri.getHost() + uri.getPath() + "\": " + cause.getMessage(), (IOException) cause);
+        }
+        return cause instanceof RuntimeException runtime ? runtime : new CompletionException(cause);
+    }
+}
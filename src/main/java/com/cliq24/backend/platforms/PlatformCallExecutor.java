@@ -0,0 +1,171 @@
+package com.cliq24.backend.platforms;
+
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs outbound platform work with a concurrency cap per platform, so a burst of
+ * LinkedIn calls can't take every slot away from Facebook (and vice versa).
+ *
+ * Limits come from platform.concurrency.{platform}, falling back to platform.concurrency.default.
+ * Non-blocking calls (callAsync) hold no thread while in flight, so they have their own, much
+ * larger cap: platform.async.max-in-flight.{platform}, falling back to platform.async.max-in-flight.default.
+ * Calls also pass through the platform's circuit breaker (PlatformCircuitBreakers).
+ */
+@Component
+public class PlatformCallExecutor {
+
+    private static final Logger logger = LogManager.getLogger(PlatformCallExecutor.class);
+
+    private final Environment environment;
+    private final PlatformCircuitBreakers circuitBreakers;
+    private final Map<String, Semaphore> permits = new ConcurrentHashMap<>();
+    private final Map<String, Semaphore> asyncPermits = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+
+    @Value("${platform.concurrency.default:8}")
+    private int defaultConcurrency;
+
+    @Value("${platform.call-timeout-ms:15000}")
+    private long callTimeoutMs;
+
+    @Value("${platform.permit-wait-ms:5000}")
+    private long permitWaitMs;
+
+    @Value("${platform.async.max-in-flight.default:500}")
+    private int defaultMaxInFlight;
+
+    @Autowired
+    public PlatformCallExecutor(Environment environment,
+                                PlatformCircuitBreakers circuitBreakers,
+                                @Value("${platform.executor.threads:32}") int threads) {
+        this.environment = environment;
+        this.circuitBreakers = circuitBreakers;
+
+        // Platform calls are almost entirely network wait, so the pool is sized well above core count
+        this.executor = Executors.newFixedThreadPool(threads, daemonThreads("platform-call-"));
+    }
+
+    /**
+     * Run a platform call on the calling thread, holding one of that platform's permits,
+     * through the platform's circuit breaker
+     */
+    public <T> T call(String platform, Supplier<T> work) {
+        // An open circuit fails before queueing for a permit, so a dead platform costs nothing
+        return circuitBreakers.execute(platform, () -> callWithPermit(platform, work));
+    }
+
+    private <T> T callWithPermit(String platform, Supplier<T> work) {
+        Semaphore semaphore = permitsFor(platform);
+        boolean acquired;
+        try {
+            acquired = semaphore.tryAcquire(permitWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted waiting for " + platform + " call slot");
+        }
+
+        if (!acquired) {
+            logger.warn("No free {} call slots after {}ms", platform, permitWaitMs);
+            throw new RuntimeException("Too many concurrent " + platform + " requests, try again shortly");
+        }
+
+        try {
+            return work.get();
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    /**
+     * Non-blocking counterpart of call(...): work starts a request on the async client and
+     * returns its future. The in-flight slot is taken without waiting - a platform at its cap
+     * is refused at once rather than parking a thread - and freed when the request completes.
+     * The future fails with a TimeoutException after platform.call-timeout-ms.
+     */
+    public <T> CompletableFuture<T> callAsync(String platform, Supplier<CompletableFuture<T>> work) {
+        return circuitBreakers.executeAsync(platform, () -> callWithSlot(platform, work))
+            .orTimeout(callTimeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    private <T> CompletableFuture<T> callWithSlot(String platform, Supplier<CompletableFuture<T>> work) {
+        String key = platform == null ? "unknown" : platform.toLowerCase(Locale.ROOT);
+        Semaphore inFlight = asyncPermits.computeIfAbsent(key, k -> new Semaphore(
+            environment.getProperty("platform.async.max-in-flight." + k, Integer.class, defaultMaxInFlight)));
+
+        if (!inFlight.tryAcquire()) {
+            logger.warn("{} already has its maximum of requests in flight", key);
+            throw new PlatformRateLimitException(key, "Too many concurrent " + key + " requests, try again shortly");
+        }
+
+        CompletableFuture<T> future;
+        try {
+            future = work.get();
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+        return future.whenComplete((result, error) -> inFlight.release());
+    }
+
+    /**
+     * Run a platform call on the shared pool. The future fails with a TimeoutException
+     * if the call takes longer than timeoutMs - for calls with their own budget, such as a
+     * streamed response, rather than platform.call-timeout-ms.
+     */
+    public <T> CompletableFuture<T> submit(String platform, Supplier<T> work, long timeoutMs) {
+        return CompletableFuture.supplyAsync(() -> call(platform, work), executor)
+            .orTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Run work on the shared pool that makes its own call(...) - e.g. a metrics refresh - so
+     * the breaker and permit are taken once, by the inner call, rather than nested.
+     * The future fails with a TimeoutException after platform.call-timeout-ms.
+     */
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> work) {
+        return CompletableFuture.supplyAsync(work, executor)
+            .orTimeout(callTimeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private Semaphore permitsFor(String platform) {
+        String key = platform == null ? "unknown" : platform.toLowerCase(Locale.ROOT);
+        return permits.computeIfAbsent(key, k -> new Semaphore(
+            environment.getProperty("platform.concurrency." + k, Integer.class, defaultConcurrency), true));
+    }
+
+    /**
+     * Free permits per platform (the bulkhead), for the actuator endpoint
+     */
+    public Map<String, Integer> availablePermits() {
+        Map<String, Integer> available = new TreeMap<>();
+        permits.forEach((platform, semaphore) -> available.put(platform, semaphore.availablePermits()));
+        return available;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
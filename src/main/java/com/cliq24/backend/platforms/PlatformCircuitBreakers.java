@@ -0,0 +1,236 @@
+package com.cliq24.backend.platforms;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * One circuit breaker per platform. After platform.circuit.failure-threshold consecutive
+ * failures the circuit opens and calls fail immediately with PlatformCircuitOpenException
+ * for platform.circuit.open-ms; then a single trial call is let through (half-open) and
+ * its outcome closes or re-opens the circuit.
+ *
+ * Only signs of an unhealthy platform count as failures: 5xx responses, timeouts and I/O
+ * errors. A 4xx (expired token, bad request) or our own quota refusal says nothing about
+ * the platform's health.
+ */
+@Component
+public class PlatformCircuitBreakers {
+
+    private static final Logger logger = LogManager.getLogger(PlatformCircuitBreakers.class);
+
+    public enum State { CLOSED, HALF_OPEN, OPEN }
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Breaker> breakers = new ConcurrentHashMap<>();
+
+    @Value("${platform.circuit.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${platform.circuit.open-ms:30000}")
+    private long openMs;
+
+    @Autowired
+    public PlatformCircuitBreakers(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T execute(String platform, Supplier<T> work) {
+        String key = platform == null ? "unknown" : platform.toLowerCase(Locale.ROOT);
+        Breaker breaker = breakerFor(key);
+
+        if (!breaker.tryPass()) {
+            throw new PlatformCircuitOpenException(key,
+                key + " is currently unavailable, retrying after " + breaker.retryAt());
+        }
+
+        try {
+            T result = work.get();
+            breaker.onSuccess();
+            return result;
+        } catch (RuntimeException e) {
+            record(key, breaker, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Non-blocking counterpart of execute: work starts a request and returns its future, and
+     * the breaker records the outcome when the future completes
+     */
+    public <T> CompletableFuture<T> executeAsync(String platform, Supplier<CompletableFuture<T>> work) {
+        String key = platform == null ? "unknown" : platform.toLowerCase(Locale.ROOT);
+        Breaker breaker = breakerFor(key);
+
+        if (!breaker.tryPass()) {
+            return CompletableFuture.failedFuture(new PlatformCircuitOpenException(key,
+                key + " is currently unavailable, retrying after " + breaker.retryAt()));
+        }
+
+        CompletableFuture<T> future;
+        try {
+            future = work.get();
+        } catch (RuntimeException e) {
+            record(key, breaker, e);
+            return CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((result, error) -> {
+            if (error == null) {
+                breaker.onSuccess();
+            } else {
+                record(key, breaker, error);
+            }
+        });
+    }
+
+    private void record(String platform, Breaker breaker, Throwable error) {
+        if (isRefusal(error)) {
+            breaker.onRefused(); // We never reached the platform, so this says nothing either way
+        } else if (isPlatformFailure(error)) {
+            if (breaker.onFailure()) {
+                logger.warn("Circuit for {} opened after {} consecutive failures: {}",
+                    platform, failureThreshold, error.getMessage());
+            }
+        } else {
+            breaker.onSuccess(); // The platform answered - it's healthy, even if the answer was no
+        }
+    }
+
+    public State stateOf(String platform) {
+        Breaker breaker = breakers.get(platform.toLowerCase(Locale.ROOT));
+        return breaker == null ? State.CLOSED : breaker.state();
+    }
+
+    /**
+     * Current state of every breaker that has seen traffic, for the actuator endpoint
+     */
+    public Map<String, Map<String, Object>> snapshot() {
+        Map<String, Map<String, Object>> result = new TreeMap<>();
+        breakers.forEach((platform, breaker) -> result.put(platform, breaker.describe()));
+        return result;
+    }
+
+    private Breaker breakerFor(String platform) {
+        return breakers.computeIfAbsent(platform, p -> {
+            Breaker breaker = new Breaker();
+            Gauge.builder("platform.circuit.state", breaker, b -> b.state().ordinal())
+                .description("Platform circuit breaker state: 0 closed, 1 half-open, 2 open")
+                .tag("platform", p)
+                .register(meterRegistry);
+            return breaker;
+        });
+    }
+
+    /**
+     * Our own refusals - quota exhausted or a circuit already open - mean no request was sent
+     */
+    private static boolean isRefusal(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof PlatformRateLimitException || t instanceof PlatformCircuitOpenException) {
+                return true;
+            }
+            if (t.getCause() == t) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isPlatformFailure(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof HttpServerErrorException || t instanceof ResourceAccessException
+                    || t instanceof TimeoutException || t instanceof IOException) {
+                return true;
+            }
+            if (t.getCause() == t) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    private final class Breaker {
+        private State state = State.CLOSED;
+        private int consecutiveFailures;
+        private long openedAt;
+        private boolean trialInFlight;
+
+        synchronized boolean tryPass() {
+            if (state == State.OPEN && System.currentTimeMillis() - openedAt >= openMs) {
+                state = State.HALF_OPEN;
+                trialInFlight = false;
+            }
+            if (state == State.CLOSED) {
+                return true;
+            }
+            if (state == State.HALF_OPEN && !trialInFlight) {
+                trialInFlight = true;
+                return true;
+            }
+            return false;
+        }
+
+        synchronized void onSuccess() {
+            state = State.CLOSED;
+            consecutiveFailures = 0;
+            trialInFlight = false;
+        }
+
+        /**
+         * The call was refused before reaching the platform - free the trial slot, keep the state
+         */
+        synchronized void onRefused() {
+            trialInFlight = false;
+        }
+
+        /**
+         * @return true if this failure opened the circuit
+         */
+        synchronized boolean onFailure() {
+            consecutiveFailures++;
+            trialInFlight = false;
+            if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+                state = State.OPEN;
+                openedAt = System.currentTimeMillis();
+                return true;
+            }
+            return false;
+        }
+
+        synchronized State state() {
+            return state;
+        }
+
+        synchronized Instant retryAt() {
+            return Instant.ofEpochMilli(openedAt + openMs);
+        }
+
+        synchronized Map<String, Object> describe() {
+            Map<String, Object> info = new LinkedHashMap<>();
+            info.put("state", state);
+            info.put("consecutiveFailures", consecutiveFailures);
+            if (state != State.CLOSED) {
+                info.put("openedAt", Instant.ofEpochMilli(openedAt));
+                info.put("retryAt", Instant.ofEpochMilli(openedAt + openMs));
+            }
+            return info;
+        }
+    }
+}
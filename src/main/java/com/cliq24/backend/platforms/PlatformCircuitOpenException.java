@@ -0,0 +1,11 @@
+package com.cliq24.backend.platforms;
+
+/**
+ * The platform's circuit breaker is open - the call was refused without touching the network.
+ */
+public class PlatformCircuitOpenException extends PlatformApiException {
+
+    public PlatformCircuitOpenException(String platform, String message) {
+        super(platform, message);
+    }
+}
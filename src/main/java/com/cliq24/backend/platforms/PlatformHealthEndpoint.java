@@ -0,0 +1,36 @@
+package com.cliq24.backend.platforms;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Circuit breaker state and free bulkhead permits per platform
+ * GET /actuator/platforms
+ */
+@Component
+@Endpoint(id = "platforms")
+public class PlatformHealthEndpoint {
+
+    private final PlatformCircuitBreakers circuitBreakers;
+    private final PlatformCallExecutor platformCallExecutor;
+
+    @Autowired
+    public PlatformHealthEndpoint(PlatformCircuitBreakers circuitBreakers,
+                                  PlatformCallExecutor platformCallExecutor) {
+        this.circuitBreakers = circuitBreakers;
+        this.platformCallExecutor = platformCallExecutor;
+    }
+
+    @ReadOperation
+    public Map<String, Object> platforms() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("circuits", circuitBreakers.snapshot());
+        result.put("availablePermits", platformCallExecutor.availablePermits());
+        return result;
+    }
+}
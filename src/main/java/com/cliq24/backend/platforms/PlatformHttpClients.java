@@ -0,0 +1,76 @@
+package com.cliq24.backend.platforms;
+
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hands out one RestTemplate per platform, all backed by the shared pooled HttpClient.
+ *
+ * Read timeouts come from http.client.read-timeout-ms.{platform}, falling back to
+ * http.client.read-timeout-ms.default. Platforms with quota limits get the RateLimitGovernor interceptor,
+ * and every template retries transient failures through PlatformRetries.
+ */
+@Component
+public class PlatformHttpClients {
+
+    private final CloseableHttpClient platformHttpClient;
+    private final Environment environment;
+    private final RateLimitGovernor rateLimitGovernor;
+    private final PlatformRetries platformRetries;
+    private final Map<String, RestTemplate> templates = new ConcurrentHashMap<>();
+
+    @Value("${http.client.read-timeout-ms.default:10000}")
+    private long defaultReadTimeoutMs;
+
+    @Value("${http.client.connection-request-timeout-ms:2000}")
+    private int connectionRequestTimeoutMs;
+
+    @Autowired
+    public PlatformHttpClients(CloseableHttpClient platformHttpClient, Environment environment,
+                               RateLimitGovernor rateLimitGovernor, PlatformRetries platformRetries) {
+        this.platformHttpClient = platformHttpClient;
+        this.environment = environment;
+        this.rateLimitGovernor = rateLimitGovernor;
+        this.platformRetries = platformRetries;
+    }
+
+    public RestTemplate forPlatform(String platform) {
+        return templates.computeIfAbsent(platform.toLowerCase(Locale.ROOT), this::createRestTemplate);
+    }
+
+    private RestTemplate createRestTemplate(String platform) {
+        long readTimeoutMs = environment.getProperty(
+            "http.client.read-timeout-ms." + platform, Long.class, defaultReadTimeoutMs);
+
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(platformHttpClient) {
+            @Override
+            protected RequestConfig mergeRequestConfig(RequestConfig clientConfig) {
+                // HttpClient 5 has no socket read timeout on the factory, so set it per request
+                RequestConfig merged = super.mergeRequestConfig(clientConfig);
+                RequestConfig.Builder builder = merged != null ? RequestConfig.copy(merged) : RequestConfig.custom();
+                return builder.setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs)).build();
+            }
+        };
+        // Bounds how long a caller waits for a pooled connection when a host's route is saturated
+        requestFactory.setConnectionRequestTimeout(connectionRequestTimeoutMs);
+
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        // Retries wrap the governor (rather than sitting inside it) so every attempt is charged
+        // against the platform's quota and a 429 reaches the governor straight away
+        ClientHttpRequestInterceptor governor = rateLimitGovernor.interceptorFor(platform);
+        restTemplate.getInterceptors().add(platformRetries.interceptorFor(platform, governor));
+        return restTemplate;
+    }
+}
@@ -0,0 +1,12 @@
+package com.cliq24.backend.platforms;
+
+/**
+ * Thrown instead of making a platform call when our local view of its quota says the call
+ * would be rejected (or would burn the last of the quota).
+ */
+public class PlatformRateLimitException extends PlatformApiException {
+
+    public PlatformRateLimitException(String platform, String message) {
+        super(platform, message);
+    }
+}
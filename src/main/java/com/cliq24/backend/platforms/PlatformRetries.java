@@ -0,0 +1,250 @@
+package com.cliq24.backend.platforms;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Retries transient platform failures - 429, 500, 502, 503, 504 and I/O errors - with
+ * exponential backoff and full jitter, honouring Retry-After. A 429 is only retried when the
+ * platform says when (Retry-After); otherwise the quota is gone and waiting ~200ms won't help.
+ *
+ * Two budgets keep retries from turning an outage into a flood:
+ * - per request: at most platform.retry.max-attempts tries within platform.retry.max-elapsed-ms
+ * - per platform: retries may add at most platform.retry.budget-ratio on top of first attempts
+ *
+ * Only idempotent methods are retried. POSTs (sending a message, Claude requests) go out once;
+ * callers that need safe resubmission use an idempotency key instead.
+ */
+@Component
+public class PlatformRetries {
+
+    private static final Logger logger = LogManager.getLogger(PlatformRetries.class);
+
+    private static final Set<Integer> RETRYABLE_STATUSES = Set.of(429, 500, 502, 503, 504);
+    private static final Set<HttpMethod> IDEMPOTENT_METHODS =
+        Set.of(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS, HttpMethod.PUT, HttpMethod.DELETE);
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, RetryBudget> budgets = new ConcurrentHashMap<>();
+
+    @Value("${platform.retry.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${platform.retry.base-delay-ms:200}")
+    private long baseDelayMs;
+
+    @Value("${platform.retry.max-delay-ms:2000}")
+    private long maxDelayMs;
+
+    @Value("${platform.retry.max-elapsed-ms:5000}")
+    private long maxElapsedMs;
+
+    @Value("${platform.retry.budget-ratio:0.1}")
+    private double budgetRatio;
+
+    @Autowired
+    public PlatformRetries(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Must be the only (or last) interceptor on the RestTemplate: once the chain is exhausted,
+     * each execution.execute call sends a fresh copy of the request - but interceptors before
+     * it would not run again. So the rate governor is passed in and wrapped, not chained,
+     * and every attempt goes through it: each retry is charged against the quota and a 429
+     * reaches the governor as soon as it arrives.
+     *
+     * @param governor the platform's RateLimitGovernor interceptor, or null if it has none
+     */
+    public ClientHttpRequestInterceptor interceptorFor(String platform, ClientHttpRequestInterceptor governor) {
+        String key = platform.toLowerCase(Locale.ROOT);
+        ClientHttpRequestInterceptor send = governor != null
+            ? governor
+            : (request, body, execution) -> execution.execute(request, body);
+
+        return (request, body, execution) -> {
+            if (!IDEMPOTENT_METHODS.contains(request.getMethod())) {
+                return send.intercept(request, body, execution);
+            }
+
+            RetryBudget budget = budgets.computeIfAbsent(key, k -> new RetryBudget());
+            budget.deposit(budgetRatio);
+            long started = System.currentTimeMillis();
+
+            for (int attempt = 1; ; attempt++) {
+                ClientHttpResponse response;
+                try {
+                    response = send.intercept(request, body, execution);
+                } catch (IOException e) {
+                    long delay = backoff(attempt, null);
+                    if (!canRetry(key, budget, attempt, started, delay)) {
+                        throw e;
+                    }
+                    logger.debug("{} {} failed ({}), retry {} in {}ms", key, request.getMethod(), e.getMessage(), attempt, delay);
+                    sleep(delay);
+                    continue;
+                }
+
+                int status = response.getStatusCode().value();
+                if (!RETRYABLE_STATUSES.contains(status)) {
+                    return response;
+                }
+
+                String retryAfter = response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER);
+                if (status == 429 && retryAfter == null) {
+                    return response;
+                }
+                long delay = backoff(attempt, retryAfter);
+                if (!canRetry(key, budget, attempt, started, delay)) {
+                    return response; // Let the caller (and the rate governor) see the last answer
+                }
+                logger.debug("{} {} returned {}, retry {} in {}ms", key, request.getMethod(), status, attempt, delay);
+                response.close();
+                sleep(delay);
+            }
+        };
+    }
+
+    /**
+     * The same policy for a non-blocking request: send starts one attempt (through the rate
+     * governor) and returns its future. Backoff waits on a delayed executor, not a thread.
+     */
+    public CompletableFuture<PlatformAsyncHttp.Response> retryAsync(
+            String platform, HttpMethod method, Supplier<CompletableFuture<PlatformAsyncHttp.Response>> send) {
+        if (!IDEMPOTENT_METHODS.contains(method)) {
+            return send.get();
+        }
+
+        String key = platform.toLowerCase(Locale.ROOT);
+        RetryBudget budget = budgets.computeIfAbsent(key, k -> new RetryBudget());
+        budget.deposit(budgetRatio);
+
+        CompletableFuture<PlatformAsyncHttp.Response> result = new CompletableFuture<>();
+        attemptAsync(key, method, send, budget, 1, System.currentTimeMillis(), result);
+        return result;
+    }
+
+    private void attemptAsync(String platform, HttpMethod method, Supplier<CompletableFuture<PlatformAsyncHttp.Response>> send,
+                              RetryBudget budget, int attempt, long started,
+                              CompletableFuture<PlatformAsyncHttp.Response> result) {
+        CompletableFuture<PlatformAsyncHttp.Response> sent;
+        try {
+            sent = send.get();
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e); // e.g. refused by the rate governor
+            return;
+        }
+
+        sent.whenComplete((response, error) -> {
+            long delay;
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                delay = backoff(attempt, null);
+                if (!(cause instanceof IOException) || !canRetry(platform, budget, attempt, started, delay)) {
+                    result.completeExceptionally(cause);
+                    return;
+                }
+                logger.debug("{} {} failed ({}), retry {} in {}ms", platform, method, cause.getMessage(), attempt, delay);
+            } else {
+                int status = response.status();
+                String retryAfter = response.headers().getFirst(HttpHeaders.RETRY_AFTER);
+                if (!RETRYABLE_STATUSES.contains(status) || (status == 429 && retryAfter == null)) {
+                    result.complete(response);
+                    return;
+                }
+                delay = backoff(attempt, retryAfter);
+                if (!canRetry(platform, budget, attempt, started, delay)) {
+                    result.complete(response);
+                    return;
+                }
+                logger.debug("{} {} returned {}, retry {} in {}ms", platform, method, status, attempt, delay);
+            }
+            CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS)
+                .execute(() -> attemptAsync(platform, method, send, budget, attempt + 1, started, result));
+        });
+    }
+
+    private boolean canRetry(String platform, RetryBudget budget, int attempt, long started, long delay) {
+        if (attempt >= maxAttempts || delay < 0
+                || System.currentTimeMillis() - started + delay > maxElapsedMs) {
+            return false;
+        }
+        if (!budget.withdraw()) {
+            count("platform.retry.budget-exhausted", platform);
+            return false;
+        }
+        count("platform.retries", platform);
+        return true;
+    }
+
+    /**
+     * Full jitter: uniform in [0, min(max, base * 2^(attempt-1))]. A Retry-After longer than
+     * the delay cap returns -1 - not worth holding a request open for.
+     */
+    private long backoff(int attempt, String retryAfter) {
+        if (retryAfter != null) {
+            try {
+                long requested = Long.parseLong(retryAfter.trim()) * 1000;
+                return requested <= maxDelayMs ? requested : -1;
+            } catch (NumberFormatException e) {
+                // HTTP-date form - use our own backoff
+            }
+        }
+        long ceiling = Math.min(maxDelayMs, baseDelayMs << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private static void sleep(long delayMs) throws IOException {
+        try {
+            Thread.sleep(delayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted during retry backoff", e);
+        }
+    }
+
+    private void count(String name, String platform) {
+        Counter.builder(name).tag("platform", platform).register(meterRegistry).increment();
+    }
+
+    /**
+     * Each first attempt earns a fraction of a retry; each retry spends one. Starts with a
+     * small allowance so a quiet platform can still retry its first failures.
+     */
+    private static final class RetryBudget {
+        private static final double CAPACITY = 20;
+        private double tokens = 5;
+
+        synchronized void deposit(double amount) {
+            tokens = Math.min(CAPACITY, tokens + amount);
+        }
+
+        synchronized boolean withdraw() {
+            if (tokens < 1) {
+                return false;
+            }
+            tokens -= 1;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package com.cliq24.backend.platforms;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Client-side view of each platform's API quota, as token buckets per app and per access token.
+ *
+ * Every outbound call on a platform RestTemplate or PlatformAsyncHttp takes a token from both buckets first and fails
+ * fast with PlatformRateLimitException when either is empty. Responses feed back into the buckets:
+ * Facebook/Instagram usage percentages (X-App-Usage, X-Page-Usage, X-Business-Use-Case-Usage),
+ * Twitter's x-rate-limit-remaining/reset and any 429 Retry-After shrink or pause them, so we slow
+ * down before the platform starts rejecting us.
+ *
+ * Limits come from ratelimit.{platform}.app-per-hour and ratelimit.{platform}.token-per-hour;
+ * a platform without them isn't governed. Background syncs ask hasBackgroundCapacity first and
+ * are deferred while a bucket is below ratelimit.background-reserve, leaving headroom for users.
+ */
+@Component
+public class RateLimitGovernor {
+
+    private static final Logger logger = LogManager.getLogger(RateLimitGovernor.class);
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final Map<String, Optional<TokenBucket>> appBuckets = new ConcurrentHashMap<>();
+    private final Cache<String, TokenBucket> tokenBuckets;
+
+    @Value("${ratelimit.background-reserve:0.2}")
+    private double backgroundReserve;
+
+    @Value("${ratelimit.usage-pause-minutes:10}")
+    private long usagePauseMinutes;
+
+    @Autowired
+    public RateLimitGovernor(Environment environment, MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+        this(environment, meterRegistry, objectMapper, Clock.systemUTC());
+    }
+
+    RateLimitGovernor(Environment environment, MeterRegistry meterRegistry, ObjectMapper objectMapper, Clock clock) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        // Idle tokens refill completely within the hour anyway, so their buckets can go
+        this.tokenBuckets = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterAccess(Duration.ofHours(2))
+            .build();
+    }
+
+    /**
+     * Interceptor for a platform's RestTemplate, or null if the platform has no configured limits
+     */
+    public ClientHttpRequestInterceptor interceptorFor(String platform) {
+        String key = platform.toLowerCase(Locale.ROOT);
+        if (limitFor(key, "app-per-hour") == null && limitFor(key, "token-per-hour") == null) {
+            return null;
+        }
+
+        return (request, body, execution) -> {
+            String token = accessToken(request.getURI(), request.getHeaders());
+            acquire(key, token);
+            ClientHttpResponse response = execution.execute(request, body);
+            afterResponse(key, token, response.getStatusCode().value(), response.getHeaders());
+            return response;
+        };
+    }
+
+    /**
+     * For requests sent outside a RestTemplate (PlatformAsyncHttp): take a token for the
+     * request before it is sent, or throw PlatformRateLimitException. No-op for ungoverned platforms.
+     */
+    public void beforeRequest(String platform, URI uri, HttpHeaders headers) {
+        String key = platform.toLowerCase(Locale.ROOT);
+        acquire(key, accessToken(uri, headers));
+    }
+
+    /**
+     * Feed a response's status and rate headers back into the platform's buckets
+     */
+    public void afterResponse(String platform, URI uri, HttpHeaders requestHeaders, int status, HttpHeaders headers) {
+        afterResponse(platform.toLowerCase(Locale.ROOT), accessToken(uri, requestHeaders), status, headers);
+    }
+
+    private void afterResponse(String platform, String token, int status, HttpHeaders headers) {
+        try {
+            adapt(platform, token, status, headers);
+        } catch (Exception e) {
+            logger.debug("Could not read {} rate headers: {}", platform, e.getMessage());
+        }
+    }
+
+    /**
+     * Whether a background sync for this account should run now. Returns false, and counts a
+     * deferral, when the app or token bucket is paused or below the reserved share for users.
+     */
+    public boolean hasBackgroundCapacity(String platform, String accessToken) {
+        String key = platform.toLowerCase(Locale.ROOT);
+        boolean ok = appBucket(key).map(b -> b.hasAbove(backgroundReserve)).orElse(true)
+            && tokenBucket(key, accessToken).map(b -> b.hasAbove(backgroundReserve)).orElse(true);
+
+        if (!ok) {
+            Counter.builder("platform.ratelimit.deferred")
+                .description("Background syncs deferred to preserve platform quota")
+                .tag("platform", key)
+                .register(meterRegistry)
+                .increment();
+        }
+        return ok;
+    }
+
+    private void acquire(String platform, String token) {
+        Optional<TokenBucket> app = appBucket(platform);
+        if (app.isPresent() && !app.get().tryTake()) {
+            throttled(platform, "app");
+            throw new PlatformRateLimitException(platform, platform + " app quota exhausted, try again shortly");
+        }
+        Optional<TokenBucket> perToken = tokenBucket(platform, token);
+        if (perToken.isPresent() && !perToken.get().tryTake()) {
+            throttled(platform, "token");
+            throw new PlatformRateLimitException(platform, platform + " account quota exhausted, try again shortly");
+        }
+    }
+
+    private void adapt(String platform, String token, int status, HttpHeaders headers) {
+        long now = clock.millis();
+        Optional<TokenBucket> app = appBucket(platform);
+        Optional<TokenBucket> perToken = tokenBucket(platform, token);
+
+        // Facebook / Instagram Graph: percentages of the rolling one-hour allowance already used
+        String appUsage = headers.getFirst("X-App-Usage");
+        if (appUsage != null) {
+            app.ifPresent(b -> applyUsage(b, maxPercent(readJson(appUsage)), now));
+        }
+        String pageUsage = headers.getFirst("X-Page-Usage");
+        if (pageUsage != null) {
+            perToken.ifPresent(b -> applyUsage(b, maxPercent(readJson(pageUsage)), now));
+        }
+        String bucUsage = headers.getFirst("X-Business-Use-Case-Usage");
+        if (bucUsage != null) {
+            long regainMinutes = 0;
+            double percent = 0;
+            for (JsonNode entries : readJson(bucUsage)) {
+                for (JsonNode entry : entries) {
+                    percent = Math.max(percent, maxPercent(entry));
+                    regainMinutes = Math.max(regainMinutes, entry.path("estimated_time_to_regain_access").asLong(0));
+                }
+            }
+            final double used = percent;
+            perToken.ifPresent(b -> applyUsage(b, used, now));
+            if (regainMinutes > 0) {
+                long pauseUntil = now + Duration.ofMinutes(regainMinutes).toMillis();
+                perToken.ifPresent(b -> b.pauseUntil(pauseUntil));
+            }
+        }
+
+        // Twitter v2: requests left in the current 15-minute window for this user token
+        String remaining = headers.getFirst("x-rate-limit-remaining");
+        if (remaining != null) {
+            long left = Long.parseLong(remaining.trim());
+            String reset = headers.getFirst("x-rate-limit-reset");
+            Optional<TokenBucket> target = perToken.isPresent() ? perToken : app;
+            target.ifPresent(b -> {
+                b.capAt(left);
+                if (left == 0 && reset != null) {
+                    b.pauseUntil(Long.parseLong(reset.trim()) * 1000);
+                }
+            });
+        }
+
+        if (status == 429) {
+            long retryAfterMs = retryAfterMs(headers.getFirst(HttpHeaders.RETRY_AFTER));
+            logger.warn("{} returned 429 - pausing for {}s", platform, retryAfterMs / 1000);
+            (perToken.isPresent() ? perToken : app).ifPresent(b -> b.pauseUntil(now + retryAfterMs));
+        }
+    }
+
+    private void applyUsage(TokenBucket bucket, double percentUsed, long now) {
+        bucket.capAt(bucket.capacity * Math.max(0, 100 - percentUsed) / 100);
+        if (percentUsed >= 100) {
+            bucket.pauseUntil(now + Duration.ofMinutes(usagePauseMinutes).toMillis());
+        }
+    }
+
+    private long retryAfterMs(String retryAfter) {
+        if (retryAfter != null) {
+            try {
+                return Long.parseLong(retryAfter.trim()) * 1000;
+            } catch (NumberFormatException e) {
+                // HTTP-date form - fall through to the default pause
+            }
+        }
+        return Duration.ofMinutes(1).toMillis();
+    }
+
+    private JsonNode readJson(String header) {
+        try {
+            return objectMapper.readTree(header);
+        } catch (Exception e) {
+            return objectMapper.createObjectNode();
+        }
+    }
+
+    private static double maxPercent(JsonNode usage) {
+        double max = 0;
+        for (Iterator<String> it = usage.fieldNames(); it.hasNext(); ) {
+            String field = it.next();
+            if (field.equals("call_count") || field.equals("total_time") || field.equals("total_cputime")) {
+                max = Math.max(max, usage.path(field).asDouble(0));
+            }
+        }
+        return max;
+    }
+
+    private Optional<TokenBucket> appBucket(String platform) {
+        return appBuckets.computeIfAbsent(platform, p -> {
+            Long perHour = limitFor(p, "app-per-hour");
+            if (perHour == null) {
+                return Optional.empty();
+            }
+            TokenBucket bucket = new TokenBucket(perHour, clock);
+            Gauge.builder("platform.ratelimit.tokens", bucket, TokenBucket::available)
+                .description("Calls left in the platform's app-level bucket")
+                .tag("platform", p)
+                .register(meterRegistry);
+            Gauge.builder("platform.ratelimit.paused", bucket, b -> b.isPaused() ? 1 : 0)
+                .description("1 while the platform's app-level bucket is paused by a usage signal")
+                .tag("platform", p)
+                .register(meterRegistry);
+            return Optional.of(bucket);
+        });
+    }
+
+    private Optional<TokenBucket> tokenBucket(String platform, String accessToken) {
+        Long perHour = limitFor(platform, "token-per-hour");
+        if (perHour == null || accessToken == null || accessToken.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(tokenBuckets.get(platform + ":" + digest(accessToken), k -> new TokenBucket(perHour, clock)));
+    }
+
+    private Long limitFor(String platform, String kind) {
+        return environment.getProperty("ratelimit." + platform + "." + kind, Long.class);
+    }
+
+    private void throttled(String platform, String scope) {
+        Counter.builder("platform.ratelimit.throttled")
+            .description("Platform calls refused locally because a quota bucket was empty")
+            .tag("platform", platform)
+            .tag("scope", scope)
+            .register(meterRegistry)
+            .increment();
+    }
+
+    /**
+     * Token from a Bearer header or an access_token query parameter (Graph API style)
+     */
+    private static String accessToken(URI uri, HttpHeaders headers) {
+        String authorization = headers.getFirst(HttpHeaders.AUTHORIZATION);
+        if (authorization != null && authorization.startsWith("Bearer ")) {
+            return authorization.substring(7);
+        }
+        return UriComponentsBuilder.fromUri(uri).build().getQueryParams().getFirst("access_token");
+    }
+
+    // Buckets are keyed by a digest so raw access tokens aren't kept in memory longer than needed
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Refills continuously at capacity per hour. Usage signals can lower the level (capAt)
+     * or stop it handing out tokens for a while (pauseUntil).
+     */
+    static final class TokenBucket {
+        private final double capacity;
+        private final double refillPerMs;
+        private final Clock clock;
+        private double tokens;
+        private long lastRefill;
+        private volatile long pausedUntil;
+
+        TokenBucket(long perHour, Clock clock) {
+            this.capacity = perHour;
+            this.refillPerMs = perHour / 3_600_000.0;
+            this.clock = clock;
+            this.tokens = perHour;
+            this.lastRefill = clock.millis();
+        }
+
+        synchronized boolean tryTake() {
+            refill();
+            if (isPaused() || tokens < 1) {
+                return false;
+            }
+            tokens -= 1;
+            return true;
+        }
+
+        synchronized boolean hasAbove(double fraction) {
+            refill();
+            return !isPaused() && tokens >= Math.max(1, capacity * fraction);
+        }
+
+        synchronized void capAt(double level) {
+            refill();
+            tokens = Math.min(tokens, level);
+        }
+
+        synchronized void pauseUntil(long epochMs) {
+            pausedUntil = Math.max(pausedUntil, epochMs);
+        }
+
+        synchronized double available() {
+            refill();
+            return tokens;
+        }
+
+        boolean isPaused() {
+            return clock.millis() < pausedUntil;
+        }
+
+        private void refill() {
+            long now = clock.millis();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerMs);
+            lastRefill = now;
+        }
+    }
+}
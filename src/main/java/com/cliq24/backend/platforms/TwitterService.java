@@ -4,6 +4,7 @@ import com.cliq24.backend.model.AccountMetrics;
 import com.cliq24.backend.model.SocialAccount;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
@@ -27,7 +28,12 @@ public class TwitterService {
     @Value("${twitter.redirect.uri}")
     private String redirectUri;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final RestTemplate restTemplate;
+
+    @Autowired
+    public TwitterService(PlatformHttpClients platformHttpClients) {
+        this.restTemplate = platformHttpClients.forPlatform("twitter");
+    }
 
     /**
      * Exchange authorization code for access token with PKCE
@@ -99,9 +105,11 @@ public class TwitterService {
 
             logger.info("Successfully synced Twitter metrics for account: {}", account.getAccountName());
             return metrics;
+        } catch (PlatformApiException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Failed to sync Twitter metrics", e);
-            return new AccountMetrics();
+            throw new PlatformApiException("twitter", "Failed to sync Twitter metrics: " + e.getMessage(), e);
         }
     }
 }
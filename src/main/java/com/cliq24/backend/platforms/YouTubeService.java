@@ -4,6 +4,7 @@ import com.cliq24.backend.model.AccountMetrics;
 import com.cliq24.backend.model.SocialAccount;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
@@ -18,7 +19,7 @@ import java.util.Map;
 public class YouTubeService {
 
     private static final Logger logger = LogManager.getLogger(YouTubeService.class);
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final RestTemplate restTemplate;
 
     @Value("${spring.security.oauth2.client.registration.youtube.client-id}")
     private String clientId;
@@ -29,6 +30,11 @@ public class YouTubeService {
     @Value("${youtube.redirect.uri}")
     private String redirectUri;
 
+    @Autowired
+    public YouTubeService(PlatformHttpClients platformHttpClients) {
+        this.restTemplate = platformHttpClients.forPlatform("youtube");
+    }
+
     /**
      * Exchange authorization code for access token (uses Google OAuth)
      */
@@ -127,9 +133,11 @@ public class YouTubeService {
 
             logger.info("Successfully synced YouTube metrics for account: {}", account.getUsername());
             return metrics;
+        } catch (PlatformApiException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Failed to sync YouTube metrics", e);
-            return new AccountMetrics();
+            throw new PlatformApiException("youtube", "Failed to sync YouTube metrics: " + e.getMessage(), e);
         }
     }
 }
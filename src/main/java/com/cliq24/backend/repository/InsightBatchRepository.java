@@ -0,0 +1,22 @@
+package com.cliq24.backend.repository;
+
+import com.cliq24.backend.model.InsightBatch;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface InsightBatchRepository extends MongoRepository<InsightBatch, String> {
+    boolean existsByStatusIn(Collection<String> statuses);
+
+    List<InsightBatch> findByStatusAndBatchIdIsNullAndCreatedAtBefore(String status, Instant createdBefore);
+
+    /**
+     * Batches waiting for import: submitted ones, and ones whose import claim is older than
+     * leaseExpiredBefore (the node importing it died)
+     */
+    @Query("{ '$or': [ { 'status': 'SUBMITTED' }, "
+        + "{ 'status': 'PROCESSING', '$or': [ { 'claimedAt': { '$lt': ?0 } }, { 'claimedAt': null } ] } ] }")
+    List<InsightBatch> findClaimable(Instant leaseExpiredBefore);
+}
@@ -0,0 +1,10 @@
+package com.cliq24.backend.repository;
+
+import com.cliq24.backend.model.InsightBatchTargets;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import java.util.List;
+
+public interface InsightBatchTargetsRepository extends MongoRepository<InsightBatchTargets, String> {
+    List<InsightBatchTargets> findByBatchId(String batchId);
+    void deleteByBatchId(String batchId);
+}
@@ -0,0 +1,7 @@
+package com.cliq24.backend.repository;
+
+import com.cliq24.backend.model.InsightCacheEntry;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface InsightCacheRepository extends MongoRepository<InsightCacheEntry, String> {
+}
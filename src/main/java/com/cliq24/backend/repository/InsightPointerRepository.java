@@ -0,0 +1,10 @@
+package com.cliq24.backend.repository;
+
+import com.cliq24.backend.model.InsightPointer;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import java.util.List;
+
+public interface InsightPointerRepository extends MongoRepository<InsightPointer, String> {
+    List<InsightPointer> findByUserId(String userId);
+    void deleteByUserId(String userId);
+}
@@ -0,0 +1,11 @@
+package com.cliq24.backend.repository;
+
+import com.cliq24.backend.model.MetricsSnapshot;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import java.time.Instant;
+import java.util.List;
+
+public interface MetricsSnapshotRepository extends MongoRepository<MetricsSnapshot, String> {
+    // Raw points for a chart - served by the (account, time) index on the time-series collection
+    List<MetricsSnapshot> findByAccountIdAndTimestampBetweenOrderByTimestampAsc(String accountId, Instant from, Instant to);
+}
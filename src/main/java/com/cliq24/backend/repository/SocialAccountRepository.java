@@ -1,13 +1,23 @@
 package com.cliq24.backend.repository;
 
+import com.cliq24.backend.model.Platform;
 import com.cliq24.backend.model.SocialAccount;
+import com.cliq24.backend.model.SocialAccountSummary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 public interface SocialAccountRepository extends MongoRepository<SocialAccount, String> {
     List<SocialAccount> findByUserId(String userId);
-    Optional<SocialAccount> findByUserIdAndPlatform(String userId, String platform);
-    void deleteByUserIdAndPlatform(String userId, String platform);
+    // Dashboard listing - projected to the fields the DTO needs, no tokens
+    List<SocialAccountSummary> findSummariesByUserId(String userId);
+    Optional<SocialAccount> findByUserIdAndPlatform(String userId, Platform platform);
+    void deleteByUserIdAndPlatform(String userId, Platform platform);
     long countByUserId(String userId);
+
+    // Background sync: accounts never synced or last synced before the cutoff
+    Slice<SocialAccount> findByLastSyncedBeforeOrLastSyncedIsNull(LocalDateTime cutoff, Pageable pageable);
 }
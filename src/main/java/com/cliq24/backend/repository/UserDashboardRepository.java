@@ -0,0 +1,10 @@
+package com.cliq24.backend.repository;
+
+import com.cliq24.backend.model.UserDashboard;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import java.util.Optional;
+
+public interface UserDashboardRepository extends MongoRepository<UserDashboard, String> {
+    // Deletes only carry the account id, so find the owning dashboard through its embedded DTOs
+    Optional<UserDashboard> findByAccountsId(String accountId);
+}
@@ -1,8 +1,12 @@
 package com.cliq24.backend.service;
 
+import com.cliq24.backend.model.AccountMetrics;
 import com.cliq24.backend.model.SocialAccount;
 import com.cliq24.backend.model.User;
+import com.cliq24.backend.platforms.PlatformHttpClients;
 import com.cliq24.backend.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,9 +18,19 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Service
 public class AIInsightsService {
@@ -29,20 +43,32 @@ public class AIInsightsService {
     @Value("${claude.api.url:https://api.anthropic.com/v1/messages}")
     private String claudeApiUrl;
 
+    // When false, a cache miss returns the placeholder and the batch pipeline fills the cache
+    @Value("${insights.generate-on-miss:true}")
+    private boolean generateOnMiss;
+
     private final PreferencesService preferencesService;
     private final UserRepository userRepository;
     private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
 
-    // Cache insights for 1 hour to avoid excessive API calls
-    private final Map<String, CachedInsight> insightsCache = new HashMap<>();
-    private static final long CACHE_DURATION_MS = 60 * 60 * 1000; // 1 hour
+    // Insights keyed by input fingerprint - reused until the inputs change
+    private final InsightsCache insightsCache;
+    private final SingleFlight singleFlight;
 
     @Autowired
     public AIInsightsService(PreferencesService preferencesService,
-                             UserRepository userRepository) {
+                             UserRepository userRepository,
+                             PlatformHttpClients platformHttpClients,
+                             InsightsCache insightsCache,
+                             ObjectMapper objectMapper,
+                             SingleFlight singleFlight) {
         this.preferencesService = preferencesService;
         this.userRepository = userRepository;
-        this.restTemplate = new RestTemplate();
+        this.restTemplate = platformHttpClients.forPlatform("claude");
+        this.insightsCache = insightsCache;
+        this.objectMapper = objectMapper;
+        this.singleFlight = singleFlight;
     }
 
     /**
@@ -55,28 +81,35 @@ public class AIInsightsService {
             return getPlaceholderInsight(account);
         }
 
-        // Check cache first
-        String cacheKey = userId + ":" + account.getId();
-        CachedInsight cached = insightsCache.get(cacheKey);
-        if (cached != null && !cached.isExpired()) {
-            logger.info("Returning cached insight for account: {}", account.getId());
-            return cached.insight;
-        }
-
         try {
             // Get user's goals for this platform
-            List<String> goals = preferencesService.getPlatformGoals(userId, account.getPlatform());
-
-            // Build prompt for Claude
-            String prompt = buildPrompt(account, goals);
+            List<String> goals = preferencesService.getPlatformGoals(userId, account.getPlatform().key());
+            PromptInputs inputs = new PromptInputs(account, goals);
+            String fingerprint = inputs.fingerprint();
+
+            // Same platform, similar metrics and same goals -> same insight, whoever asked first
+            Optional<String> cached = insightsCache.get(fingerprint);
+            if (cached.isPresent()) {
+                logger.info("Returning cached insight for account: {}", account.getId());
+                insightsCache.point(userId, account.getId(), fingerprint);
+                return cached.get();
+            }
 
-            // Call Claude API
-            String insight = callClaudeAPI(prompt);
+            if (!generateOnMiss) {
+                logger.debug("No precomputed insight for account {} yet", account.getId());
+                return getPlaceholderInsight(account);
+            }
 
-            // Cache the result
-            insightsCache.put(cacheKey, new CachedInsight(insight));
+            // Concurrent misses for the same inputs share one Claude call
+            String insight = singleFlight.execute("insight:" + fingerprint, () -> {
+                // Call Claude API with the prompt built from the inputs
+                String generated = callClaudeAPI(buildPrompt(inputs));
+                insightsCache.put(fingerprint, generated);
+                logger.info("Generated new AI insight for account: {}", account.getId());
+                return generated;
+            }, () -> insightsCache.get(fingerprint).orElseGet(() -> getPlaceholderInsight(account)));
 
-            logger.info("Generated new AI insight for account: {}", account.getId());
+            insightsCache.point(userId, account.getId(), fingerprint);
             return insight;
 
         } catch (Exception e) {
@@ -86,28 +119,102 @@ public class AIInsightsService {
     }
 
     /**
-     * Build prompt for Claude API based on account metrics and user goals
+     * Streaming variant of generateInsights: text is handed to onText as Claude produces it,
+     * and the complete insight is cached at the end. Cached and placeholder insights arrive
+     * as a single chunk. A failure before any text falls back to the placeholder; one after
+     * text was streamed is thrown, and nothing is cached.
+     */
+    public String streamInsights(String userId, SocialAccount account, Consumer<String> onText) {
+        if (claudeApiKey == null || claudeApiKey.equals("placeholder") || claudeApiKey.isEmpty()) {
+            String placeholder = getPlaceholderInsight(account);
+            onText.accept(placeholder);
+            return placeholder;
+        }
+
+        StringBuilder streamed = new StringBuilder();
+        try {
+            List<String> goals = preferencesService.getPlatformGoals(userId, account.getPlatform().key());
+            PromptInputs inputs = new PromptInputs(account, goals);
+            String fingerprint = inputs.fingerprint();
+
+            Optional<String> cached = insightsCache.get(fingerprint);
+            if (cached.isPresent() || !generateOnMiss) {
+                String insight = cached.orElseGet(() -> getPlaceholderInsight(account));
+                cached.ifPresent(c -> insightsCache.point(userId, account.getId(), fingerprint));
+                onText.accept(insight);
+                return insight;
+            }
+
+            // Shares a run with any concurrent generate/stream for the same inputs
+            String insight = singleFlight.execute("insight:" + fingerprint, () -> {
+                String generated = streamClaudeAPI(buildPrompt(inputs), delta -> {
+                    streamed.append(delta);
+                    onText.accept(delta);
+                });
+                if (!generated.isBlank()) {
+                    insightsCache.put(fingerprint, generated);
+                    logger.info("Streamed new AI insight for account: {}", account.getId());
+                }
+                return generated;
+            }, () -> insightsCache.get(fingerprint).orElseGet(() -> getPlaceholderInsight(account)));
+
+            if (streamed.length() == 0) {
+                onText.accept(insight); // Joined someone else's run - send it in one piece
+            }
+            if (!insight.isBlank()) {
+                insightsCache.point(userId, account.getId(), fingerprint);
+            }
+            return insight;
+
+        } catch (Exception e) {
+            logger.error("Failed to stream AI insights: {}", e.getMessage(), e);
+            if (streamed.length() > 0) {
+                // Partial text already shown - the caller has to tell the client it's incomplete
+                throw new RuntimeException("Insight stream interrupted: " + e.getMessage(), e);
+            }
+            String placeholder = getPlaceholderInsight(account);
+            onText.accept(placeholder);
+            return placeholder;
+        }
+    }
+
+    /**
+     * Fingerprint and prompt for an account whose insight isn't cached yet, or null if it is.
+     * Lets the batch pipeline collect work without calling Claude.
      */
-    private String buildPrompt(SocialAccount account, List<String> goals) {
+    PendingInsight pendingInsight(SocialAccount account, List<String> goals) {
+        PromptInputs inputs = new PromptInputs(account, goals);
+        String fingerprint = inputs.fingerprint();
+        if (insightsCache.get(fingerprint).isPresent()) {
+            return null;
+        }
+        return new PendingInsight(fingerprint, buildPrompt(inputs));
+    }
+
+    /**
+     * Build prompt for Claude API based on account metrics and user goals.
+     * Uses only the fingerprinted inputs - nothing account-specific like the username -
+     * so a cached insight is valid for every account with the same fingerprint.
+     */
+    private String buildPrompt(PromptInputs inputs) {
         StringBuilder prompt = new StringBuilder();
 
         prompt.append("You are a social media marketing expert. Analyze the following ");
-        prompt.append(account.getPlatform());
+        prompt.append(inputs.platform);
         prompt.append(" account metrics and provide a brief, actionable insight.\n\n");
 
-        prompt.append("Account: @").append(account.getUsername()).append("\n");
-        prompt.append("Platform: ").append(account.getPlatform()).append("\n\n");
+        prompt.append("Platform: ").append(inputs.platform).append("\n\n");
 
-        prompt.append("Current Metrics:\n");
-        if (account.getMetrics() != null) {
-            prompt.append("- Followers: ").append(account.getMetrics().getConnections()).append("\n");
-            prompt.append("- Posts: ").append(account.getMetrics().getPosts()).append("\n");
-            prompt.append("- Pending Responses: ").append(account.getMetrics().getPendingResponses()).append("\n");
-            prompt.append("- Engagement Score: ").append(account.getMetrics().getEngagementScore()).append("/100\n");
+        prompt.append("Current Metrics (approximate):\n");
+        if (inputs.hasMetrics) {
+            prompt.append("- Followers: ").append(inputs.followers).append("\n");
+            prompt.append("- Posts: ").append(inputs.posts).append("\n");
+            prompt.append("- Pending Responses: ").append(inputs.pendingResponses).append("\n");
+            prompt.append("- Engagement Score: ").append(inputs.engagementScore).append("/100\n");
         }
 
         prompt.append("\nUser's Goals: ");
-        prompt.append(String.join(", ", goals));
+        prompt.append(String.join(", ", inputs.goals));
         prompt.append("\n\n");
 
         prompt.append("Provide ONE specific, actionable insight (2-3 sentences max) that helps achieve their goals. ");
@@ -123,20 +230,10 @@ public class AIInsightsService {
     private String callClaudeAPI(String prompt) {
         try {
             // Build request body
-            Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("model", "claude-3-5-sonnet-20240620");
-            requestBody.put("max_tokens", 150);
-
-            Map<String, String> message = new HashMap<>();
-            message.put("role", "user");
-            message.put("content", prompt);
-            requestBody.put("messages", List.of(message));
+            Map<String, Object> requestBody = messageParams(prompt);
 
             // Build headers
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Content-Type", "application/json");
-            headers.set("x-api-key", claudeApiKey);
-            headers.set("anthropic-version", "2023-06-01");
+            HttpHeaders headers = claudeHeaders();
 
             HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
 
@@ -164,6 +261,77 @@ public class AIInsightsService {
         }
     }
 
+    /**
+     * Call Claude with stream=true, passing each text delta to onText as it arrives.
+     * Returns the full text once the stream ends.
+     */
+    private String streamClaudeAPI(String prompt, Consumer<String> onText) {
+        Map<String, Object> requestBody = messageParams(prompt);
+        requestBody.put("stream", true);
+        StringBuilder text = new StringBuilder();
+        boolean[] stopped = new boolean[1];
+
+        restTemplate.execute(claudeApiUrl, HttpMethod.POST,
+            request -> {
+                request.getHeaders().addAll(claudeHeaders());
+                objectMapper.writeValue(request.getBody(), requestBody);
+            },
+            response -> {
+                try (BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(response.getBody(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (!line.startsWith("data:")) {
+                            continue; // event: lines and keep-alive blanks
+                        }
+                        JsonNode event = objectMapper.readTree(line.substring(5).trim());
+                        String type = event.path("type").asText();
+
+                        if ("content_block_delta".equals(type) && "text_delta".equals(event.path("delta").path("type").asText())) {
+                            String delta = event.path("delta").path("text").asText("");
+                            text.append(delta);
+                            onText.accept(delta);
+                        } else if ("error".equals(type)) {
+                            throw new RuntimeException("Claude stream error: " + event.path("error").path("message").asText());
+                        } else if ("message_stop".equals(type)) {
+                            stopped[0] = true;
+                            break;
+                        }
+                    }
+                }
+                return null;
+            });
+
+        if (!stopped[0]) {
+            // The connection closed mid-message - what arrived is only part of the insight
+            throw new RuntimeException("Claude stream ended before message_stop");
+        }
+        return text.toString();
+    }
+
+    private HttpHeaders claudeHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Content-Type", "application/json");
+        headers.set("x-api-key", claudeApiKey);
+        headers.set("anthropic-version", "2023-06-01");
+        return headers;
+    }
+
+    /**
+     * Messages API parameters for one insight - the same for a direct call and a batch entry
+     */
+    Map<String, Object> messageParams(String prompt) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("model", "claude-3-5-sonnet-20240620");
+        params.put("max_tokens", 150);
+
+        Map<String, String> message = new HashMap<>();
+        message.put("role", "user");
+        message.put("content", prompt);
+        params.put("messages", List.of(message));
+        return params;
+    }
+
     /**
      * Get placeholder insight when AI is not available
      */
@@ -191,8 +359,7 @@ public class AIInsightsService {
      * Clear cached insights (useful for forcing refresh)
      */
     public void clearCache(String userId, String accountId) {
-        String cacheKey = userId + ":" + accountId;
-        insightsCache.remove(cacheKey);
+        insightsCache.evict(userId, accountId);
         logger.info("Cleared insights cache for account: {}", accountId);
     }
 
@@ -200,24 +367,80 @@ public class AIInsightsService {
      * Clear all cached insights for a user
      */
     public void clearUserCache(String userId) {
-        insightsCache.keySet().removeIf(key -> key.startsWith(userId + ":"));
+        insightsCache.evictUser(userId);
         logger.info("Cleared all insights cache for user: {}", userId);
     }
 
+    static class PendingInsight {
+        final String fingerprint;
+        final String prompt;
+
+        PendingInsight(String fingerprint, String prompt) {
+            this.fingerprint = fingerprint;
+            this.prompt = prompt;
+        }
+    }
+
     /**
-     * Inner class for caching insights with expiration
+     * The inputs to buildPrompt, with metrics bucketed so small day-to-day changes
+     * don't produce a new prompt (and a new Claude call).
      */
-    private static class CachedInsight {
-        private final String insight;
-        private final long timestamp;
+    private static class PromptInputs {
+        // Bump when buildPrompt changes so old insights stop matching
+        private static final String PROMPT_VERSION = "v1";
+
+        private final String platform;
+        private final boolean hasMetrics;
+        private final int followers;
+        private final int posts;
+        private final int pendingResponses;
+        private final int engagementScore;
+        private final List<String> goals;
+
+        PromptInputs(SocialAccount account, List<String> goals) {
+            AccountMetrics metrics = account.getMetrics();
+            this.platform = account.getPlatform().displayName();
+            this.hasMetrics = metrics != null;
+            this.followers = hasMetrics ? significant(valueOf(metrics.getConnections())) : 0;
+            this.posts = hasMetrics ? significant(valueOf(metrics.getPosts())) : 0;
+            int pending = hasMetrics ? valueOf(metrics.getPendingResponses()) : 0;
+            this.pendingResponses = pending <= 5 ? pending : roundUp(pending, 5);
+            this.engagementScore = hasMetrics ? Math.round(valueOf(metrics.getEngagementScore()) / 5.0f) * 5 : 0;
+            this.goals = goals.stream()
+                .map(goal -> goal.toLowerCase(Locale.ROOT))
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList());
+        }
 
-        public CachedInsight(String insight) {
-            this.insight = insight;
-            this.timestamp = System.currentTimeMillis();
+        String fingerprint() {
+            String canonical = String.join("|", PROMPT_VERSION,
+                platform.toLowerCase(Locale.ROOT),
+                hasMetrics ? followers + "," + posts + "," + pendingResponses + "," + engagementScore : "-",
+                String.join(",", goals));
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+                return HexFormat.of().formatHex(digest);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+
+        private static int valueOf(Integer value) {
+            return value != null ? value : 0;
+        }
+
+        // Two significant figures: 1,234 -> 1,200; 98,765 -> 99,000; 56 -> 56
+        private static int significant(int value) {
+            if (value < 100) {
+                return value;
+            }
+            int scale = (int) Math.pow(10, (int) Math.log10(value) - 1);
+            return Math.round((float) value / scale) * scale;
         }
 
-        public boolean isExpired() {
-            return System.currentTimeMillis() - timestamp > CACHE_DURATION_MS;
+        private static int roundUp(int value, int step) {
+            return ((value + step - 1) / step) * step;
         }
     }
 }
@@ -23,13 +23,15 @@ public class AuthService {
     private static final Logger logger = LogManager.getLogger(AuthService.class);
 
     private final UserRepository userRepository;
+    private final UserCache userCache;
     private final UserMapper userMapper;
     private final JwtUtil jwtUtil;
     private final PasswordEncoder passwordEncoder;
 
     @Autowired
-    public AuthService(UserRepository userRepository, UserMapper userMapper, JwtUtil jwtUtil) {
+    public AuthService(UserRepository userRepository, UserCache userCache, UserMapper userMapper, JwtUtil jwtUtil) {
         this.userRepository = userRepository;
+        this.userCache = userCache;
         this.userMapper = userMapper;
         this.jwtUtil = jwtUtil;
         this.passwordEncoder = new BCryptPasswordEncoder();
@@ -65,7 +67,7 @@ public class AuthService {
     
     public UserDTO getUserById(String userId) {
         // Removed excessive debug logging - called on every authenticated request
-        User user = userRepository.findById(userId)
+        User user = userCache.findById(userId)
                 .orElseThrow(() -> {
                     logger.error("User not found: {}", userId);
                     return new RuntimeException("User not found");
@@ -84,7 +86,7 @@ public class AuthService {
         }
 
         String userId = jwtUtil.extractUserId(token);
-        User user = userRepository.findById(userId)
+        User user = userCache.findById(userId)
                 .orElseThrow(() -> {
                     logger.error("User not found: {}", userId);
                     return new RuntimeException("User not found");
@@ -102,7 +104,7 @@ public class AuthService {
                     existingUser.setEmail(email);
                     existingUser.setName(name);
                     existingUser.setPicture(picture);
-                    return userRepository.save(existingUser);
+                    return userCache.save(existingUser);
                 })
                 .orElseGet(() -> {
                     logger.info("Creating new user: {}", email);
@@ -112,7 +114,7 @@ public class AuthService {
                     newUser.setName(name);
                     newUser.setPicture(picture);
                     newUser.setCreatedAt(LocalDateTime.now());
-                    return userRepository.save(newUser);
+                    return userCache.save(newUser);
                 });
     }
     
@@ -136,7 +138,7 @@ public class AuthService {
                 });
 
         user.setPicture(pictureUrl);
-        User updatedUser = userRepository.save(user);
+        User updatedUser = userCache.save(user);
 
         logger.info("Profile picture updated for user: {}", user.getEmail());
         return userMapper.toDTO(updatedUser);
@@ -152,7 +154,7 @@ public class AuthService {
                 });
 
         user.setPicture(pictureUrl);
-        userRepository.save(user);
+        userCache.save(user);
 
         logger.info("Profile picture updated for user: {}", user.getEmail());
     }
@@ -167,7 +169,7 @@ public class AuthService {
                 });
 
         user.setUserType(userType);
-        User updatedUser = userRepository.save(user);
+        User updatedUser = userCache.save(user);
 
         logger.info("User type updated to {} for user: {}", userType, user.getEmail());
         return userMapper.toDTO(updatedUser);
@@ -189,7 +191,7 @@ public class AuthService {
         newUser.setPasswordHash(passwordEncoder.encode(request.getPassword()));
         newUser.setCreatedAt(LocalDateTime.now());
 
-        User savedUser = userRepository.save(newUser);
+        User savedUser = userCache.save(newUser);
 
         // Generate JWT token
         String jwtToken = jwtUtil.generateToken(savedUser.getId(), savedUser.getEmail());
@@ -0,0 +1,53 @@
+package com.cliq24.backend.service;
+
+import com.cliq24.backend.model.SocialAccount;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies every social account write to the owner's dashboard document, whichever code path
+ * made it (sync, background refresh, connect callbacks, disconnect).
+ */
+@Component
+public class DashboardEventListener extends AbstractMongoEventListener<SocialAccount> {
+
+    private static final Logger logger = LogManager.getLogger(DashboardEventListener.class);
+
+    private final DashboardService dashboardService;
+
+    @Autowired
+    public DashboardEventListener(DashboardService dashboardService) {
+        this.dashboardService = dashboardService;
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<SocialAccount> event) {
+        try {
+            dashboardService.accountSaved(event.getSource());
+        } catch (Exception e) {
+            // The dashboard rebuilds itself if it's missing, so never fail the account write over it
+            logger.warn("Failed to update dashboard for account {}: {}", event.getSource().getId(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<SocialAccount> event) {
+        Document query = event.getSource();
+        try {
+            if (query.containsKey("userId")) {
+                // Derived deletes (e.g. deleteByUserIdAndPlatform) - simplest to rebuild
+                dashboardService.rebuild(query.get("userId").toString());
+            } else if (query.containsKey("_id")) {
+                dashboardService.accountDeleted(query.get("_id").toString());
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to update dashboard after account delete {}: {}", query.toJson(), e.getMessage());
+        }
+    }
+}
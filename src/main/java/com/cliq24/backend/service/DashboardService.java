@@ -0,0 +1,203 @@
+package com.cliq24.backend.service;
+
+import com.cliq24.backend.dto.SocialAccountDTO;
+import com.cliq24.backend.mapper.SocialAccountMapper;
+import com.cliq24.backend.model.SocialAccount;
+import com.cliq24.backend.model.SocialAccountSummary;
+import com.cliq24.backend.model.UserDashboard;
+import com.cliq24.backend.repository.SocialAccountRepository;
+import com.cliq24.backend.repository.UserDashboardRepository;
+import com.cliq24.backend.util.ScoreCalculator;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the per-user dashboard document so GET /api/social-accounts is a single read.
+ * Account saves and deletes are applied incrementally (see DashboardEventListener);
+ * a full rebuild only happens when the document is missing, is a stale placeholder, or its
+ * token flags have gone stale.
+ */
+@Service
+public class DashboardService {
+
+    private static final Logger logger = LogManager.getLogger(DashboardService.class);
+
+    private static final int MAX_UPDATE_ATTEMPTS = 3;
+
+    private final UserDashboardRepository userDashboardRepository;
+    private final SocialAccountRepository socialAccountRepository;
+    private final SocialAccountMapper socialAccountMapper;
+    private final ScoreCalculator scoreCalculator;
+
+    @Autowired
+    public DashboardService(UserDashboardRepository userDashboardRepository,
+                            SocialAccountRepository socialAccountRepository,
+                            SocialAccountMapper socialAccountMapper,
+                            ScoreCalculator scoreCalculator) {
+        this.userDashboardRepository = userDashboardRepository;
+        this.socialAccountRepository = socialAccountRepository;
+        this.socialAccountMapper = socialAccountMapper;
+        this.scoreCalculator = scoreCalculator;
+    }
+
+    public UserDashboard getDashboard(String userId) {
+        return userDashboardRepository.findById(userId)
+            .filter(dashboard -> !dashboard.isStale())
+            .filter(dashboard -> dashboard.getNextTokenExpiry() == null
+                || dashboard.getNextTokenExpiry().isAfter(LocalDateTime.now()))
+            .orElseGet(() -> rebuild(userId));
+    }
+
+    /**
+     * Recompute the whole dashboard from the user's accounts. The accounts are read inside each
+     * attempt, after the versioned document, so an account write that lands in between bumps
+     * the version (or collides with the insert) and the rebuild retries with a fresh read.
+     */
+    public UserDashboard rebuild(String userId) {
+        return update(userId, true, dashboard -> {
+            // Projected read - the list never needs tokens or manual metrics
+            List<SocialAccountSummary> accounts = socialAccountRepository.findSummariesByUserId(userId);
+            Map<String, LocalDateTime> tokenExpiries = new HashMap<>();
+            for (SocialAccountSummary account : accounts) {
+                if (account.tokenExpiresAt() != null) {
+                    tokenExpiries.put(account.id(), account.tokenExpiresAt());
+                }
+            }
+
+            dashboard.setAccounts(accounts.stream()
+                .map(socialAccountMapper::toDTO)
+                .collect(Collectors.toList()));
+            dashboard.setTokenExpiries(tokenExpiries);
+            dashboard.setStale(false);
+        });
+    }
+
+    /**
+     * Replace (or add) one account's entry after it was saved
+     */
+    public void accountSaved(SocialAccount account) {
+        if (account.getUserId() == null) {
+            return;
+        }
+        SocialAccountDTO dto = socialAccountMapper.toDTO(account);
+        update(account.getUserId(), false, dashboard -> {
+            List<SocialAccountDTO> accounts = new ArrayList<>(dashboard.getAccounts());
+            int index = indexOf(accounts, account.getId());
+            if (index >= 0) {
+                accounts.set(index, dto);
+            } else {
+                accounts.add(dto);
+            }
+            dashboard.setAccounts(accounts);
+
+            if (account.getTokenExpiresAt() != null) {
+                dashboard.getTokenExpiries().put(account.getId(), account.getTokenExpiresAt());
+            } else {
+                dashboard.getTokenExpiries().remove(account.getId());
+            }
+        });
+    }
+
+    /**
+     * Drop an account's entry after it was deleted
+     */
+    public void accountDeleted(String accountId) {
+        userDashboardRepository.findByAccountsId(accountId).ifPresent(existing ->
+            update(existing.getUserId(), false, dashboard -> {
+                List<SocialAccountDTO> accounts = new ArrayList<>(dashboard.getAccounts());
+                accounts.removeIf(dto -> accountId.equals(dto.getId()));
+                dashboard.setAccounts(accounts);
+                dashboard.getTokenExpiries().remove(accountId);
+            }));
+    }
+
+    /**
+     * Read-modify-write under the document's version. Concurrent syncs for the same user
+     * (e.g. sync-all) retry on conflict instead of overwriting each other's entries.
+     *
+     * Incremental changes (rebuild = false) don't apply themselves to a missing document -
+     * it would hold only this one account. They insert a stale placeholder instead, which the
+     * next read rebuilds, and which makes a rebuild that read the accounts before this write
+     * collide on insert and retry. If the retries run out the document is deleted for the same
+     * reason, rather than left without the change.
+     */
+    private UserDashboard update(String userId, boolean rebuild, Consumer<UserDashboard> change) {
+        for (int attempt = 1; attempt <= MAX_UPDATE_ATTEMPTS; attempt++) {
+            UserDashboard dashboard = userDashboardRepository.findById(userId).orElse(null);
+            if (dashboard == null) {
+                dashboard = new UserDashboard(userId);
+                if (!rebuild) {
+                    dashboard.setStale(true);
+                    try {
+                        return userDashboardRepository.save(dashboard);
+                    } catch (DuplicateKeyException e) {
+                        logger.debug("Dashboard for user {} created concurrently (attempt {})", userId, attempt);
+                        continue;
+                    }
+                }
+            }
+            change.accept(dashboard);
+            recalculate(dashboard);
+            try {
+                return userDashboardRepository.save(dashboard);
+            } catch (OptimisticLockingFailureException | DuplicateKeyException e) {
+                logger.debug("Dashboard update conflict for user {} (attempt {})", userId, attempt);
+            }
+        }
+        userDashboardRepository.deleteById(userId);
+        logger.warn("Dashboard for user {} still conflicting after {} attempts - dropped for rebuild on next read",
+            userId, MAX_UPDATE_ATTEMPTS);
+        throw new RuntimeException("Could not update dashboard for user " + userId);
+    }
+
+    private void recalculate(UserDashboard dashboard) {
+        List<SocialAccountDTO> accounts = dashboard.getAccounts();
+
+        // Same average the dashboard has always shown: the platform-reported engagement scores
+        int overallScore = (int) Math.round(accounts.stream()
+            .mapToInt(dto -> dto.getMetrics() != null && dto.getMetrics().getEngagementScore() != null
+                ? dto.getMetrics().getEngagementScore() : 0)
+            .average()
+            .orElse(0.0));
+
+        dashboard.setOverallScore(overallScore);
+        dashboard.setScoreLabel(scoreCalculator.getScoreLabel(overallScore));
+        dashboard.setScoreColor(scoreCalculator.getScoreColor(overallScore));
+        dashboard.setTotalFollowers(accounts.stream()
+            .mapToInt(dto -> dto.getMetrics() != null && dto.getMetrics().getConnections() != null
+                ? dto.getMetrics().getConnections() : 0)
+            .sum());
+        dashboard.setTotalPosts(accounts.stream()
+            .mapToInt(dto -> dto.getMetrics() != null && dto.getMetrics().getPosts() != null
+                ? dto.getMetrics().getPosts() : 0)
+            .sum());
+
+        LocalDateTime now = LocalDateTime.now();
+        dashboard.setNextTokenExpiry(dashboard.getTokenExpiries().values().stream()
+            .filter(expiry -> expiry != null && expiry.isAfter(now))
+            .min(LocalDateTime::compareTo)
+            .orElse(null));
+        dashboard.setUpdatedAt(LocalDateTime.now());
+    }
+
+    private int indexOf(List<SocialAccountDTO> accounts, String accountId) {
+        for (int i = 0; i < accounts.size(); i++) {
+            if (accounts.get(i).getId() != null && accounts.get(i).getId().equals(accountId)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,150 @@
+package com.cliq24.backend.service;
+
+import com.cliq24.backend.model.IdempotencyRecord;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key handling for requests that must not run twice (sending a message).
+ *
+ * The first request with a key claims it by inserting an IN_PROGRESS record; its result is
+ * stored on success and replayed for any later request with the same key. A plain failure
+ * releases the key so the client can retry. A failure where the platform may have acted anyway
+ * (timeout after sending) marks it UNKNOWN, and reusing that key is refused.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger logger = LogManager.getLogger(IdempotencyService.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    @Autowired
+    public IdempotencyService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        try {
+            mongoTemplate.indexOps(IdempotencyRecord.class).ensureIndex(
+                new Index().on("expiresAt", Sort.Direction.ASC).expire(Duration.ZERO).named("expires_ttl"));
+        } catch (Exception e) {
+            logger.error("Could not create idempotency key index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Run work at most once per (scope, key). Without a key the work just runs.
+     *
+     * @param scope   who the key belongs to, e.g. userId:accountId - keys are only unique per client
+     * @param request the request's identifying fields; reusing a key for a different request is an error
+     */
+    public Map<String, Object> execute(String scope, String key, String request, Supplier<Map<String, Object>> work) {
+        if (key == null || key.isBlank()) {
+            return work.get();
+        }
+
+        String id = scope + ":" + key;
+        String requestHash = hash(request);
+        Instant now = Instant.now();
+
+        IdempotencyRecord claim = new IdempotencyRecord();
+        claim.setId(id);
+        claim.setRequestHash(requestHash);
+        claim.setStatus(IdempotencyRecord.IN_PROGRESS);
+        claim.setCreatedAt(now);
+        claim.setExpiresAt(now.plus(Duration.ofHours(ttlHours)));
+
+        try {
+            mongoTemplate.insert(claim);
+        } catch (DuplicateKeyException e) {
+            return replay(id, requestHash);
+        }
+
+        Map<String, Object> result;
+        try {
+            result = work.get();
+        } catch (RuntimeException e) {
+            if (mayHaveTakenEffect(e)) {
+                mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(id)),
+                    Update.update("status", IdempotencyRecord.UNKNOWN), IdempotencyRecord.class);
+            } else {
+                mongoTemplate.remove(Query.query(Criteria.where("_id").is(id)), IdempotencyRecord.class);
+            }
+            throw e;
+        }
+
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(id)),
+            new Update().set("status", IdempotencyRecord.COMPLETED).set("response", result),
+            IdempotencyRecord.class);
+        return result;
+    }
+
+    private Map<String, Object> replay(String id, String requestHash) {
+        IdempotencyRecord existing = mongoTemplate.findById(id, IdempotencyRecord.class);
+        if (existing == null) {
+            throw new RuntimeException("Request with this Idempotency-Key just finished, please retry");
+        }
+        if (!existing.getRequestHash().equals(requestHash)) {
+            throw new RuntimeException("Idempotency-Key was already used for a different request");
+        }
+
+        switch (existing.getStatus()) {
+            case IdempotencyRecord.COMPLETED:
+                logger.info("Replaying stored result for idempotency key {}", id);
+                Map<String, Object> replayed = new HashMap<>(existing.getResponse());
+                replayed.put("replayed", true);
+                return replayed;
+            case IdempotencyRecord.IN_PROGRESS:
+                throw new RuntimeException("A request with this Idempotency-Key is already in progress");
+            default:
+                throw new RuntimeException("An earlier request with this Idempotency-Key may have been delivered - check before sending again");
+        }
+    }
+
+    // A timeout or dropped connection after the request went out can't tell us whether it was applied
+    private static boolean mayHaveTakenEffect(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof ResourceAccessException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,432 @@
+package com.cliq24.backend.service;
+
+import com.cliq24.backend.model.InsightBatch;
+import com.cliq24.backend.model.InsightBatchTargets;
+import com.cliq24.backend.model.OperationLease;
+import com.cliq24.backend.model.SocialAccount;
+import com.cliq24.backend.model.User;
+import com.cliq24.backend.platforms.PlatformHttpClients;
+import com.cliq24.backend.repository.InsightBatchRepository;
+import com.cliq24.backend.repository.InsightBatchTargetsRepository;
+import com.cliq24.backend.repository.SocialAccountRepository;
+import com.cliq24.backend.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Precomputes insights in bulk through the Message Batches API.
+ *
+ * A scheduled run collects every account whose insight isn't cached, records the batch in
+ * Mongo, then submits one request per distinct prompt fingerprint. Every replica fires the cron,
+ * so each run first inserts a run document for its cron slot - only the replica whose insert
+ * wins submits. A poller claims each ended batch for import (the claim is a lease, so a node
+ * dying mid-import doesn't strand it) and imports the results into InsightsCache, so dashboard
+ * reads never wait on Claude.
+ */
+@Service
+@ConditionalOnProperty(name = "insights.batch.enabled", havingValue = "true", matchIfMissing = true)
+public class InsightsBatchService {
+
+    private static final Logger logger = LogManager.getLogger(InsightsBatchService.class);
+
+    private static final int PAGE_SIZE = 200;
+
+    // "userId:accountId" entries per InsightBatchTargets document - far below the 16MB limit
+    private static final int TARGETS_PER_CHUNK = 5000;
+
+    private static final int MAX_RECORD_ATTEMPTS = 3;
+
+    private final SocialAccountRepository socialAccountRepository;
+    private final UserRepository userRepository;
+    private final PreferencesService preferencesService;
+    private final AIInsightsService aiInsightsService;
+    private final InsightsCache insightsCache;
+    private final InsightBatchRepository insightBatchRepository;
+    private final InsightBatchTargetsRepository insightBatchTargetsRepository;
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final RestTemplate restTemplate;
+    private final String owner = UUID.randomUUID().toString();
+
+    @Value("${claude.api.key:placeholder}")
+    private String claudeApiKey;
+
+    @Value("${claude.api.batch-url:https://api.anthropic.com/v1/messages/batches}")
+    private String batchUrl;
+
+    @Value("${insights.batch.max-requests:10000}")
+    private int maxRequests;
+
+    @Value("${insights.batch.processing-lease-ms:1800000}")
+    private long processingLeaseMs;
+
+    @Autowired
+    public InsightsBatchService(SocialAccountRepository socialAccountRepository,
+                                UserRepository userRepository,
+                                PreferencesService preferencesService,
+                                AIInsightsService aiInsightsService,
+                                InsightsCache insightsCache,
+                                InsightBatchRepository insightBatchRepository,
+                                InsightBatchTargetsRepository insightBatchTargetsRepository,
+                                MongoTemplate mongoTemplate,
+                                ObjectMapper objectMapper,
+                                PlatformHttpClients platformHttpClients) {
+        this.socialAccountRepository = socialAccountRepository;
+        this.userRepository = userRepository;
+        this.preferencesService = preferencesService;
+        this.aiInsightsService = aiInsightsService;
+        this.insightsCache = insightsCache;
+        this.insightBatchRepository = insightBatchRepository;
+        this.insightBatchTargetsRepository = insightBatchTargetsRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.restTemplate = platformHttpClients.forPlatform("claude");
+    }
+
+    @Scheduled(cron = "${insights.batch.cron:0 0 3 * * *}")
+    public void submitStaleInsights() {
+        if (!isApiConfigured()) {
+            return;
+        }
+        if (!claimRun()) {
+            logger.info("Insights batch run for this slot taken by another node - skipping");
+            return;
+        }
+        if (insightBatchRepository.existsByStatusIn(
+                List.of(InsightBatch.PENDING, InsightBatch.SUBMITTED, InsightBatch.PROCESSING))) {
+            logger.info("Previous insights batch still running - skipping this run");
+            return;
+        }
+
+        Map<String, AIInsightsService.PendingInsight> pending = new LinkedHashMap<>();
+        Map<String, List<String>> targets = new HashMap<>();
+        collectPending(pending, targets);
+
+        if (pending.isEmpty()) {
+            logger.info("All account insights are current - no batch needed");
+            return;
+        }
+
+        List<Map<String, Object>> requests = pending.values().stream()
+            .map(p -> Map.<String, Object>of(
+                "custom_id", p.fingerprint,
+                "params", aiInsightsService.messageParams(p.prompt)))
+            .collect(Collectors.toList());
+
+        // Record the batch before paying for it - if this fails, nothing has been submitted
+        InsightBatch batch = new InsightBatch();
+        batch.setId(UUID.randomUUID().toString());
+        batch.setRequestCount(requests.size());
+        batch.setCreatedAt(Instant.now());
+        try {
+            insightBatchRepository.save(batch);
+            saveTargets(batch.getId(), targets);
+        } catch (Exception e) {
+            logger.error("Failed to record insights batch, not submitting: {}", e.getMessage());
+            insightBatchTargetsRepository.deleteByBatchId(batch.getId());
+            insightBatchRepository.deleteById(batch.getId());
+            return;
+        }
+
+        String batchId;
+        try {
+            HttpHeaders headers = apiHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            Map response = restTemplate.exchange(batchUrl, HttpMethod.POST,
+                new HttpEntity<>(Map.of("requests", requests), headers), Map.class).getBody();
+
+            if (response == null || response.get("id") == null) {
+                throw new RuntimeException("No batch id in response");
+            }
+            batchId = (String) response.get("id");
+        } catch (Exception e) {
+            logger.error("Failed to submit insights batch: {}", e.getMessage());
+            batch.setStatus(InsightBatch.FAILED);
+            batch.setCompletedAt(Instant.now());
+            insightBatchRepository.save(batch);
+            insightBatchTargetsRepository.deleteByBatchId(batch.getId());
+            return;
+        }
+
+        if (!markSubmitted(batch, batchId)) {
+            // Log enough to recover the paid batch by hand
+            logger.error("Submitted insights batch {} but could not mark record {} submitted",
+                batchId, batch.getId());
+            return;
+        }
+
+        logger.info("Submitted insights batch {} with {} prompts for {} accounts",
+            batchId, requests.size(), targets.values().stream().mapToInt(List::size).sum());
+    }
+
+    /**
+     * Insert the run document for the current cron slot. Replicas fire the cron at the same
+     * wall-clock minute, so they race on the same _id and only the first insert succeeds. The
+     * document outlives the slot and is cleared by the operation lease TTL index.
+     */
+    private boolean claimRun() {
+        Instant slot = Instant.now().truncatedTo(ChronoUnit.MINUTES);
+        OperationLease run = new OperationLease();
+        run.setId("insights-batch:" + slot);
+        run.setOwner(owner);
+        run.setAcquiredAt(Instant.now());
+        run.setExpiresAt(slot.plus(1, ChronoUnit.DAYS));
+        try {
+            mongoTemplate.insert(run);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Record the API's batch id and SUBMITTED in one update, retried - a record left PENDING
+     * without its batch id couldn't be polled
+     */
+    private boolean markSubmitted(InsightBatch batch, String batchId) {
+        Instant submittedAt = Instant.now();
+        for (int attempt = 1; attempt <= MAX_RECORD_ATTEMPTS; attempt++) {
+            try {
+                mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(batch.getId())),
+                    Update.update("batchId", batchId)
+                        .set("status", InsightBatch.SUBMITTED)
+                        .set("submittedAt", submittedAt),
+                    InsightBatch.class);
+                batch.setBatchId(batchId);
+                batch.setStatus(InsightBatch.SUBMITTED);
+                batch.setSubmittedAt(submittedAt);
+                return true;
+            } catch (Exception e) {
+                logger.warn("Could not mark insights batch {} submitted (attempt {}): {}",
+                    batch.getId(), attempt, e.getMessage());
+            }
+        }
+        return false;
+    }
+
+    private void saveTargets(String batchId, Map<String, List<String>> targets) {
+        List<InsightBatchTargets> chunks = new ArrayList<>();
+        Map<String, List<String>> chunk = new HashMap<>();
+        int chunkSize = 0;
+
+        for (Map.Entry<String, List<String>> entry : targets.entrySet()) {
+            for (String target : entry.getValue()) {
+                if (chunkSize == TARGETS_PER_CHUNK) {
+                    chunks.add(new InsightBatchTargets(batchId, chunk));
+                    chunk = new HashMap<>();
+                    chunkSize = 0;
+                }
+                chunk.computeIfAbsent(entry.getKey(), k -> new ArrayList<>()).add(target);
+                chunkSize++;
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(new InsightBatchTargets(batchId, chunk));
+        }
+        insightBatchTargetsRepository.saveAll(chunks);
+    }
+
+    private Map<String, List<String>> loadTargets(String batchId) {
+        Map<String, List<String>> targets = new HashMap<>();
+        for (InsightBatchTargets chunk : insightBatchTargetsRepository.findByBatchId(batchId)) {
+            chunk.getTargets().forEach((fingerprint, entries) ->
+                targets.computeIfAbsent(fingerprint, k -> new ArrayList<>()).addAll(entries));
+        }
+        return targets;
+    }
+
+    @Scheduled(fixedDelayString = "${insights.batch.poll-interval-ms:60000}",
+               initialDelayString = "${insights.batch.poll-interval-ms:60000}")
+    public void collectResults() {
+        if (!isApiConfigured()) {
+            return;
+        }
+
+        Instant leaseExpired = Instant.now().minusMillis(processingLeaseMs);
+        abandonStalePending(leaseExpired);
+
+        for (InsightBatch batch : insightBatchRepository.findClaimable(leaseExpired)) {
+            // Batches recorded before batchId existed were keyed by the API id
+            String batchId = batch.getBatchId() != null ? batch.getBatchId() : batch.getId();
+            try {
+                Map status = restTemplate.exchange(batchUrl + "/" + batchId, HttpMethod.GET,
+                    new HttpEntity<>(apiHeaders()), Map.class).getBody();
+                if (status == null || !"ended".equals(status.get("processing_status"))) {
+                    continue;
+                }
+
+                // Claim the batch so only one node imports it - unless that node's lease has lapsed
+                InsightBatch claimed = mongoTemplate.findAndModify(
+                    Query.query(Criteria.where("_id").is(batch.getId()).orOperator(
+                        Criteria.where("status").is(InsightBatch.SUBMITTED),
+                        Criteria.where("status").is(InsightBatch.PROCESSING).and("claimedAt").lt(leaseExpired),
+                        Criteria.where("status").is(InsightBatch.PROCESSING).and("claimedAt").is(null))),
+                    Update.update("status", InsightBatch.PROCESSING).set("claimedAt", Instant.now()),
+                    FindAndModifyOptions.options().returnNew(true),
+                    InsightBatch.class);
+                if (claimed == null) {
+                    continue;
+                }
+
+                importResults(claimed, (String) status.get("results_url"));
+            } catch (Exception e) {
+                logger.warn("Failed to check insights batch {}: {}", batchId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * A PENDING record with no batch id that is older than the lease belongs to a run that died
+     * between recording the batch and storing the API's answer. Fail it so it stops blocking
+     * new runs; whether the API accepted it can't be known from here.
+     */
+    private void abandonStalePending(Instant leaseExpired) {
+        for (InsightBatch stale : insightBatchRepository.findByStatusAndBatchIdIsNullAndCreatedAtBefore(
+                InsightBatch.PENDING, leaseExpired)) {
+            logger.error("Insights batch record {} was never marked submitted - failing it", stale.getId());
+            stale.setStatus(InsightBatch.FAILED);
+            stale.setCompletedAt(Instant.now());
+            insightBatchRepository.save(stale);
+            insightBatchTargetsRepository.deleteByBatchId(stale.getId());
+        }
+    }
+
+    /**
+     * Page through every account, keeping one pending prompt per fingerprint
+     */
+    private void collectPending(Map<String, AIInsightsService.PendingInsight> pending,
+                                Map<String, List<String>> targets) {
+        int page = 0;
+        Page<SocialAccount> accounts;
+
+        do {
+            accounts = socialAccountRepository.findAll(PageRequest.of(page++, PAGE_SIZE));
+
+            Set<String> userIds = accounts.stream()
+                .map(SocialAccount::getUserId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+            Map<String, User> users = new HashMap<>();
+            userRepository.findAllById(userIds).forEach(user -> users.put(user.getId(), user));
+
+            for (SocialAccount account : accounts) {
+                User user = users.get(account.getUserId());
+                if (user == null || account.getPlatform() == null) {
+                    continue;
+                }
+
+                List<String> goals = preferencesService.getPlatformGoals(user, account.getPlatform().key());
+                AIInsightsService.PendingInsight insight = aiInsightsService.pendingInsight(account, goals);
+                if (insight == null) {
+                    continue;
+                }
+
+                if (!pending.containsKey(insight.fingerprint) && pending.size() >= maxRequests) {
+                    continue;
+                }
+                pending.putIfAbsent(insight.fingerprint, insight);
+                targets.computeIfAbsent(insight.fingerprint, k -> new ArrayList<>())
+                    .add(account.getUserId() + ":" + account.getId());
+            }
+        } while (accounts.hasNext());
+    }
+
+    /**
+     * Stream the JSONL results into the insights cache and point each waiting account at its insight
+     */
+    private void importResults(InsightBatch batch, String resultsUrl) {
+        int[] counts = new int[2]; // succeeded, errored
+        Map<String, List<String>> targets = loadTargets(batch.getId());
+
+        try {
+            restTemplate.execute(resultsUrl, HttpMethod.GET,
+                request -> request.getHeaders().addAll(apiHeaders()),
+                response -> {
+                    try (BufferedReader reader = new BufferedReader(
+                            new InputStreamReader(response.getBody(), StandardCharsets.UTF_8))) {
+                        String line;
+                        while ((line = reader.readLine()) != null) {
+                            if (line.isBlank()) {
+                                continue;
+                            }
+                            if (importResult(targets, objectMapper.readTree(line))) {
+                                counts[0]++;
+                            } else {
+                                counts[1]++;
+                            }
+                        }
+                    }
+                    return null;
+                });
+            batch.setStatus(InsightBatch.COMPLETED);
+        } catch (Exception e) {
+            logger.error("Failed to import insights batch {}: {}", batch.getId(), e.getMessage());
+            batch.setStatus(InsightBatch.FAILED);
+        }
+
+        batch.setSucceededCount(counts[0]);
+        batch.setErroredCount(counts[1]);
+        batch.setCompletedAt(Instant.now());
+        insightBatchRepository.save(batch);
+        insightBatchTargetsRepository.deleteByBatchId(batch.getId());
+
+        logger.info("Insights batch {} finished: {} succeeded, {} errored", batch.getId(), counts[0], counts[1]);
+    }
+
+    private boolean importResult(Map<String, List<String>> targets, JsonNode line) {
+        String fingerprint = line.path("custom_id").asText(null);
+        JsonNode result = line.path("result");
+        String text = result.path("message").path("content").path(0).path("text").asText(null);
+
+        if (fingerprint == null || !"succeeded".equals(result.path("type").asText()) || text == null) {
+            return false;
+        }
+
+        insightsCache.put(fingerprint, text);
+        for (String target : targets.getOrDefault(fingerprint, List.of())) {
+            int separator = target.indexOf(':');
+            insightsCache.point(target.substring(0, separator), target.substring(separator + 1), fingerprint);
+        }
+        return true;
+    }
+
+    private HttpHeaders apiHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("x-api-key", claudeApiKey);
+        headers.set("anthropic-version", "2023-06-01");
+        return headers;
+    }
+
+    private boolean isApiConfigured() {
+        return claudeApiKey != null && !claudeApiKey.isEmpty() && !claudeApiKey.equals("placeholder");
+    }
+}
@@ -0,0 +1,222 @@
+package com.cliq24.backend.service;
+
+import com.cliq24.backend.model.InsightCacheEntry;
+import com.cliq24.backend.model.InsightPointer;
+import com.cliq24.backend.repository.InsightCacheRepository;
+import com.cliq24.backend.repository.InsightPointerRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Two-level cache for generated insights, keyed by a fingerprint of the prompt inputs
+ * (see AIInsightsService), so accounts with the same inputs share one insight.
+ *
+ * L1 is a bounded in-process Caffeine cache. L2 is the insights_cache collection in MongoDB,
+ * so insights survive deploys and are shared between nodes; it can be turned off with
+ * insights.cache.mongo.enabled=false. Entries never expire unless insights.cache.ttl-minutes
+ * is set - unchanged inputs keep reusing the same insight.
+ *
+ * Each account also keeps a pointer to the fingerprint it was last served, which is what
+ * refresh and user-wide clears act on.
+ */
+@Component
+public class InsightsCache {
+
+    private static final Logger logger = LogManager.getLogger(InsightsCache.class);
+
+    private final InsightCacheRepository insightCacheRepository;
+    private final InsightPointerRepository insightPointerRepository;
+    private final MongoTemplate mongoTemplate;
+    private final Duration ttl;
+    private final boolean mongoEnabled;
+    private final Cache<String, CachedInsight> cache;
+
+    // userId -> (accountId -> fingerprint), so clearing a user touches only that user's entries
+    private final Map<String, Map<String, String>> pointersByUser = new ConcurrentHashMap<>();
+
+    @Autowired
+    public InsightsCache(InsightCacheRepository insightCacheRepository,
+                         InsightPointerRepository insightPointerRepository,
+                         MongoTemplate mongoTemplate,
+                         @Value("${insights.cache.max-size:10000}") long maxSize,
+                         @Value("${insights.cache.ttl-minutes:0}") long ttlMinutes,
+                         @Value("${insights.cache.mongo.enabled:true}") boolean mongoEnabled) {
+        this.insightCacheRepository = insightCacheRepository;
+        this.insightPointerRepository = insightPointerRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.ttl = ttlMinutes > 0 ? Duration.ofMinutes(ttlMinutes) : null;
+        this.mongoEnabled = mongoEnabled;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            // Entries loaded from L2 keep their original expiry rather than getting a fresh TTL
+            .expireAfter(new Expiry<String, CachedInsight>() {
+                @Override
+                public long expireAfterCreate(String key, CachedInsight value, long currentTime) {
+                    if (value.expiresAt == null) {
+                        return Long.MAX_VALUE;
+                    }
+                    return Math.max(0, Duration.between(Instant.now(), value.expiresAt).toNanos());
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, CachedInsight value, long currentTime, long currentDuration) {
+                    return expireAfterCreate(key, value, currentTime);
+                }
+
+                @Override
+                public long expireAfterRead(String key, CachedInsight value, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        if (!mongoEnabled) {
+            return;
+        }
+        try {
+            mongoTemplate.indexOps(InsightCacheEntry.class).ensureIndex(
+                new Index().on("expiresAt", Sort.Direction.ASC).expire(Duration.ZERO).named("expires_ttl"));
+            mongoTemplate.indexOps(InsightPointer.class).ensureIndex(
+                new Index().on("userId", Sort.Direction.ASC).named("user"));
+        } catch (Exception e) {
+            logger.error("Could not create insights cache indexes: {}", e.getMessage());
+        }
+    }
+
+    public Optional<String> get(String fingerprint) {
+        CachedInsight cached = cache.getIfPresent(fingerprint);
+        if (cached != null) {
+            return Optional.of(cached.insight);
+        }
+        if (!mongoEnabled) {
+            return Optional.empty();
+        }
+
+        try {
+            // TTL index deletion is lazy (about once a minute), so check expiry ourselves
+            Optional<InsightCacheEntry> entry = insightCacheRepository.findById(fingerprint)
+                .filter(e -> e.getExpiresAt() == null || e.getExpiresAt().isAfter(Instant.now()));
+            entry.ifPresent(e -> cache.put(fingerprint, new CachedInsight(e.getInsight(), e.getExpiresAt())));
+            return entry.map(InsightCacheEntry::getInsight);
+        } catch (Exception e) {
+            logger.warn("Insights L2 read failed for {}: {}", fingerprint, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public void put(String fingerprint, String insight) {
+        Instant now = Instant.now();
+        Instant expiresAt = ttl != null ? now.plus(ttl) : null;
+        cache.put(fingerprint, new CachedInsight(insight, expiresAt));
+
+        if (!mongoEnabled) {
+            return;
+        }
+        try {
+            InsightCacheEntry entry = new InsightCacheEntry();
+            entry.setId(fingerprint);
+            entry.setInsight(insight);
+            entry.setCreatedAt(now);
+            entry.setExpiresAt(expiresAt);
+            insightCacheRepository.save(entry);
+        } catch (Exception e) {
+            logger.warn("Insights L2 write failed for {}: {}", fingerprint, e.getMessage());
+        }
+    }
+
+    /**
+     * Record that an account was served the insight for this fingerprint
+     */
+    public void point(String userId, String accountId, String fingerprint) {
+        String previous = pointersByUser.computeIfAbsent(userId, k -> new ConcurrentHashMap<>())
+            .put(accountId, fingerprint);
+        if (!mongoEnabled || fingerprint.equals(previous)) {
+            return;
+        }
+        try {
+            InsightPointer pointer = new InsightPointer();
+            pointer.setId(userId + ":" + accountId);
+            pointer.setUserId(userId);
+            pointer.setAccountId(accountId);
+            pointer.setFingerprint(fingerprint);
+            pointer.setUpdatedAt(Instant.now());
+            insightPointerRepository.save(pointer);
+        } catch (Exception e) {
+            logger.warn("Insights pointer write failed for account {}: {}", accountId, e.getMessage());
+        }
+    }
+
+    /**
+     * Drop the insight an account was last served, so the next request regenerates it
+     */
+    public void evict(String userId, String accountId) {
+        Map<String, String> pointers = pointersByUser.get(userId);
+        String fingerprint = pointers != null ? pointers.remove(accountId) : null;
+
+        if (mongoEnabled) {
+            String pointerId = userId + ":" + accountId;
+            if (fingerprint == null) {
+                fingerprint = insightPointerRepository.findById(pointerId)
+                    .map(InsightPointer::getFingerprint)
+                    .orElse(null);
+            }
+            insightPointerRepository.deleteById(pointerId);
+        }
+
+        if (fingerprint != null) {
+            evictFingerprint(fingerprint);
+        }
+    }
+
+    /**
+     * Drop every insight the user's accounts were served - proportional to that user's entries only
+     */
+    public void evictUser(String userId) {
+        Map<String, String> pointers = pointersByUser.remove(userId);
+        if (pointers != null) {
+            pointers.values().forEach(this::evictFingerprint);
+        }
+        if (mongoEnabled) {
+            insightPointerRepository.findByUserId(userId)
+                .forEach(pointer -> evictFingerprint(pointer.getFingerprint()));
+            insightPointerRepository.deleteByUserId(userId);
+        }
+    }
+
+    private void evictFingerprint(String fingerprint) {
+        cache.invalidate(fingerprint);
+        if (mongoEnabled) {
+            insightCacheRepository.deleteById(fingerprint);
+        }
+    }
+
+    private static class CachedInsight {
+        private final String insight;
+        private final Instant expiresAt;
+
+        CachedInsight(String insight, Instant expiresAt) {
+            this.insight = insight;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.cliq24.backend.service;
+
+import com.cliq24.backend.model.MetricsSnapshot;
+import com.cliq24.backend.model.SocialAccount;
+import com.cliq24.backend.repository.MetricsSnapshotRepository;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Append-only history of account metrics. Every sync adds a snapshot; charts read
+ * raw points or hourly/daily/weekly rollups over a time range.
+ */
+@Service
+public class MetricsHistoryService {
+
+    private static final Logger logger = LogManager.getLogger(MetricsHistoryService.class);
+
+    private static final String COLLECTION = "metrics_history";
+
+    private final MetricsSnapshotRepository metricsSnapshotRepository;
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${metrics.history.retention-days:400}")
+    private long retentionDays;
+
+    @Value("${metrics.history.max-range-days:366}")
+    private long maxRangeDays;
+
+    @Autowired
+    public MetricsHistoryService(MetricsSnapshotRepository metricsSnapshotRepository, MongoTemplate mongoTemplate) {
+        this.metricsSnapshotRepository = metricsSnapshotRepository;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Create the time-series collection on first start. Spring's auto index creation
+     * won't create time-series collections, and the retention period has to be set at creation.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureCollection() {
+        try {
+            if (!mongoTemplate.collectionExists(COLLECTION)) {
+                mongoTemplate.getDb().runCommand(new Document("create", COLLECTION)
+                    .append("timeseries", new Document("timeField", "t")
+                        .append("metaField", "a")
+                        .append("granularity", "hours"))
+                    .append("expireAfterSeconds", retentionDays * 24 * 60 * 60));
+                logger.info("Created time-series collection {} ({} day retention)", COLLECTION, retentionDays);
+            }
+            // Range reads are always for one account, newest points last
+            mongoTemplate.indexOps(COLLECTION).ensureIndex(
+                new Index().on("a", Sort.Direction.ASC).on("t", Sort.Direction.ASC).named("account_time"));
+        } catch (Exception e) {
+            logger.error("Could not initialise {} collection: {}", COLLECTION, e.getMessage());
+        }
+    }
+
+    /**
+     * Append the account's current metrics. History is best-effort - a failed write is
+     * logged and never fails the sync that produced the metrics.
+     */
+    public void record(SocialAccount account) {
+        if (account.getId() == null || account.getMetrics() == null) {
+            return;
+        }
+        try {
+            metricsSnapshotRepository.insert(MetricsSnapshot.of(account.getId(), account.getMetrics(), Instant.now()));
+        } catch (Exception e) {
+            logger.warn("Failed to record metrics history for account {}: {}", account.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Points for [from, to] at the given resolution: raw, hourly, daily or weekly.
+     * Rollups keep the last value in each bucket, since every metric is a running total.
+     */
+    public List<MetricsSnapshot> getHistory(String accountId, Instant from, Instant to, String resolution) {
+        if (from.isAfter(to)) {
+            throw new RuntimeException("Invalid range: from is after to");
+        }
+        if (ChronoUnit.DAYS.between(from, to) > maxRangeDays) {
+            throw new RuntimeException("Range too large: at most " + maxRangeDays + " days");
+        }
+
+        String unit = bucketUnit(resolution);
+        if (unit == null) {
+            return metricsSnapshotRepository.findByAccountIdAndTimestampBetweenOrderByTimestampAsc(accountId, from, to);
+        }
+
+        Document bucket = new Document("$dateTrunc", new Document("date", "$t")
+            .append("unit", unit)
+            .append("startOfWeek", "monday"));
+
+        AggregationOperation group = context -> new Document("$group", new Document("_id", bucket)
+            .append("c", new Document("$last", "$c"))
+            .append("p", new Document("$last", "$p"))
+            .append("pr", new Document("$last", "$pr"))
+            .append("nm", new Document("$last", "$nm"))
+            .append("es", new Document("$last", "$es")));
+
+        AggregationOperation project = context -> new Document("$project", new Document("_id", 0)
+            .append("a", accountId)
+            .append("t", "$_id")
+            .append("c", 1).append("p", 1).append("pr", 1).append("nm", 1).append("es", 1));
+
+        Aggregation aggregation = Aggregation.newAggregation(
+            Aggregation.match(Criteria.where("a").is(accountId).and("t").gte(from).lte(to)),
+            Aggregation.sort(Sort.Direction.ASC, "t"),
+            group,
+            Aggregation.sort(Sort.Direction.ASC, "_id"),
+            project
+        );
+
+        return mongoTemplate.aggregate(aggregation, COLLECTION, MetricsSnapshot.class).getMappedResults();
+    }
+
+    private String bucketUnit(String resolution) {
+        switch (resolution == null ? "raw" : resolution.toLowerCase()) {
+            case "raw":
+                return null;
+            case "hourly":
+                return "hour";
+            case "daily":
+                return "day";
+            case "weekly":
+                return "week";
+            default:
+                throw new RuntimeException("Unsupported resolution: " + resolution);
+        }
+    }
+}
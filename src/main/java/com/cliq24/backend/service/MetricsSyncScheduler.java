@@ -0,0 +1,186 @@
+package com.cliq24.backend.service;
+
+import com.cliq24.backend.model.SocialAccount;
+import com.cliq24.backend.model.User;
+import com.cliq24.backend.platforms.PlatformRateLimitException;
+import com.cliq24.backend.platforms.RateLimitGovernor;
+import com.cliq24.backend.repository.SocialAccountRepository;
+import com.cliq24.backend.repository.UserRepository;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Refreshes stale social account metrics in the background so dashboard loads
+ * only ever read precomputed data from MongoDB.
+ */
+@Service
+@ConditionalOnProperty(name = "sync.scheduler.enabled", havingValue = "true", matchIfMissing = true)
+public class MetricsSyncScheduler {
+
+    private static final Logger logger = LogManager.getLogger(MetricsSyncScheduler.class);
+
+    private final SocialAccountRepository socialAccountRepository;
+    private final UserRepository userRepository;
+    private final SocialAccountService socialAccountService;
+    private final SubscriptionService subscriptionService;
+    private final ThreadPoolTaskExecutor metricsSyncExecutor;
+    private final RateLimitGovernor rateLimitGovernor;
+
+    @Value("${sync.scheduler.batch-size:25}")
+    private int batchSize;
+
+    @Value("${sync.scheduler.max-accounts-per-run:500}")
+    private int maxAccountsPerRun;
+
+    @Value("${sync.scheduler.max-candidates-scanned:5000}")
+    private int maxCandidatesScanned;
+
+    @Value("${sync.scheduler.stale-after-minutes.free:360}")
+    private long freeStaleAfterMinutes;
+
+    @Value("${sync.scheduler.stale-after-minutes.premium:60}")
+    private long premiumStaleAfterMinutes;
+
+    @Autowired
+    public MetricsSyncScheduler(SocialAccountRepository socialAccountRepository,
+                                UserRepository userRepository,
+                                SocialAccountService socialAccountService,
+                                SubscriptionService subscriptionService,
+                                @Qualifier("metricsSyncExecutor") ThreadPoolTaskExecutor metricsSyncExecutor,
+                                RateLimitGovernor rateLimitGovernor) {
+        this.socialAccountRepository = socialAccountRepository;
+        this.userRepository = userRepository;
+        this.socialAccountService = socialAccountService;
+        this.subscriptionService = subscriptionService;
+        this.metricsSyncExecutor = metricsSyncExecutor;
+        this.rateLimitGovernor = rateLimitGovernor;
+    }
+
+    @Scheduled(fixedDelayString = "${sync.scheduler.interval-ms:300000}",
+               initialDelayString = "${sync.scheduler.initial-delay-ms:60000}")
+    public void syncStaleAccounts() {
+        LocalDateTime now = LocalDateTime.now();
+
+        // Premium has the shorter window, so anything newer than this is fresh for every tier
+        LocalDateTime cutoff = now.minusMinutes(Math.min(freeStaleAfterMinutes, premiumStaleAfterMinutes));
+        List<SocialAccount> candidates = collectCandidates(cutoff);
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        Map<String, Boolean> premiumByUser = loadPremiumFlags(candidates);
+
+        // Most overdue first: age relative to the tier's window, so premium accounts win ties
+        List<SocialAccount> stale = candidates.stream()
+            .filter(account -> overdueRatio(account, premiumByUser, now) >= 1.0)
+            .sorted(Comparator.comparingDouble(
+                (SocialAccount account) -> overdueRatio(account, premiumByUser, now)).reversed())
+            .collect(Collectors.toCollection(ArrayList::new));
+
+        if (stale.isEmpty()) {
+            return;
+        }
+
+        // Leave quota headroom for interactive requests - deferred accounts stay stale and come back next run
+        int before = stale.size();
+        stale.removeIf(account -> !rateLimitGovernor.hasBackgroundCapacity(account.getPlatform().key(), account.getAccessToken()));
+        int deferred = before - stale.size();
+        if (stale.isEmpty()) {
+            logger.info("Background sync deferred all {} stale accounts - platform quotas low", deferred);
+            return;
+        }
+
+        // Cap only after ranking, so a full run drops the least overdue accounts rather than premium ones
+        if (stale.size() > maxAccountsPerRun) {
+            logger.info("Background sync capped at {} of {} stale accounts", maxAccountsPerRun, stale.size());
+            stale = new ArrayList<>(stale.subList(0, maxAccountsPerRun));
+        }
+
+        logger.info("Background sync starting for {} stale accounts ({} deferred for quota)", stale.size(), deferred);
+        AtomicInteger synced = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+
+        for (int from = 0; from < stale.size(); from += batchSize) {
+            List<SocialAccount> batch = stale.subList(from, Math.min(from + batchSize, stale.size()));
+
+            CompletableFuture<?>[] futures = batch.stream()
+                .map(account -> CompletableFuture.runAsync(() -> {
+                    try {
+                        socialAccountService.refreshMetrics(account);
+                        synced.incrementAndGet();
+                    } catch (PlatformRateLimitException e) {
+                        failed.incrementAndGet();
+                        logger.debug("Background sync for account {} hit the {} quota", account.getId(), e.getPlatform());
+                    } catch (Exception e) {
+                        failed.incrementAndGet();
+                        logger.warn("Background sync failed for account {}: {}", account.getId(), e.getMessage());
+                    }
+                }, metricsSyncExecutor))
+                .toArray(CompletableFuture[]::new);
+
+            // Finish each batch before starting the next so a slow platform cannot flood the pool
+            CompletableFuture.allOf(futures).join();
+        }
+
+        logger.info("Background sync finished: {} synced, {} failed", synced.get(), failed.get());
+    }
+
+    /**
+     * Read pass over stale accounts, oldest first. Nothing is written until this completes,
+     * so page boundaries don't shift under us as lastSynced gets updated. Bounded by
+     * sync.scheduler.max-candidates-scanned; the per-run cap is applied later, after ranking.
+     */
+    private List<SocialAccount> collectCandidates(LocalDateTime cutoff) {
+        List<SocialAccount> candidates = new ArrayList<>();
+        int page = 0;
+        Slice<SocialAccount> slice;
+
+        do {
+            slice = socialAccountRepository.findByLastSyncedBeforeOrLastSyncedIsNull(
+                cutoff, PageRequest.of(page++, batchSize, Sort.by(Sort.Direction.ASC, "lastSynced")));
+            candidates.addAll(slice.getContent());
+        } while (slice.hasNext() && candidates.size() < maxCandidatesScanned);
+
+        return candidates;
+    }
+
+    private Map<String, Boolean> loadPremiumFlags(List<SocialAccount> accounts) {
+        Set<String> userIds = accounts.stream()
+            .map(SocialAccount::getUserId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+
+        Map<String, Boolean> premiumByUser = new HashMap<>();
+        for (User user : userRepository.findAllById(userIds)) {
+            premiumByUser.put(user.getId(), subscriptionService.isPremium(user));
+        }
+        return premiumByUser;
+    }
+
+    private double overdueRatio(SocialAccount account, Map<String, Boolean> premiumByUser, LocalDateTime now) {
+        if (account.getLastSynced() == null) {
+            return Double.MAX_VALUE; // Never synced - always first
+        }
+        boolean premium = premiumByUser.getOrDefault(account.getUserId(), false);
+        long windowMinutes = premium ? premiumStaleAfterMinutes : freeStaleAfterMinutes;
+        long ageMinutes = Duration.between(account.getLastSynced(), now).toMinutes();
+        return (double) ageMinutes / Math.max(1, windowMinutes);
+    }
+}
@@ -15,6 +15,7 @@ public class PreferencesService {
     private static final Logger logger = LogManager.getLogger(PreferencesService.class);
 
     private final UserRepository userRepository;
+    private final UserCache userCache;
 
     // Available goals for each platform
     public static final List<String> AVAILABLE_GOALS = Arrays.asList(
@@ -27,17 +28,25 @@ public class PreferencesService {
     );
 
     @Autowired
-    public PreferencesService(UserRepository userRepository) {
+    public PreferencesService(UserRepository userRepository, UserCache userCache) {
         this.userRepository = userRepository;
+        this.userCache = userCache;
     }
 
     /**
      * Get user's goals for a specific platform
      */
     public List<String> getPlatformGoals(String userId, String platform) {
-        User user = userRepository.findById(userId)
+        User user = userCache.findById(userId)
             .orElseThrow(() -> new RuntimeException("User not found"));
 
+        return getPlatformGoals(user, platform);
+    }
+
+    /**
+     * Get goals for a platform from an already-loaded user
+     */
+    public List<String> getPlatformGoals(User user, String platform) {
         Map<String, List<String>> platformGoals = user.getPlatformGoals();
         if (platformGoals == null || !platformGoals.containsKey(platform.toLowerCase())) {
             // Return default: comprehensive view if no preferences set
@@ -51,7 +60,7 @@ public class PreferencesService {
      * Get all platform goals for a user
      */
     public Map<String, List<String>> getAllPlatformGoals(String userId) {
-        User user = userRepository.findById(userId)
+        User user = userCache.findById(userId)
             .orElseThrow(() -> new RuntimeException("User not found"));
 
         Map<String, List<String>> platformGoals = user.getPlatformGoals();
@@ -80,7 +89,7 @@ public class PreferencesService {
         }
 
         platformGoals.put(platform.toLowerCase(), goals);
-        userRepository.save(user);
+        userCache.save(user);
 
         logger.info("Updated goals for user {} platform {}: {}", userId, platform, goals);
     }
@@ -109,7 +118,7 @@ public class PreferencesService {
         }
 
         user.setPlatformGoals(normalizedGoals);
-        userRepository.save(user);
+        userCache.save(user);
 
         logger.info("Updated all platform goals for user {}: {}", userId, normalizedGoals);
     }
@@ -118,7 +127,7 @@ public class PreferencesService {
      * Check if user has set preferences for a platform
      */
     public boolean hasPreferences(String userId, String platform) {
-        User user = userRepository.findById(userId)
+        User user = userCache.findById(userId)
             .orElseThrow(() -> new RuntimeException("User not found"));
 
         Map<String, List<String>> platformGoals = user.getPlatformGoals();
@@ -0,0 +1,178 @@
+package com.cliq24.backend.service;
+
+import com.cliq24.backend.model.OperationLease;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent runs of the same operation. Callers on this node that arrive while
+ * a run is in flight join it and get its result. Across replicas a lease document in
+ * operation_leases decides who runs; a replica that loses waits for the lease to be released
+ * and then reads the outcome (e.g. the saved account) instead of repeating the work.
+ */
+@Component
+public class SingleFlight {
+
+    private static final Logger logger = LogManager.getLogger(SingleFlight.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final String owner = UUID.randomUUID().toString();
+
+    @Value("${singleflight.lease-ms:60000}")
+    private long leaseMs;
+
+    @Value("${singleflight.poll-ms:250}")
+    private long pollMs;
+
+    @Value("${singleflight.mongo.enabled:true}")
+    private boolean mongoEnabled;
+
+    @Autowired
+    public SingleFlight(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        if (!mongoEnabled) {
+            return;
+        }
+        try {
+            // Clears out leases left behind by a crashed replica
+            mongoTemplate.indexOps(OperationLease.class).ensureIndex(
+                new Index().on("expiresAt", Sort.Direction.ASC).expire(Duration.ZERO).named("expires_ttl"));
+        } catch (Exception e) {
+            logger.error("Could not create operation lease index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Run work once per key across concurrent callers.
+     *
+     * @param key        operation key, e.g. sync:&lt;accountId&gt;
+     * @param work       the operation itself
+     * @param afterRemote result to return when another replica ran the operation
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Supplier<T> work, Supplier<T> afterRemote) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            logger.debug("Joining in-flight operation {}", key);
+            return (T) await(existing);
+        }
+
+        try {
+            T result = runWithLease(key, work, afterRemote);
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private <T> T runWithLease(String key, Supplier<T> work, Supplier<T> afterRemote) {
+        if (!mongoEnabled) {
+            return work.get();
+        }
+
+        boolean acquired;
+        try {
+            acquired = tryAcquire(key);
+        } catch (Exception e) {
+            // The lease is an optimisation - if Mongo can't answer, just do the work
+            logger.warn("Operation lease check failed for {}: {}", key, e.getMessage());
+            return work.get();
+        }
+
+        if (acquired) {
+            try {
+                return work.get();
+            } finally {
+                release(key);
+            }
+        }
+
+        logger.debug("Operation {} is running on another replica - waiting", key);
+        waitForRelease(key);
+        return afterRemote.get();
+    }
+
+    /**
+     * Take the lease if nobody holds it or the holder's lease has expired. The upsert only
+     * matches a stale lease, so a live one makes it collide on _id instead.
+     */
+    private boolean tryAcquire(String key) {
+        Instant now = Instant.now();
+        Query stale = new Query(Criteria.where("_id").is(key).and("expiresAt").lt(now));
+        Update update = new Update()
+            .set("owner", owner)
+            .set("acquiredAt", now)
+            .set("expiresAt", now.plusMillis(leaseMs));
+        try {
+            mongoTemplate.findAndModify(stale, update,
+                FindAndModifyOptions.options().upsert(true).returnNew(true), OperationLease.class);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private void release(String key) {
+        try {
+            mongoTemplate.remove(new Query(Criteria.where("_id").is(key).and("owner").is(owner)), OperationLease.class);
+        } catch (Exception e) {
+            logger.warn("Could not release operation lease {}: {}", key, e.getMessage());
+        }
+    }
+
+    private void waitForRelease(String key) {
+        long deadline = System.currentTimeMillis() + leaseMs;
+        try {
+            while (System.currentTimeMillis() < deadline && mongoTemplate.exists(
+                    new Query(Criteria.where("_id").is(key).and("expiresAt").gt(Instant.now())), OperationLease.class)) {
+                Thread.sleep(pollMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted waiting for " + key);
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
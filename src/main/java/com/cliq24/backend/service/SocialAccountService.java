@@ -3,13 +3,22 @@ package com.cliq24.backend.service;
 import com.cliq24.backend.dto.SocialAccountDTO;
 import com.cliq24.backend.mapper.SocialAccountMapper;
 import com.cliq24.backend.model.AccountMetrics;
+import com.cliq24.backend.model.MetricsSnapshot;
+import com.cliq24.backend.model.Platform;
 import com.cliq24.backend.model.SocialAccount;
+import com.cliq24.backend.model.UserDashboard;
 import com.cliq24.backend.platforms.*;
 import com.cliq24.backend.repository.SocialAccountRepository;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -19,9 +28,14 @@ import org.springframework.web.client.RestTemplate;
 
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -40,8 +54,14 @@ public class SocialAccountService {
     private final YouTubeService youTubeService;
     private final SnapchatService snapchatService;
     private final SubscriptionService subscriptionService;
-    private final com.cliq24.backend.repository.UserRepository userRepository;
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final UserCache userCache;
+    private final PlatformCallExecutor platformCallExecutor;
+    private final MetricsHistoryService metricsHistoryService;
+    private final DashboardService dashboardService;
+    private final SingleFlight singleFlight;
+    private final Environment environment;
+    private final MongoTemplate mongoTemplate;
+    private final RestTemplate restTemplate;
 
     @Value("${spring.security.oauth2.client.registration.facebook.client-id}")
     private String facebookAppId;
@@ -100,7 +120,14 @@ public class SocialAccountService {
                                YouTubeService youTubeService,
                                SnapchatService snapchatService,
                                SubscriptionService subscriptionService,
-                               com.cliq24.backend.repository.UserRepository userRepository) {
+                               UserCache userCache,
+                               PlatformCallExecutor platformCallExecutor,
+                               PlatformHttpClients platformHttpClients,
+                               MetricsHistoryService metricsHistoryService,
+                               DashboardService dashboardService,
+                               SingleFlight singleFlight,
+                               Environment environment,
+                               MongoTemplate mongoTemplate) {
         this.socialAccountRepository = socialAccountRepository;
         this.socialAccountMapper = socialAccountMapper;
         this.authService = authService;
@@ -112,15 +139,22 @@ public class SocialAccountService {
         this.youTubeService = youTubeService;
         this.snapchatService = snapchatService;
         this.subscriptionService = subscriptionService;
-        this.userRepository = userRepository;
+        this.userCache = userCache;
+        this.platformCallExecutor = platformCallExecutor;
+        this.metricsHistoryService = metricsHistoryService;
+        this.dashboardService = dashboardService;
+        this.singleFlight = singleFlight;
+        this.environment = environment;
+        this.mongoTemplate = mongoTemplate;
+        this.restTemplate = platformHttpClients.forPlatform("oauth");
     }
 
     /**
      * Check if user can add a new social account based on subscription tier
      */
-    private void checkAccountLimit(String userId, String platform) {
+    private void checkAccountLimit(String userId, Platform platform) {
         // Check if user is updating an existing account
-        boolean isUpdate = socialAccountRepository.findByUserIdAndPlatform(userId, platform.toLowerCase()).isPresent();
+        boolean isUpdate = socialAccountRepository.findByUserIdAndPlatform(userId, platform).isPresent();
         if (isUpdate) {
             return; // Allow updates to existing accounts
         }
@@ -129,7 +163,7 @@ public class SocialAccountService {
         long currentAccountCount = socialAccountRepository.countByUserId(userId);
 
         // Get user and check limit
-        com.cliq24.backend.model.User user = userRepository.findById(userId)
+        com.cliq24.backend.model.User user = userCache.findById(userId)
             .orElseThrow(() -> new RuntimeException("User not found"));
 
         if (!subscriptionService.canAddAccount(user, (int) currentAccountCount)) {
@@ -144,20 +178,16 @@ public class SocialAccountService {
     public List<SocialAccountDTO> getUserAccounts(String authHeader) {
         // Removed excessive logging - called on every dashboard load
         String userId = authService.validateAndExtractUserId(authHeader);
-        List<SocialAccount> accounts = socialAccountRepository.findByUserId(userId);
-
-        return accounts.stream()
-                .map(socialAccountMapper::toDTO)
-                .collect(Collectors.toList());
+        return dashboardService.getDashboard(userId).getAccounts();
     }
 
     public List<SocialAccountDTO> getUserAccountsByUserId(String userId) {
-        // Removed excessive logging - called frequently
-        List<SocialAccount> accounts = socialAccountRepository.findByUserId(userId);
+        // Hot path - served from the precomputed dashboard document
+        return dashboardService.getDashboard(userId).getAccounts();
+    }
 
-        return accounts.stream()
-                .map(socialAccountMapper::toDTO)
-                .collect(Collectors.toList());
+    public UserDashboard getDashboardByUserId(String userId) {
+        return dashboardService.getDashboard(userId);
     }
 
     public SocialAccount getAccountById(String accountId) {
@@ -211,9 +241,11 @@ public class SocialAccountService {
 
         // For now, create a placeholder account
         // In production, this would exchange the code for access tokens via OAuth
-        SocialAccount account = new SocialAccount();
+        Platform accountPlatform = Platform.from(platform);
+        SocialAccount account = socialAccountRepository.findByUserIdAndPlatform(userId, accountPlatform)
+            .orElseGet(SocialAccount::new);
         account.setUserId(userId);
-        account.setPlatform(platform.toLowerCase());
+        account.setPlatform(accountPlatform);
         account.setPlatformUserId("placeholder_" + System.currentTimeMillis());
         account.setUsername("user_" + platform);
         account.setAccessToken("encrypted_access_token");
@@ -230,9 +262,11 @@ public class SocialAccountService {
 
         // For now, create a placeholder account
         // In production, this would exchange the code for access tokens via OAuth
-        SocialAccount account = new SocialAccount();
+        Platform accountPlatform = Platform.from(platform);
+        SocialAccount account = socialAccountRepository.findByUserIdAndPlatform(userId, accountPlatform)
+            .orElseGet(SocialAccount::new);
         account.setUserId(userId);
-        account.setPlatform(platform.toLowerCase());
+        account.setPlatform(accountPlatform);
         account.setPlatformUserId("placeholder_" + System.currentTimeMillis());
         account.setUsername("user_" + platform);
         account.setAccessToken("encrypted_access_token");
@@ -260,42 +294,24 @@ public class SocialAccountService {
             throw new RuntimeException("Unauthorized");
         }
 
-        // Sync metrics based on platform
-        switch (account.getPlatform().toLowerCase()) {
-            case "facebook":
-                account.setMetrics(facebookService.syncMetrics(account));
-                break;
-            case "instagram":
-                account.setMetrics(instagramService.syncMetrics(account));
-                break;
-            case "twitter":
-                account.setMetrics(twitterService.syncMetrics(account));
-                break;
-            case "linkedin":
-                account.setMetrics(linkedInService.syncMetrics(account));
-                break;
-            case "tiktok":
-                account.setMetrics(tikTokService.syncMetrics(account));
-                break;
-            case "youtube":
-                account.setMetrics(youTubeService.syncMetrics(account));
-                break;
-            case "snapchat":
-                account.setMetrics(snapchatService.syncMetrics(account));
-                break;
-            default:
-                logger.warn("Unsupported platform: {}", account.getPlatform());
-                throw new RuntimeException("Unsupported platform: " + account.getPlatform());
+        if (isFresh(account)) {
+            return socialAccountMapper.toDTO(account);
         }
-
-        account.setLastSynced(LocalDateTime.now());
-        SocialAccount updatedAccount = socialAccountRepository.save(account);
+        SocialAccount updatedAccount = refreshMetrics(account);
 
         // Removed excessive info logging - sync can happen frequently
         return socialAccountMapper.toDTO(updatedAccount);
     }
 
     public SocialAccountDTO syncMetricsByUserId(String accountId, String userId) {
+        return syncMetricsByUserId(accountId, userId, false);
+    }
+
+    /**
+     * Sync one account. Unless force is set, an account synced within its freshness window
+     * (see isFresh) is returned as stored without calling the platform.
+     */
+    public SocialAccountDTO syncMetricsByUserId(String accountId, String userId, boolean force) {
         // Removed excessive info logging - sync can happen frequently
 
         SocialAccount account = socialAccountRepository.findById(accountId)
@@ -309,41 +325,194 @@ public class SocialAccountService {
             throw new RuntimeException("Unauthorized");
         }
 
-        // Sync metrics based on platform
-        switch (account.getPlatform().toLowerCase()) {
-            case "facebook":
-                account.setMetrics(facebookService.syncMetrics(account));
-                break;
-            case "instagram":
-                account.setMetrics(instagramService.syncMetrics(account));
-                break;
-            case "twitter":
-                account.setMetrics(twitterService.syncMetrics(account));
-                break;
-            case "linkedin":
-                account.setMetrics(linkedInService.syncMetrics(account));
-                break;
-            case "tiktok":
-                account.setMetrics(tikTokService.syncMetrics(account));
-                break;
-            case "youtube":
-                account.setMetrics(youTubeService.syncMetrics(account));
-                break;
-            case "snapchat":
-                account.setMetrics(snapchatService.syncMetrics(account));
-                break;
-            default:
-                logger.warn("Unsupported platform: {}", account.getPlatform());
-                throw new RuntimeException("Unsupported platform: " + account.getPlatform());
+        if (!force && isFresh(account)) {
+            logger.debug("Account {} synced at {} - within freshness window", accountId, account.getLastSynced());
+            return socialAccountMapper.toDTO(account);
         }
 
-        account.setLastSynced(LocalDateTime.now());
-        SocialAccount updatedAccount = socialAccountRepository.save(account);
+        SocialAccount updatedAccount;
+        try {
+            updatedAccount = refreshMetrics(account);
+        } catch (PlatformApiException e) {
+            // Platform down or circuit open - answer with the last known metrics, marked stale
+            logger.warn("Serving stale metrics for account {}: {}", accountId, e.getMessage());
+            account.setMetricsStale(true);
+            return socialAccountMapper.toDTO(account);
+        }
 
         logger.info("Successfully synced metrics for account {}", accountId);
         return socialAccountMapper.toDTO(updatedAccount);
     }
 
+    /**
+     * Sync every account the user owns in parallel. Wall-clock time is the slowest platform,
+     * and accounts that fail or time out are reported alongside the ones that succeeded.
+     */
+    public Map<String, Object> syncAllByUserId(String userId) {
+        List<SocialAccount> accounts = socialAccountRepository.findByUserId(userId);
+
+        // What each account looked like before the refresh. A timed-out refresh keeps running and
+        // may still change the entity, so failure entries are built from this copy instead.
+        Map<String, SocialAccountDTO> before = new HashMap<>();
+        Map<SocialAccount, CompletableFuture<SocialAccount>> pending = new LinkedHashMap<>();
+        for (SocialAccount account : accounts) {
+            before.put(account.getId(), socialAccountMapper.toDTO(account));
+            // refreshMetrics goes through platformCallExecutor.call itself - submitting it via submit()
+            // would nest a second breaker pass and take a second permit
+            pending.put(account, platformCallExecutor.supplyAsync(() -> refreshMetrics(account)));
+        }
+
+        List<SocialAccountDTO> synced = new ArrayList<>();
+        List<Map<String, Object>> failures = new ArrayList<>();
+
+        for (Map.Entry<SocialAccount, CompletableFuture<SocialAccount>> entry : pending.entrySet()) {
+            SocialAccountDTO previous = before.get(entry.getKey().getId());
+            try {
+                synced.add(socialAccountMapper.toDTO(entry.getValue().join()));
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                String reason = cause instanceof TimeoutException ? "Timed out" : cause.getMessage();
+                logger.warn("Sync all: {} account {} failed: {}", previous.getPlatform(), previous.getId(), reason);
+
+                Map<String, Object> failure = new HashMap<>();
+                failure.put("accountId", previous.getId());
+                failure.put("platform", previous.getPlatform());
+                failure.put("error", reason);
+                failures.add(failure);
+
+                // Keep the last known metrics on the dashboard for accounts that didn't refresh
+                previous.setStale(true);
+                synced.add(previous);
+            }
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("accounts", synced);
+        result.put("failures", failures);
+        result.put("syncedCount", accounts.size() - failures.size());
+        result.put("failedCount", failures.size());
+        return result;
+    }
+
+    /**
+     * Pull fresh metrics from the platform API and persist them.
+     * Shared by the interactive sync endpoints and the background sync scheduler.
+     * Concurrent refreshes of one account (double-clicks, two tabs, the scheduler) share a single run.
+     */
+    public SocialAccount refreshMetrics(SocialAccount account) {
+        return singleFlight.execute("sync:" + account.getId(),
+            () -> doRefreshMetrics(account),
+            // Another replica just synced it - return what it saved
+            () -> socialAccountRepository.findById(account.getId()).orElse(account));
+    }
+
+    private SocialAccount doRefreshMetrics(SocialAccount account) {
+        AccountMetrics metrics;
+        try {
+            metrics = platformCallExecutor.call(account.getPlatform().key(), () -> fetchPlatformMetrics(account));
+        } catch (PlatformApiException e) {
+            // Keep the last known metrics, flagged so the dashboard can say they're out of date
+            if (!Boolean.TRUE.equals(account.getMetricsStale())) {
+                updateSyncFields(account.getId(), Update.update("metricsStale", true));
+            }
+            throw e;
+        }
+
+        SocialAccount saved = updateSyncFields(account.getId(), Update.update("metrics", metrics)
+            .set("lastSynced", LocalDateTime.now())
+            .set("metricsStale", false));
+        if (saved == null) {
+            throw new RuntimeException("Account not found");
+        }
+        metricsHistoryService.record(saved);
+        return saved;
+    }
+
+    /**
+     * Write only the sync fields. The account may have been read well before the platform
+     * answered (a scheduler run, sync-all), so saving the whole entity could overwrite a
+     * reconnect's new token. findAndModify skips AfterSaveEvent, so the dashboard is updated here.
+     */
+    private SocialAccount updateSyncFields(String accountId, Update update) {
+        SocialAccount updated = mongoTemplate.findAndModify(Query.query(Criteria.where("_id").is(accountId)),
+            update, FindAndModifyOptions.options().returnNew(true), SocialAccount.class);
+        if (updated != null) {
+            try {
+                dashboardService.accountSaved(updated);
+            } catch (Exception e) {
+                logger.warn("Failed to update dashboard for account {}: {}", accountId, e.getMessage());
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * First sync right after a connect. A platform error mustn't throw away the token we just
+     * obtained, so the account is saved with its metrics flagged stale and no lastSynced -
+     * the background sync picks it up first and fills them in.
+     */
+    private void syncOnConnect(SocialAccount account, Supplier<AccountMetrics> sync) {
+        try {
+            account.setMetrics(sync.get());
+            account.setLastSynced(LocalDateTime.now());
+            account.setMetricsStale(false);
+        } catch (PlatformApiException e) {
+            logger.warn("First {} sync failed, saving account without metrics: {}", account.getPlatform(), e.getMessage());
+            account.setLastSynced(null);
+            account.setMetricsStale(true);
+        }
+    }
+
+    /**
+     * True if the account was synced recently enough that another remote call isn't worth it.
+     * The window comes from sync.freshness-seconds.<tier>.<platform>, falling back to
+     * sync.freshness-seconds.<tier>, where tier is free or premium.
+     */
+    private boolean isFresh(SocialAccount account) {
+        if (account.getLastSynced() == null) {
+            return false;
+        }
+        boolean premium = userCache.findById(account.getUserId())
+            .map(subscriptionService::isPremium)
+            .orElse(false);
+        String tier = premium ? "premium" : "free";
+        long tierDefault = environment.getProperty("sync.freshness-seconds." + tier, Long.class, premium ? 60L : 300L);
+        long windowSeconds = environment.getProperty(
+            "sync.freshness-seconds." + tier + "." + account.getPlatform().key(),
+            Long.class, tierDefault);
+
+        return account.getLastSynced().isAfter(LocalDateTime.now().minusSeconds(windowSeconds));
+    }
+
+    /**
+     * Metrics history for one of the user's accounts, for growth charts
+     */
+    public List<MetricsSnapshot> getMetricsHistoryByUserId(String accountId, String userId,
+                                                           int days, String resolution) {
+        SocialAccount account = socialAccountRepository.findById(accountId)
+                .orElseThrow(() -> new RuntimeException("Account not found"));
+
+        if (!account.getUserId().equals(userId)) {
+            logger.warn("Unauthorized history request for account {} by user {}", accountId, userId);
+            throw new RuntimeException("Unauthorized");
+        }
+
+        Instant to = Instant.now();
+        return metricsHistoryService.getHistory(accountId, to.minus(Duration.ofDays(days)), to, resolution);
+    }
+
+    private AccountMetrics fetchPlatformMetrics(SocialAccount account) {
+        return switch (account.getPlatform()) {
+            case FACEBOOK -> facebookService.syncMetrics(account);
+            case INSTAGRAM -> instagramService.syncMetrics(account);
+            case TWITTER -> twitterService.syncMetrics(account);
+            case LINKEDIN -> linkedInService.syncMetrics(account);
+            case TIKTOK -> tikTokService.syncMetrics(account);
+            case YOUTUBE -> youTubeService.syncMetrics(account);
+            case SNAPCHAT -> snapchatService.syncMetrics(account);
+        };
+    }
+
     public SocialAccountDTO connectFacebookAccount(String authHeader, String code) {
         logger.info("Connecting Facebook account with OAuth code");
 
@@ -412,7 +581,7 @@ public class SocialAccountService {
 
             // Check if account already connected
             SocialAccount existingAccount = socialAccountRepository
-                .findByUserIdAndPlatform(userId, "facebook")
+                .findByUserIdAndPlatform(userId, Platform.FACEBOOK)
                 .orElse(null);
 
             if (existingAccount != null) {
@@ -423,8 +592,7 @@ public class SocialAccountService {
                 existingAccount.setConnectedAt(LocalDateTime.now());
 
                 // Sync metrics
-                existingAccount.setMetrics(facebookService.syncMetrics(existingAccount));
-                existingAccount.setLastSynced(LocalDateTime.now());
+                syncOnConnect(existingAccount, () -> facebookService.syncMetrics(existingAccount));
 
                 SocialAccount saved = socialAccountRepository.save(existingAccount);
                 logger.info("Updated existing Facebook account");
@@ -433,15 +601,14 @@ public class SocialAccountService {
                 // Create new account
                 SocialAccount account = new SocialAccount();
                 account.setUserId(userId);
-                account.setPlatform("Facebook");
+                account.setPlatform(Platform.FACEBOOK);
                 account.setPlatformUserId(pageId);
                 account.setUsername(pageName);
                 account.setAccessToken(pageAccessToken); // Use page token, not user token
                 account.setConnectedAt(LocalDateTime.now());
 
                 // Sync real metrics from Facebook Page
-                account.setMetrics(facebookService.syncMetrics(account));
-                account.setLastSynced(LocalDateTime.now());
+                syncOnConnect(account, () -> facebookService.syncMetrics(account));
 
                 SocialAccount savedAccount = socialAccountRepository.save(account);
                 logger.info("Successfully connected Facebook Page for user {}", userId);
@@ -509,14 +676,13 @@ public class SocialAccountService {
 
         // Check if account already exists
         SocialAccount existingAccount = socialAccountRepository
-            .findByUserIdAndPlatform(userId, "instagram")
+            .findByUserIdAndPlatform(userId, Platform.INSTAGRAM)
             .orElse(null);
 
         if (existingAccount != null) {
             // Update existing account with new demo data
             existingAccount.setConnectedAt(LocalDateTime.now());
-            existingAccount.setMetrics(instagramService.syncMetrics(existingAccount));
-            existingAccount.setLastSynced(LocalDateTime.now());
+            syncOnConnect(existingAccount, () -> instagramService.syncMetrics(existingAccount));
 
             SocialAccount saved = socialAccountRepository.save(existingAccount);
             logger.info("Updated existing demo Instagram account");
@@ -526,7 +692,7 @@ public class SocialAccountService {
         // Create new demo account
         SocialAccount account = new SocialAccount();
         account.setUserId(userId);
-        account.setPlatform("Instagram");
+        account.setPlatform(Platform.INSTAGRAM);
         account.setPlatformUserId("demo_instagram_" + System.currentTimeMillis());
         account.setUsername("your_instagram");
         account.setAccessToken("demo_access_token");
@@ -636,7 +802,7 @@ public class SocialAccountService {
 
             // Check if account already connected
             SocialAccount existingAccount = socialAccountRepository
-                .findByUserIdAndPlatform(userId, "linkedin")
+                .findByUserIdAndPlatform(userId, Platform.LINKEDIN)
                 .orElse(null);
 
             if (existingAccount != null) {
@@ -644,8 +810,7 @@ public class SocialAccountService {
                 existingAccount.setUsername(name != null ? name : email);
                 existingAccount.setAccessToken(accessToken);
                 existingAccount.setConnectedAt(LocalDateTime.now());
-                existingAccount.setMetrics(linkedInService.syncMetrics(existingAccount));
-                existingAccount.setLastSynced(LocalDateTime.now());
+                syncOnConnect(existingAccount, () -> linkedInService.syncMetrics(existingAccount));
 
                 SocialAccount saved = socialAccountRepository.save(existingAccount);
                 logger.info("Updated existing LinkedIn account");
@@ -653,13 +818,12 @@ public class SocialAccountService {
             } else {
                 SocialAccount account = new SocialAccount();
                 account.setUserId(userId);
-                account.setPlatform("LinkedIn");
+                account.setPlatform(Platform.LINKEDIN);
                 account.setPlatformUserId(linkedInId);
                 account.setUsername(name != null ? name : email);
                 account.setAccessToken(accessToken);
                 account.setConnectedAt(LocalDateTime.now());
-                account.setMetrics(linkedInService.syncMetrics(account));
-                account.setLastSynced(LocalDateTime.now());
+                syncOnConnect(account, () -> linkedInService.syncMetrics(account));
 
                 SocialAccount savedAccount = socialAccountRepository.save(account);
                 logger.info("Successfully connected LinkedIn account for user {}", userId);
@@ -678,7 +842,7 @@ public class SocialAccountService {
         String userId = authService.validateAndExtractUserId(authHeader);
 
         // Check account limit before connecting
-        checkAccountLimit(userId, "twitter");
+        checkAccountLimit(userId, Platform.TWITTER);
 
         try {
             // Exchange code for access token with PKCE
@@ -699,7 +863,7 @@ public class SocialAccountService {
 
             // Check if account already connected
             SocialAccount existingAccount = socialAccountRepository
-                .findByUserIdAndPlatform(userId, "twitter")
+                .findByUserIdAndPlatform(userId, Platform.TWITTER)
                 .orElse(null);
 
             if (existingAccount != null) {
@@ -708,8 +872,7 @@ public class SocialAccountService {
                 existingAccount.setAccountName(name);
                 existingAccount.setAccessToken(accessToken);
                 existingAccount.setConnectedAt(LocalDateTime.now());
-                existingAccount.setMetrics(twitterService.syncMetrics(existingAccount));
-                existingAccount.setLastSynced(LocalDateTime.now());
+                syncOnConnect(existingAccount, () -> twitterService.syncMetrics(existingAccount));
 
                 SocialAccount saved = socialAccountRepository.save(existingAccount);
                 logger.info("Updated existing Twitter account");
@@ -717,14 +880,13 @@ public class SocialAccountService {
             } else {
                 SocialAccount account = new SocialAccount();
                 account.setUserId(userId);
-                account.setPlatform("Twitter");
+                account.setPlatform(Platform.TWITTER);
                 account.setPlatformUserId(twitterId);
                 account.setUsername(username);
                 account.setAccountName(name);
                 account.setAccessToken(accessToken);
                 account.setConnectedAt(LocalDateTime.now());
-                account.setMetrics(twitterService.syncMetrics(account));
-                account.setLastSynced(LocalDateTime.now());
+                syncOnConnect(account, () -> twitterService.syncMetrics(account));
 
                 SocialAccount savedAccount = socialAccountRepository.save(account);
                 logger.info("Successfully connected Twitter account for user {}", userId);
@@ -743,7 +905,7 @@ public class SocialAccountService {
         String userId = authService.validateAndExtractUserId(authHeader);
 
         // Check account limit before connecting
-        checkAccountLimit(userId, "youtube");
+        checkAccountLimit(userId, Platform.YOUTUBE);
 
         try {
             // Exchange code for access token using YouTubeService
@@ -769,7 +931,7 @@ public class SocialAccountService {
 
             // Check if account already connected
             SocialAccount existingAccount = socialAccountRepository
-                .findByUserIdAndPlatform(userId, "youtube")
+                .findByUserIdAndPlatform(userId, Platform.YOUTUBE)
                 .orElse(null);
 
             if (existingAccount != null) {
@@ -778,8 +940,7 @@ public class SocialAccountService {
                 existingAccount.setAccountName(channelTitle);
                 existingAccount.setAccessToken(accessToken);
                 existingAccount.setConnectedAt(LocalDateTime.now());
-                existingAccount.setMetrics(youTubeService.syncMetrics(existingAccount));
-                existingAccount.setLastSynced(LocalDateTime.now());
+                syncOnConnect(existingAccount, () -> youTubeService.syncMetrics(existingAccount));
 
                 SocialAccount saved = socialAccountRepository.save(existingAccount);
                 logger.info("Updated existing YouTube account");
@@ -787,14 +948,13 @@ public class SocialAccountService {
             } else {
                 SocialAccount account = new SocialAccount();
                 account.setUserId(userId);
-                account.setPlatform("YouTube");
+                account.setPlatform(Platform.YOUTUBE);
                 account.setPlatformUserId(channelId);
                 account.setUsername(channelTitle);
                 account.setAccountName(channelTitle);
                 account.setAccessToken(accessToken);
                 account.setConnectedAt(LocalDateTime.now());
-                account.setMetrics(youTubeService.syncMetrics(account));
-                account.setLastSynced(LocalDateTime.now());
+                syncOnConnect(account, () -> youTubeService.syncMetrics(account));
 
                 SocialAccount savedAccount = socialAccountRepository.save(account);
                 logger.info("Successfully connected YouTube account for user {}", userId);
@@ -871,7 +1031,7 @@ public class SocialAccountService {
 
             // Check if account already connected
             SocialAccount existingAccount = socialAccountRepository
-                .findByUserIdAndPlatform(userId, "snapchat")
+                .findByUserIdAndPlatform(userId, Platform.SNAPCHAT)
                 .orElse(null);
 
             if (existingAccount != null) {
@@ -879,8 +1039,7 @@ public class SocialAccountService {
                 existingAccount.setUsername(displayName);
                 existingAccount.setAccessToken(accessToken);
                 existingAccount.setConnectedAt(LocalDateTime.now());
-                existingAccount.setMetrics(snapchatService.syncMetrics(existingAccount));
-                existingAccount.setLastSynced(LocalDateTime.now());
+                syncOnConnect(existingAccount, () -> snapchatService.syncMetrics(existingAccount));
 
                 SocialAccount saved = socialAccountRepository.save(existingAccount);
                 logger.info("Updated existing Snapchat account");
@@ -888,13 +1047,12 @@ public class SocialAccountService {
             } else {
                 SocialAccount account = new SocialAccount();
                 account.setUserId(userId);
-                account.setPlatform("Snapchat");
+                account.setPlatform(Platform.SNAPCHAT);
                 account.setPlatformUserId(snapchatId);
                 account.setUsername(displayName);
                 account.setAccessToken(accessToken);
                 account.setConnectedAt(LocalDateTime.now());
-                account.setMetrics(snapchatService.syncMetrics(account));
-                account.setLastSynced(LocalDateTime.now());
+                syncOnConnect(account, () -> snapchatService.syncMetrics(account));
 
                 SocialAccount savedAccount = socialAccountRepository.save(account);
                 logger.info("Successfully connected Snapchat account for user {}", userId);
@@ -1008,7 +1166,7 @@ public class SocialAccountService {
 
             // Check if account already connected
             SocialAccount existingAccount = socialAccountRepository
-                .findByUserIdAndPlatform(userId, "tiktok")
+                .findByUserIdAndPlatform(userId, Platform.TIKTOK)
                 .orElse(null);
 
             if (existingAccount != null) {
@@ -1025,7 +1183,7 @@ public class SocialAccountService {
             } else {
                 SocialAccount account = new SocialAccount();
                 account.setUserId(userId);
-                account.setPlatform("TikTok");
+                account.setPlatform(Platform.TIKTOK);
                 account.setPlatformUserId(tiktokId);
                 account.setUsername(accountName);
                 account.setAccessToken(accessToken);
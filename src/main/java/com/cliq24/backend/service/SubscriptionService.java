@@ -28,11 +28,13 @@ public class SubscriptionService {
     private String stripePriceId;
 
     private final UserRepository userRepository;
+    private final UserCache userCache;
     private boolean stripeEnabled = false;
 
     @Autowired
-    public SubscriptionService(UserRepository userRepository) {
+    public SubscriptionService(UserRepository userRepository, UserCache userCache) {
         this.userRepository = userRepository;
+        this.userCache = userCache;
     }
 
     @PostConstruct
@@ -61,13 +63,20 @@ public class SubscriptionService {
      * Get the account limit for a user based on their subscription tier
      */
     public int getAccountLimit(User user) {
-        if ("PREMIUM".equals(user.getSubscriptionTier()) &&
-            "ACTIVE".equals(user.getSubscriptionStatus())) {
+        if (isPremium(user)) {
             return Integer.MAX_VALUE; // Unlimited for premium
         }
         return 3; // Free tier: 3 accounts
     }
 
+    /**
+     * Check if user has an active premium subscription
+     */
+    public boolean isPremium(User user) {
+        return "PREMIUM".equals(user.getSubscriptionTier()) &&
+            "ACTIVE".equals(user.getSubscriptionStatus());
+    }
+
     /**
      * Check if user can add more social accounts
      */
@@ -124,7 +133,7 @@ public class SubscriptionService {
         user.setStripeSubscriptionId(stripeSubscriptionId);
         user.setSubscriptionEndsAt(null); // Active subscription has no end date
 
-        userRepository.save(user);
+        userCache.save(user);
         logger.info("Activated premium subscription for user {}", userId);
     }
 
@@ -139,7 +148,7 @@ public class SubscriptionService {
         user.setSubscriptionStatus("CANCELED");
         user.setSubscriptionEndsAt(LocalDateTime.now());
 
-        userRepository.save(user);
+        userCache.save(user);
         logger.info("Canceled subscription for user {}", userId);
     }
 
@@ -157,7 +166,7 @@ public class SubscriptionService {
             user.setSubscriptionEndsAt(LocalDateTime.now());
         }
 
-        userRepository.save(user);
+        userCache.save(user);
         logger.info("Updated subscription status for user {} to {}", user.getId(), status);
     }
 }
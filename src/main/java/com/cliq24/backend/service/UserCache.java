@@ -0,0 +1,102 @@
+package com.cliq24.backend.service;
+
+import com.cliq24.backend.model.User;
+import com.cliq24.backend.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Read cache for User documents, so one page load reads a user from MongoDB at most once.
+ *
+ * Lookups go through the current request's own copy first, then a small shared cache with a
+ * short TTL (user-cache.ttl-seconds), then the repository. Every write of a user must go through
+ * save() so both levels are invalidated; other replicas catch up within the TTL.
+ *
+ * Cached users are shared - use them read-only. Read-modify-write paths load the user from the
+ * repository so they never build on a stale copy.
+ */
+@Component
+public class UserCache {
+
+    private static final String REQUEST_ATTRIBUTE = UserCache.class.getName() + ".users";
+
+    private final UserRepository userRepository;
+    private final Cache<String, User> users;
+
+    @Autowired
+    public UserCache(UserRepository userRepository,
+                     @Value("${user-cache.max-size:10000}") long maxSize,
+                     @Value("${user-cache.ttl-seconds:30}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.users = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .build();
+    }
+
+    public Optional<User> findById(String userId) {
+        Map<String, User> requestUsers = requestUsers();
+        if (requestUsers != null && requestUsers.containsKey(userId)) {
+            return Optional.of(requestUsers.get(userId));
+        }
+
+        User user = users.getIfPresent(userId);
+        if (user == null) {
+            user = userRepository.findById(userId).orElse(null);
+            if (user == null) {
+                return Optional.empty();
+            }
+            users.put(userId, user);
+        }
+
+        if (requestUsers != null) {
+            requestUsers.put(userId, user);
+        }
+        return Optional.of(user);
+    }
+
+    /**
+     * Save through the repository and drop any cached copy of the user
+     */
+    public User save(User user) {
+        User saved = userRepository.save(user);
+        invalidate(saved.getId());
+        return saved;
+    }
+
+    public void invalidate(String userId) {
+        users.invalidate(userId);
+        Map<String, User> requestUsers = requestUsers();
+        if (requestUsers != null) {
+            requestUsers.remove(userId);
+        }
+    }
+
+    /**
+     * Users already loaded by the current request, or null outside a request (schedulers, pools)
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, User> requestUsers() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Map<String, User> requestUsers =
+            (Map<String, User>) attributes.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (requestUsers == null) {
+            requestUsers = new HashMap<>();
+            attributes.setAttribute(REQUEST_ATTRIBUTE, requestUsers, RequestAttributes.SCOPE_REQUEST);
+        }
+        return requestUsers;
+    }
+}
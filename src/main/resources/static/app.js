@@ -5,6 +5,7 @@ class Cliq24Dashboard {
         this.apiBaseUrl = window.location.origin;
         this.jwtToken = this.getJWTFromStorage();
         this.socialAccounts = [];
+        this.dashboardSummary = null;
         this.currentUser = null;
         this.subscriptionStatus = null;
         this.userPreferences = {}; // Store user's platform goals/preferences
@@ -152,6 +153,57 @@ class Cliq24Dashboard {
         }
     }
 
+    /**
+     * Read a Server-Sent Events endpoint, calling onEvent(name, data) per event.
+     * Uses fetch rather than EventSource so the Authorization header works for email/password logins.
+     * Rejects on an "error" event, or if the stream ends without a "done" event.
+     */
+    async streamSse(endpoint, onEvent) {
+        const headers = { 'Accept': 'text/event-stream' };
+        if (this.jwtToken) {
+            headers['Authorization'] = `Bearer ${this.jwtToken}`;
+        }
+
+        const response = await fetch(`${this.apiBaseUrl}${endpoint}`, { headers });
+        if (!response.ok || !response.body) {
+            throw new Error(`API Error: ${response.status}`);
+        }
+
+        const reader = response.body.getReader();
+        const decoder = new TextDecoder();
+        let buffer = '';
+        let finished = false;
+
+        while (true) {
+            const { value, done } = await reader.read();
+            if (done) break;
+            buffer += decoder.decode(value, { stream: true });
+
+            let boundary;
+            while ((boundary = buffer.indexOf('\n\n')) !== -1) {
+                const block = buffer.slice(0, boundary);
+                buffer = buffer.slice(boundary + 2);
+
+                let event = 'message';
+                const data = [];
+                for (const line of block.split('\n')) {
+                    if (line.startsWith('event:')) event = line.slice(6).trim();
+                    else if (line.startsWith('data:')) data.push(line.slice(5).trimStart());
+                }
+                if (event === 'error') {
+                    const { error } = data.length ? JSON.parse(data.join('\n')) : {};
+                    throw new Error(error || 'Stream failed');
+                }
+                if (event === 'done') finished = true;
+                if (data.length) onEvent(event, data.join('\n'));
+            }
+        }
+
+        if (!finished) {
+            throw new Error('Stream ended early');
+        }
+    }
+
     async loadUserData() {
         const user = await this.apiCall('/auth/me');
         if (user) {
@@ -239,8 +291,11 @@ class Cliq24Dashboard {
     async loadSocialAccounts() {
         try {
             console.log('Loading social accounts...');
-            const accounts = await this.apiCall('/api/social-accounts');
+            // Precomputed server-side: accounts plus overall score and totals in one read
+            const dashboard = await this.apiCall('/api/social-accounts/dashboard');
+            const accounts = dashboard ? dashboard.accounts : null;
             console.log('Social accounts loaded:', accounts);
+            this.dashboardSummary = null;
 
             if (accounts) {
                 // Filter out LinkedIn accounts for END_USER type
@@ -251,6 +306,8 @@ class Cliq24Dashboard {
                     console.log('[USER TYPE] Filtered out LinkedIn accounts for END_USER');
                 } else {
                     this.socialAccounts = accounts;
+                    // Server totals only match when nothing was filtered out
+                    this.dashboardSummary = dashboard;
                 }
 
                 console.log(`[DEBUG] Rendering ${this.socialAccounts.length} social accounts`);
@@ -399,6 +456,7 @@ class Cliq24Dashboard {
         };
 
         this.socialAccounts.push(newAccount);
+        this.dashboardSummary = null;
         this.renderSocialPods();
         this.updateOverallScore();
         this.closeModal();
@@ -418,6 +476,7 @@ class Cliq24Dashboard {
             const account = this.socialAccounts.find(a => a.id === accountId);
             if (account) {
                 account.metrics.engagementScore = Math.min(100, account.metrics.engagementScore + Math.floor(Math.random() * 5));
+                this.dashboardSummary = null;
                 this.renderSocialPods();
                 this.updateOverallScore();
                 this.showSuccess('Account synced successfully!');
@@ -436,6 +495,7 @@ class Cliq24Dashboard {
         } else {
             // Demo mode - remove from array
             this.socialAccounts = this.socialAccounts.filter(a => a.id !== accountId);
+            this.dashboardSummary = null;
             this.renderSocialPods();
             this.updateOverallScore();
             this.showSuccess('Account disconnected successfully!');
@@ -1086,15 +1146,19 @@ class Cliq24Dashboard {
             console.log('[INSIGHTS] Setting loading state...');
             insightsContent.innerHTML = '<div class="insights-loading">Generating insight...</div>';
 
-            console.log('[INSIGHTS] Calling API...');
-            const response = await this.apiCall(`/api/insights/${accountId}`);
-            console.log('[INSIGHTS] Got response:', response);
+            // Stream the insight so text shows up as it's generated
+            let textEl = null;
+            await this.streamSse(`/api/insights/${accountId}/stream`, (event, data) => {
+                if (event !== 'delta') return;
+                const { text } = JSON.parse(data);
+                if (!textEl) {
+                    insightsContent.innerHTML = '<div class="insights-text"></div>';
+                    textEl = insightsContent.querySelector('.insights-text');
+                }
+                textEl.textContent += text;
+            });
 
-            if (response && response.insight) {
-                insightsContent.innerHTML = `
-                    <div class="insights-text">${response.insight}</div>
-                `;
-            } else {
+            if (!textEl || !textEl.textContent.trim()) {
                 insightsContent.innerHTML = `
                     <div class="insights-text insights-placeholder">
                         Keep posting and engaging to get personalized AI insights!
@@ -1163,6 +1227,15 @@ class Cliq24Dashboard {
             return;
         }
 
+        if (this.dashboardSummary) {
+            const score = this.dashboardSummary.overallScore || 0;
+            this.setOverallScore(score, this.getScoreLabel(score));
+            document.getElementById('totalAccounts').textContent = this.socialAccounts.length;
+            document.getElementById('totalFollowers').textContent = this.formatNumber(this.dashboardSummary.totalFollowers || 0);
+            document.getElementById('totalPosts').textContent = this.formatNumber(this.dashboardSummary.totalPosts || 0);
+            return;
+        }
+
         // Calculate average score
         const totalScore = this.socialAccounts.reduce((sum, account) => {
             return sum + (account.metrics?.engagementScore || 0);
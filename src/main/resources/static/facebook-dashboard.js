@@ -174,10 +174,12 @@ class FacebookDashboard {
         }
     }
 
-    async sendMessage(recipientId, message) {
+    async sendMessage(recipientId, message, idempotencyKey) {
         try {
             const response = await this.apiCall(`/api/facebook/${this.accountId}/messages/send`, {
                 method: 'POST',
+                // Same key for resubmissions of this message, so it can't be sent twice
+                headers: { 'Idempotency-Key': idempotencyKey },
                 body: JSON.stringify({
                     recipientId: recipientId,
                     message: message
@@ -321,11 +323,18 @@ class FacebookDashboard {
                 const sendBtn = document.getElementById('sendBtn');
                 const originalText = sendBtn.textContent;
 
+                // Keep the key while the form holds the same message, so a retry after a failure reuses it
+                const draft = `${recipientId}\n${messageText}`;
+                if (this.pendingSend?.draft !== draft) {
+                    this.pendingSend = { draft, key: crypto.randomUUID() };
+                }
+
                 try {
                     sendBtn.disabled = true;
                     sendBtn.innerHTML = '<span class="loading-spinner"></span> Sending...';
 
-                    await this.sendMessage(recipientId, messageText);
+                    await this.sendMessage(recipientId, messageText, this.pendingSend.key);
+                    this.pendingSend = null;
                 } catch (error) {
                     this.showError(error.message || 'Failed to send message');
                 } finally {
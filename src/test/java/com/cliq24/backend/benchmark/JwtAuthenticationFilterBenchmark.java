@@ -0,0 +1,103 @@
+package com.cliq24.backend.benchmark;
+
+import com.cliq24.backend.config.JwtAuthenticationFilter;
+import com.cliq24.backend.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of JWT authentication.
+ *
+ * legacy* reproduces the old filter: a fresh key and parser for each of the two parses.
+ * filter* runs JwtAuthenticationFilter itself, with the verified-token cache off (one parse and
+ * signature check per request) and on (a token seen before).
+ *
+ * Run (JMH forks, so the test classpath has to be passed to a real JVM):
+ *   mvn -q test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ *       "-Dexec.args=-cp %classpath com.cliq24.backend.benchmark.JwtAuthenticationFilterBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret";
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private String token;
+    private JwtAuthenticationFilter uncachedFilter;
+    private JwtAuthenticationFilter cachedFilter;
+
+    @Setup
+    public void setUp() {
+        JwtUtil uncached = new JwtUtil(SECRET, 3_600_000L, 0);
+        JwtUtil cached = new JwtUtil(SECRET, 3_600_000L, 10_000);
+        token = cached.generateToken("507f1f77bcf86cd799439011", "user@example.com");
+
+        uncachedFilter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(uncachedFilter, "jwtUtil", uncached);
+        cachedFilter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(cachedFilter, "jwtUtil", cached);
+    }
+
+    @Benchmark
+    public String legacyDoubleParse() {
+        Claims first = Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+            .build().parseClaimsJws(token).getBody();
+        if (first.getExpiration().before(new Date())) {
+            return null;
+        }
+        return Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+            .build().parseClaimsJws(token).getBody().getSubject();
+    }
+
+    @Benchmark
+    public Object filterUncachedToken() throws Exception {
+        return authenticate(uncachedFilter);
+    }
+
+    @Benchmark
+    public Object filterCachedToken() throws Exception {
+        return authenticate(cachedFilter);
+    }
+
+    private Object authenticate(JwtAuthenticationFilter filter) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/social-accounts");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), NO_OP_CHAIN);
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        SecurityContextHolder.clearContext();
+        return principal;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(JwtAuthenticationFilterBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
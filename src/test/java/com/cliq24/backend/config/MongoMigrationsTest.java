@@ -0,0 +1,253 @@
+package com.cliq24.backend.config;
+
+import com.cliq24.backend.model.SocialAccount;
+import com.mongodb.client.AggregateIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * The migrations against an in-memory stand-in for the collections they touch. Queries are
+ * evaluated from their criteria documents, and the duplicate aggregation from its pipeline.
+ */
+class MongoMigrationsTest {
+
+    private static final String SOCIAL_ACCOUNTS = "social_accounts";
+    private static final String QUARANTINE = "social_accounts_quarantine";
+    private static final String DASHBOARDS = "user_dashboards";
+    private static final String MIGRATIONS = "schema_migrations";
+
+    private final Map<String, List<Document>> collections = new HashMap<>();
+
+    private MongoTemplate mongoTemplate;
+    private IndexOperations indexOps;
+    private MongoMigrations migrations;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        indexOps = mock(IndexOperations.class);
+        when(mongoTemplate.indexOps(SOCIAL_ACCOUNTS)).thenReturn(indexOps);
+        when(indexOps.getIndexInfo()).thenReturn(List.of(
+            new IndexInfo(List.of(), "user_platform", false, false, "")));
+
+        when(mongoTemplate.exists(any(Query.class), anyString())).thenAnswer(invocation ->
+            !find(invocation.getArgument(1), invocation.getArgument(0)).isEmpty());
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), anyString())).thenAnswer(invocation -> {
+            Query query = invocation.getArgument(0);
+            Document record = new Document(query.getQueryObject())
+                .append("appliedAt", invocation.<Update>getArgument(1).getUpdateObject().get("$set", Document.class).get("appliedAt"));
+            collection(invocation.getArgument(2)).add(record);
+            return UpdateResult.acknowledged(0, 0L, null);
+        });
+        when(mongoTemplate.findDistinct(any(Query.class), anyString(), anyString(), eq(String.class))).thenAnswer(invocation ->
+            find(invocation.getArgument(2), invocation.getArgument(0)).stream()
+                .map(document -> document.getString(invocation.<String>getArgument(1)))
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList()));
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), anyString())).thenAnswer(invocation -> {
+            Document set = invocation.<Update>getArgument(1).getUpdateObject().get("$set", Document.class);
+            List<Document> matched = find(invocation.getArgument(2), invocation.getArgument(0));
+            matched.forEach(document -> document.putAll(set));
+            return UpdateResult.acknowledged(matched.size(), (long) matched.size(), null);
+        });
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), anyString())).thenAnswer(invocation ->
+            find(invocation.getArgument(2), invocation.getArgument(0)));
+        when(mongoTemplate.remove(any(Query.class), anyString())).thenAnswer(invocation ->
+            remove(invocation.getArgument(1), invocation.getArgument(0)));
+        when(mongoTemplate.remove(any(Query.class), eq(SocialAccount.class))).thenAnswer(invocation ->
+            remove(SOCIAL_ACCOUNTS, invocation.getArgument(0)));
+
+        MongoCollection<Document> socialAccounts = mock(MongoCollection.class);
+        AggregateIterable<Document> aggregate = mock(AggregateIterable.class);
+        when(mongoTemplate.getCollection(SOCIAL_ACCOUNTS)).thenReturn(socialAccounts);
+        when(socialAccounts.aggregate(anyList())).thenAnswer(invocation -> {
+            List<Document> result = aggregate(invocation.getArgument(0));
+            when(aggregate.into(anyCollection())).thenAnswer(into -> {
+                into.<Collection<Document>>getArgument(0).addAll(result);
+                return into.getArgument(0);
+            });
+            return aggregate;
+        });
+
+        MongoCollection<Document> quarantine = mock(MongoCollection.class);
+        when(mongoTemplate.getCollection(QUARANTINE)).thenReturn(quarantine);
+        when(quarantine.replaceOne(any(Bson.class), any(Document.class), any(ReplaceOptions.class))).thenAnswer(invocation -> {
+            Document replacement = invocation.getArgument(1);
+            collection(QUARANTINE).removeIf(document -> document.get("_id").equals(replacement.get("_id")));
+            collection(QUARANTINE).add(replacement);
+            return UpdateResult.acknowledged(1, 1L, null);
+        });
+
+        migrations = new MongoMigrations(mongoTemplate);
+    }
+
+    @Test
+    void platformSpellingsAreRewrittenToCodes() {
+        account("a1", "u1", "Facebook", 1);
+        account("a2", "u2", "LINKEDIN", 1);
+        account("a3", "u3", "fb", 1);
+        dashboard("u1");
+        dashboard("u3");
+
+        migrations.run();
+
+        assertEquals("fb", account("a1").getString("platform"));
+        assertEquals("li", account("a2").getString("platform"));
+        assertEquals("fb", account("a3").getString("platform"));
+        assertTrue(collection(DASHBOARDS).isEmpty());
+    }
+
+    @Test
+    void duplicatesKeepTheMostRecentlyConnectedAccount() {
+        account("old", "u1", "facebook", 1);
+        account("newest", "u1", "Facebook", 3);
+        account("middle", "u1", "fb", 2);
+        account("other-user", "u2", "fb", 1);
+
+        migrations.run();
+
+        assertEquals(Set.of("newest", "other-user"), ids(SOCIAL_ACCOUNTS));
+        verify(indexOps).dropIndex("user_platform");
+    }
+
+    @Test
+    void unknownAndMissingPlatformsAreQuarantined() {
+        account("a1", "u1", "fb", 1);
+        account("myspace", "u1", "MySpace", 1);
+        collection(SOCIAL_ACCOUNTS).add(new Document("_id", "no-platform").append("userId", "u2"));
+        dashboard("u1");
+
+        migrations.run();
+
+        assertEquals(Set.of("a1"), ids(SOCIAL_ACCOUNTS));
+        assertEquals(Set.of("myspace", "no-platform"), ids(QUARANTINE));
+        assertTrue(collection(QUARANTINE).stream().allMatch(document -> document.get("quarantinedAt") != null));
+        assertEquals("MySpace", collection(QUARANTINE).stream()
+            .filter(document -> document.get("_id").equals("myspace")).findFirst().orElseThrow().getString("platform"));
+        assertTrue(collection(DASHBOARDS).isEmpty());
+    }
+
+    @Test
+    void recordedMigrationsAreNotRunAgain() {
+        account("a1", "u1", "Facebook", 1);
+        migrations.run();
+        assertEquals(Set.of("001-platform-codes", "002-quarantine-unknown-platforms"), ids(MIGRATIONS));
+
+        // Data written by an old build after the migrations ran is left alone
+        account("a2", "u2", "Facebook", 1);
+        account("myspace", "u2", "MySpace", 1);
+        clearInvocations(mongoTemplate);
+
+        migrations.run();
+
+        assertEquals("Facebook", account("a2").getString("platform"));
+        assertEquals(Set.of("a1", "a2", "myspace"), ids(SOCIAL_ACCOUNTS));
+        verify(mongoTemplate, never()).updateMulti(any(Query.class), any(Update.class), anyString());
+        verify(mongoTemplate, never()).remove(any(Query.class), anyString());
+        verify(mongoTemplate, never()).upsert(any(Query.class), any(Update.class), anyString());
+    }
+
+    private void account(String id, String userId, String platform, int connectedDay) {
+        collection(SOCIAL_ACCOUNTS).add(new Document("_id", id)
+            .append("userId", userId)
+            .append("platform", platform)
+            .append("connectedAt", new Date(connectedDay * 86_400_000L)));
+    }
+
+    private Document account(String id) {
+        return collection(SOCIAL_ACCOUNTS).stream()
+            .filter(document -> document.get("_id").equals(id)).findFirst().orElseThrow();
+    }
+
+    private void dashboard(String userId) {
+        collection(DASHBOARDS).add(new Document("_id", userId));
+    }
+
+    private Set<Object> ids(String collection) {
+        return collection(collection).stream().map(document -> document.get("_id")).collect(Collectors.toSet());
+    }
+
+    private List<Document> collection(String name) {
+        return collections.computeIfAbsent(name, k -> new ArrayList<>());
+    }
+
+    private List<Document> find(String collection, Query query) {
+        return collection(collection).stream()
+            .filter(document -> matches(document, query.getQueryObject()))
+            .collect(Collectors.toList());
+    }
+
+    private DeleteResult remove(String collection, Query query) {
+        List<Document> matched = find(collection, query);
+        collection(collection).removeAll(matched);
+        return DeleteResult.acknowledged(matched.size());
+    }
+
+    /**
+     * Equality, $in and $nin - all the migrations' queries use
+     */
+    private static boolean matches(Document document, Document criteria) {
+        for (Map.Entry<String, Object> criterion : criteria.entrySet()) {
+            Object value = document.get(criterion.getKey());
+            if (criterion.getValue() instanceof Document operator) {
+                if (operator.containsKey("$in") && !operator.getList("$in", Object.class).contains(value)) {
+                    return false;
+                }
+                if (operator.containsKey("$nin") && operator.getList("$nin", Object.class).contains(value)) {
+                    return false;
+                }
+            } else if (!Objects.equals(criterion.getValue(), value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The $sort / $group ($push _id, $sum 1) / $match count stages of the duplicate search
+     */
+    private List<Document> aggregate(List<Document> pipeline) {
+        List<Document> documents = new ArrayList<>(collection(SOCIAL_ACCOUNTS));
+
+        Document sort = pipeline.get(0).get("$sort", Document.class);
+        String sortField = sort.keySet().iterator().next();
+        // Missing values sort lowest, as in Mongo
+        Comparator<Document> order = Comparator.comparing(document -> document.getDate(sortField),
+            Comparator.nullsFirst(Comparator.naturalOrder()));
+        documents.sort(sort.getInteger(sortField) < 0 ? order.reversed() : order);
+
+        Map<Document, List<Object>> groups = new LinkedHashMap<>();
+        for (Document document : documents) {
+            Document key = new Document("userId", document.get("userId")).append("platform", document.get("platform"));
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(document.get("_id"));
+        }
+
+        int minCount = pipeline.get(2).get("$match", Document.class).get("count", Document.class).getInteger("$gt");
+        return groups.entrySet().stream()
+            .filter(group -> group.getValue().size() > minCount)
+            .map(group -> new Document("_id", group.getKey())
+                .append("ids", group.getValue())
+                .append("count", group.getValue().size()))
+            .collect(Collectors.toList());
+    }
+}
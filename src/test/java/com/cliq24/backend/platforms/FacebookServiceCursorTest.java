@@ -0,0 +1,155 @@
+package com.cliq24.backend.platforms;
+
+import com.cliq24.backend.dto.CursorPageDTO;
+import com.cliq24.backend.dto.FacebookPostDTO;
+import com.cliq24.backend.exception.GlobalExceptionHandler;
+import com.cliq24.backend.model.Platform;
+import com.cliq24.backend.model.SocialAccount;
+import com.cliq24.backend.repository.SocialAccountRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cursor pagination of Facebook page edges, with Graph answers queued on a mocked PlatformAsyncHttp
+ */
+class FacebookServiceCursorTest {
+
+    private static final String FIRST_PAGE = """
+        {"data":[{"id":"p1","message":"first"}],
+         "paging":{"cursors":{"before":"B1","after":"A1"},"next":"https://graph.facebook.com/next"}}""";
+    private static final String LAST_PAGE = """
+        {"data":[{"id":"p2","message":"last"}],
+         "paging":{"cursors":{"before":"B2","after":"A2"}}}""";
+
+    private final Deque<Supplier<CompletableFuture<PlatformAsyncHttp.Response>>> graph = new ArrayDeque<>();
+    private final List<URI> requested = new ArrayList<>();
+
+    private FacebookService facebookService;
+
+    @BeforeEach
+    void setUp() {
+        SocialAccountRepository socialAccountRepository = mock(SocialAccountRepository.class);
+        when(socialAccountRepository.findById("a1")).thenReturn(Optional.of(account("a1", "page1")));
+        when(socialAccountRepository.findById("a2")).thenReturn(Optional.of(account("a2", "page2")));
+
+        PlatformHttpClients platformHttpClients = mock(PlatformHttpClients.class);
+        when(platformHttpClients.forPlatform("facebook")).thenReturn(new RestTemplate());
+
+        PlatformAsyncHttp platformAsyncHttp = mock(PlatformAsyncHttp.class);
+        when(platformAsyncHttp.get(eq("facebook"), any(URI.class), any(HttpHeaders.class))).thenAnswer(invocation -> {
+            requested.add(invocation.getArgument(1));
+            return graph.removeFirst().get();
+        });
+
+        facebookService = new FacebookService(socialAccountRepository, platformHttpClients, platformAsyncHttp,
+            new ObjectMapper(), 100, 60);
+    }
+
+    @Test
+    void cursorLeadsToTheNextPageAndTheLastPageHasNone() {
+        answer(FIRST_PAGE);
+        answer(LAST_PAGE);
+
+        CursorPageDTO<FacebookPostDTO> first = facebookService.getPosts("u1", "a1", 10, null).join();
+        assertEquals("p1", first.items().get(0).id());
+        assertNotNull(first.nextCursor());
+        assertEquals("A1", FacebookService.decodeCursor(first.nextCursor(), "a1", "feed"));
+
+        CursorPageDTO<FacebookPostDTO> last = facebookService.getPosts("u1", "a1", 10, first.nextCursor()).join();
+        assertEquals("p2", last.items().get(0).id());
+        assertNull(last.nextCursor());
+
+        assertNull(queryParam(requested.get(0), "after"));
+        assertEquals("A1", queryParam(requested.get(1), "after"));
+    }
+
+    @Test
+    void cursorIsBoundToItsAccountAndEdge() {
+        String cursor = FacebookService.encodeCursor("A1", "a1", "feed");
+
+        assertEquals(HttpStatus.BAD_REQUEST, statusOf(() -> facebookService.getPosts("u1", "a2", 10, cursor)));
+        assertEquals(HttpStatus.BAD_REQUEST, statusOf(() -> facebookService.getPhotos("u1", "a1", 10, cursor)));
+        assertTrue(requested.isEmpty()); // Rejected before any Graph request
+    }
+
+    @Test
+    void malformedCursorIsABadRequest() {
+        String notBase64 = "not a cursor!";
+        String noSeparators = Base64.getUrlEncoder().encodeToString("garbage".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(IllegalArgumentException.class, () -> FacebookService.decodeCursor(notBase64, "a1", "feed"));
+        assertEquals(HttpStatus.BAD_REQUEST, statusOf(() -> facebookService.getPosts("u1", "a1", 10, notBase64)));
+        assertEquals(HttpStatus.BAD_REQUEST, statusOf(() -> facebookService.getPosts("u1", "a1", 10, noSeparators)));
+        assertTrue(requested.isEmpty());
+    }
+
+    @Test
+    void failedCursoredPageIsAPlatformFailureNotAnEmptyLastPage() {
+        String cursor = FacebookService.encodeCursor("A1", "a1", "feed");
+        fail(HttpServerErrorException.create(HttpStatusCode.valueOf(503), "503", new HttpHeaders(), new byte[0], null));
+        fail(new ResourceAccessException("I/O error", new SocketTimeoutException("Read timed out")));
+        fail(new TimeoutException());
+        answer("{\"error\":{\"message\":\"odd\"}}");
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, statusOf(() -> facebookService.getPosts("u1", "a1", 10, cursor)));
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, statusOf(() -> facebookService.getPosts("u1", "a1", 10, cursor)));
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, statusOf(() -> facebookService.getPosts("u1", "a1", 10, cursor)));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, statusOf(() -> facebookService.getPosts("u1", "a1", 10, cursor)));
+        assertTrue(graph.isEmpty());
+    }
+
+    private void answer(String json) {
+        graph.add(() -> CompletableFuture.completedFuture(
+            new PlatformAsyncHttp.Response(200, new HttpHeaders(), json.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    private void fail(Throwable error) {
+        graph.add(() -> CompletableFuture.failedFuture(error));
+    }
+
+    /**
+     * Status the posts endpoint would answer with, through the same helper the controller uses
+     */
+    private static <T> HttpStatusCode statusOf(Supplier<CompletableFuture<CursorPageDTO<T>>> call) {
+        ResponseEntity<?> response = GlobalExceptionHandler.platformResponse("Failed", call::get,
+            page -> ResponseEntity.ok(page.items())).join();
+        return response.getStatusCode();
+    }
+
+    private static String queryParam(URI uri, String name) {
+        return UriComponentsBuilder.fromUri(uri).build().getQueryParams().getFirst(name);
+    }
+
+    private static SocialAccount account(String id, String pageId) {
+        SocialAccount account = new SocialAccount();
+        account.setId(id);
+        account.setUserId("u1");
+        account.setPlatform(Platform.FACEBOOK);
+        account.setPlatformUserId(pageId);
+        account.setAccessToken("token-" + id);
+        return account;
+    }
+}
@@ -0,0 +1,173 @@
+package com.cliq24.backend.platforms;
+
+import com.cliq24.backend.exception.GlobalExceptionHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PlatformAsyncHttp against a local HTTP server, with the real breaker, retry and cap components
+ */
+class PlatformAsyncHttpTest {
+
+    private static final String PLATFORM = "facebook";
+
+    private final AtomicInteger hits = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private HttpServer server;
+    private CloseableHttpAsyncClient client;
+    private PlatformCallExecutor executor;
+    private PlatformAsyncHttp asyncHttp;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/ok", exchange -> respond(exchange, 200, "{\"ok\":true}"));
+        server.createContext("/flaky", exchange ->
+            respond(exchange, hits.incrementAndGet() == 1 ? 503 : 200, "{\"attempt\":" + hits.get() + "}"));
+        server.createContext("/down", exchange -> {
+            hits.incrementAndGet();
+            respond(exchange, 502, "");
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, "{}");
+        });
+        server.start();
+
+        client = HttpAsyncClients.createDefault();
+        client.start();
+
+        PlatformCircuitBreakers breakers = new PlatformCircuitBreakers(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(breakers, "failureThreshold", 2);
+        ReflectionTestUtils.setField(breakers, "openMs", 30000L);
+
+        executor = new PlatformCallExecutor(new MockEnvironment(), breakers, 1);
+        ReflectionTestUtils.setField(executor, "callTimeoutMs", 5000L);
+        ReflectionTestUtils.setField(executor, "defaultMaxInFlight", 100);
+
+        PlatformRetries retries = new PlatformRetries(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(retries, "maxAttempts", 3);
+        ReflectionTestUtils.setField(retries, "baseDelayMs", 5L);
+        ReflectionTestUtils.setField(retries, "maxDelayMs", 20L);
+        ReflectionTestUtils.setField(retries, "maxElapsedMs", 2000L);
+        ReflectionTestUtils.setField(retries, "budgetRatio", 0.1);
+
+        RateLimitGovernor governor = new RateLimitGovernor(new MockEnvironment(), new SimpleMeterRegistry(), new ObjectMapper());
+
+        asyncHttp = new PlatformAsyncHttp(client, new MockEnvironment(), executor, retries, governor);
+        ReflectionTestUtils.setField(asyncHttp, "defaultReadTimeoutMs", 200L);
+        ReflectionTestUtils.setField(asyncHttp, "connectionRequestTimeoutMs", 1000L);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        release.countDown();
+        client.close();
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    @Test
+    void completesWithTheResponseBody() {
+        PlatformAsyncHttp.Response response = asyncHttp.get(PLATFORM, uri("/ok"), new HttpHeaders()).join();
+
+        assertEquals(200, response.status());
+        assertEquals("{\"ok\":true}", new String(response.body(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void retriesATransientFailure() {
+        PlatformAsyncHttp.Response response = asyncHttp.get(PLATFORM, uri("/flaky"), new HttpHeaders()).join();
+
+        assertEquals(200, response.status());
+        assertEquals(2, hits.get());
+    }
+
+    @Test
+    void serverErrorsFailLikeRestTemplateAndOpenTheCircuit() {
+        for (int i = 0; i < 2; i++) {
+            CompletionException e = assertThrows(CompletionException.class,
+                () -> asyncHttp.get(PLATFORM, uri("/down"), new HttpHeaders()).join());
+            assertInstanceOf(HttpServerErrorException.class, e.getCause());
+        }
+        int sent = hits.get();
+
+        CompletionException e = assertThrows(CompletionException.class,
+            () -> asyncHttp.get(PLATFORM, uri("/down"), new HttpHeaders()).join());
+        assertInstanceOf(PlatformCircuitOpenException.class, e.getCause());
+        assertEquals(sent, hits.get()); // Refused without a request
+    }
+
+    @Test
+    void readTimeoutIsAGatewayTimeout() {
+        CompletionException e = assertThrows(CompletionException.class,
+            () -> asyncHttp.get(PLATFORM, uri("/slow"), new HttpHeaders()).join());
+
+        assertInstanceOf(ResourceAccessException.class, e.getCause());
+        assertInstanceOf(SocketTimeoutException.class, e.getCause().getCause());
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, GlobalExceptionHandler.platformFailure("Failed", e).getStatusCode());
+    }
+
+    @Test
+    void fullPlatformIsRefusedAtOnceInsteadOfQueueing() {
+        ReflectionTestUtils.setField(executor, "defaultMaxInFlight", 1);
+        ReflectionTestUtils.setField(asyncHttp, "defaultReadTimeoutMs", 5000L);
+
+        CompletableFuture<PlatformAsyncHttp.Response> inFlight = asyncHttp.get(PLATFORM, uri("/slow"), new HttpHeaders());
+        CompletionException e = assertThrows(CompletionException.class,
+            () -> asyncHttp.get(PLATFORM, uri("/ok"), new HttpHeaders()).join());
+        assertInstanceOf(PlatformRateLimitException.class, e.getCause());
+
+        release.countDown();
+        assertEquals(200, inFlight.join().status());
+        // The slot is free again once the first request completed
+        assertEquals(200, asyncHttp.get(PLATFORM, uri("/ok"), new HttpHeaders()).join().status());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + path);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            exchange.getResponseBody().write(bytes);
+        }
+        exchange.close();
+    }
+}
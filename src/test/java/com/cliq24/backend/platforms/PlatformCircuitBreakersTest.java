@@ -0,0 +1,117 @@
+package com.cliq24.backend.platforms;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlatformCircuitBreakersTest {
+
+    private static final String PLATFORM = "facebook";
+
+    private PlatformCircuitBreakers breakers;
+
+    @BeforeEach
+    void setUp() {
+        breakers = new PlatformCircuitBreakers(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(breakers, "failureThreshold", 3);
+        ReflectionTestUtils.setField(breakers, "openMs", 50L);
+    }
+
+    @Test
+    void opensAfterConsecutiveFailures() {
+        fail(2);
+        assertEquals(PlatformCircuitBreakers.State.CLOSED, breakers.stateOf(PLATFORM));
+
+        fail(1);
+        assertEquals(PlatformCircuitBreakers.State.OPEN, breakers.stateOf(PLATFORM));
+    }
+
+    @Test
+    void successResetsFailureCount() {
+        fail(2);
+        breakers.execute(PLATFORM, () -> "ok");
+        fail(2);
+
+        assertEquals(PlatformCircuitBreakers.State.CLOSED, breakers.stateOf(PLATFORM));
+    }
+
+    @Test
+    void openCircuitFailsFastWithoutCallingThePlatform() {
+        fail(3);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(PlatformCircuitOpenException.class,
+            () -> breakers.execute(PLATFORM, calls::incrementAndGet));
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    void halfOpenLetsOneTrialThroughAndItsSuccessCloses() throws InterruptedException {
+        fail(3);
+        Thread.sleep(60);
+
+        breakers.execute(PLATFORM, () -> {
+            assertEquals(PlatformCircuitBreakers.State.HALF_OPEN, breakers.stateOf(PLATFORM));
+            // A second caller during the trial is refused
+            assertThrows(PlatformCircuitOpenException.class, () -> breakers.execute(PLATFORM, () -> "second"));
+            return "trial";
+        });
+
+        assertEquals(PlatformCircuitBreakers.State.CLOSED, breakers.stateOf(PLATFORM));
+    }
+
+    @Test
+    void failedTrialReopens() throws InterruptedException {
+        fail(3);
+        Thread.sleep(60);
+
+        fail(1);
+
+        assertEquals(PlatformCircuitBreakers.State.OPEN, breakers.stateOf(PLATFORM));
+    }
+
+    @Test
+    void refusedTrialKeepsCircuitHalfOpen() throws InterruptedException {
+        fail(3);
+        Thread.sleep(60);
+
+        assertThrows(PlatformRateLimitException.class, () -> breakers.execute(PLATFORM, () -> {
+            throw new PlatformRateLimitException(PLATFORM, "quota exhausted");
+        }));
+
+        // The refusal neither closed the circuit nor used up the trial
+        assertEquals(PlatformCircuitBreakers.State.HALF_OPEN, breakers.stateOf(PLATFORM));
+        assertEquals("trial", breakers.execute(PLATFORM, () -> "trial"));
+        assertEquals(PlatformCircuitBreakers.State.CLOSED, breakers.stateOf(PLATFORM));
+    }
+
+    @Test
+    void clientErrorsAndRefusalsDoNotCount() {
+        for (int i = 0; i < 5; i++) {
+            assertThrows(HttpClientErrorException.class, () -> breakers.execute(PLATFORM, () -> {
+                throw new HttpClientErrorException(HttpStatus.UNAUTHORIZED);
+            }));
+            assertThrows(PlatformRateLimitException.class, () -> breakers.execute(PLATFORM, () -> {
+                throw new PlatformRateLimitException(PLATFORM, "quota exhausted");
+            }));
+        }
+
+        assertEquals(PlatformCircuitBreakers.State.CLOSED, breakers.stateOf(PLATFORM));
+    }
+
+    private void fail(int times) {
+        for (int i = 0; i < times; i++) {
+            assertThrows(HttpServerErrorException.class, () -> breakers.execute(PLATFORM, () -> {
+                throw new HttpServerErrorException(HttpStatus.BAD_GATEWAY);
+            }));
+        }
+    }
+}
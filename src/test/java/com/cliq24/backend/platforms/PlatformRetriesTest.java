@@ -0,0 +1,208 @@
+package com.cliq24.backend.platforms;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Retry policy of the RestTemplate interceptor and the async variant, with platform answers
+ * queued on a fake execution
+ */
+class PlatformRetriesTest {
+
+    private static final String PLATFORM = "facebook";
+    private static final URI REQUEST_URI = URI.create("https://graph.facebook.com/me");
+
+    private final Deque<Object> answers = new ArrayDeque<>();
+    private final AtomicInteger sent = new AtomicInteger();
+
+    private SimpleMeterRegistry meterRegistry;
+    private PlatformRetries retries;
+    private ClientHttpRequestInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        retries = new PlatformRetries(meterRegistry);
+        ReflectionTestUtils.setField(retries, "maxAttempts", 3);
+        ReflectionTestUtils.setField(retries, "baseDelayMs", 1L);
+        ReflectionTestUtils.setField(retries, "maxDelayMs", 2000L);
+        ReflectionTestUtils.setField(retries, "maxElapsedMs", 5000L);
+        ReflectionTestUtils.setField(retries, "budgetRatio", 0.1);
+        interceptor = retries.interceptorFor(PLATFORM, null);
+    }
+
+    @Test
+    void transientStatusesAreRetried() throws IOException {
+        for (int status : List.of(500, 502, 503, 504)) {
+            sent.set(0);
+            answer(status);
+            answer(200);
+
+            assertEquals(200, send(HttpMethod.GET), "after " + status);
+            assertEquals(2, sent.get(), "after " + status);
+        }
+    }
+
+    @Test
+    void ioErrorIsRetried() throws IOException {
+        answers.add(new SocketTimeoutException("Read timed out"));
+        answer(200);
+
+        assertEquals(200, send(HttpMethod.GET));
+        assertEquals(2, sent.get());
+    }
+
+    @Test
+    void clientErrorIsNotRetried() throws IOException {
+        answer(404);
+
+        assertEquals(404, send(HttpMethod.GET));
+        assertEquals(1, sent.get());
+    }
+
+    @Test
+    void lastAnswerIsReturnedOnceAttemptsRunOut() throws IOException {
+        answer(503);
+        answer(503);
+        answer(503);
+
+        assertEquals(503, send(HttpMethod.GET));
+        assertEquals(3, sent.get());
+    }
+
+    @Test
+    void bare429IsNotRetried() throws IOException {
+        answer(429);
+
+        assertEquals(429, send(HttpMethod.GET));
+        assertEquals(1, sent.get());
+    }
+
+    @Test
+    void retryAfterIsHonoured() throws IOException {
+        answer(429, "1");
+        answer(200);
+
+        long started = System.currentTimeMillis();
+        assertEquals(200, send(HttpMethod.GET));
+
+        assertEquals(2, sent.get());
+        assertTrue(System.currentTimeMillis() - started >= 1000);
+    }
+
+    @Test
+    void retryAfterBeyondTheDelayCapIsNotWaitedFor() throws IOException {
+        answer(503, "60");
+
+        assertEquals(503, send(HttpMethod.GET));
+        assertEquals(1, sent.get());
+    }
+
+    @Test
+    void postIsNeverRetried() throws IOException {
+        answer(503);
+
+        assertEquals(503, send(HttpMethod.POST));
+        assertEquals(1, sent.get());
+    }
+
+    @Test
+    void exhaustedBudgetStopsRetrying() throws IOException {
+        ReflectionTestUtils.setField(retries, "maxAttempts", 2);
+        ReflectionTestUtils.setField(retries, "budgetRatio", 0.0);
+
+        // The starting allowance covers five retries; nothing is earned back
+        for (int i = 0; i < 5; i++) {
+            sent.set(0);
+            answer(503);
+            answer(200);
+            assertEquals(200, send(HttpMethod.GET));
+            assertEquals(2, sent.get());
+        }
+
+        sent.set(0);
+        answer(503);
+        assertEquals(503, send(HttpMethod.GET));
+        assertEquals(1, sent.get());
+        assertEquals(1.0, counter("platform.retry.budget-exhausted"));
+        assertEquals(5.0, counter("platform.retries"));
+    }
+
+    @Test
+    void asyncRetriesTheSameWay() {
+        answer(503);
+        answer(200);
+        assertEquals(200, retries.retryAsync(PLATFORM, HttpMethod.GET, this::sendAsync).join().status());
+        assertEquals(2, sent.get());
+
+        sent.set(0);
+        answer(429);
+        assertEquals(429, retries.retryAsync(PLATFORM, HttpMethod.GET, this::sendAsync).join().status());
+        assertEquals(1, sent.get());
+
+        sent.set(0);
+        answer(503);
+        assertEquals(503, retries.retryAsync(PLATFORM, HttpMethod.POST, this::sendAsync).join().status());
+        assertEquals(1, sent.get());
+    }
+
+    private int send(HttpMethod method) throws IOException {
+        ClientHttpRequestExecution execution = (request, body) -> {
+            sent.incrementAndGet();
+            Object answer = answers.removeFirst();
+            if (answer instanceof IOException e) {
+                throw e;
+            }
+            return (ClientHttpResponse) answer;
+        };
+        try (ClientHttpResponse response = interceptor.intercept(new MockClientHttpRequest(method, REQUEST_URI), new byte[0], execution)) {
+            return response.getStatusCode().value();
+        }
+    }
+
+    private CompletableFuture<PlatformAsyncHttp.Response> sendAsync() {
+        sent.incrementAndGet();
+        MockClientHttpResponse answer = (MockClientHttpResponse) answers.removeFirst();
+        return CompletableFuture.completedFuture(
+            new PlatformAsyncHttp.Response(answer.getStatusCode().value(), answer.getHeaders(), new byte[0]));
+    }
+
+    private void answer(int status) {
+        answer(status, null);
+    }
+
+    private void answer(int status, String retryAfter) {
+        MockClientHttpResponse response = new MockClientHttpResponse(new byte[0], HttpStatus.valueOf(status));
+        if (retryAfter != null) {
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, retryAfter);
+        }
+        answers.add(response);
+    }
+
+    private double counter(String name) {
+        Counter counter = meterRegistry.find(name).tag("platform", PLATFORM).counter();
+        return counter != null ? counter.count() : 0;
+    }
+}
@@ -0,0 +1,252 @@
+package com.cliq24.backend.platforms;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Quota buckets and the platform usage signals that shrink or pause them, on a fake clock
+ */
+class RateLimitGovernorTest {
+
+    private static final String FACEBOOK = "facebook";
+    private static final String TWITTER = "twitter";
+
+    private final FakeClock clock = new FakeClock(Instant.parse("2026-01-01T00:00:00Z"));
+
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitGovernor governor;
+
+    @BeforeEach
+    void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+            .withProperty("ratelimit.facebook.app-per-hour", "100")
+            .withProperty("ratelimit.facebook.token-per-hour", "100")
+            .withProperty("ratelimit.twitter.token-per-hour", "100");
+        meterRegistry = new SimpleMeterRegistry();
+        governor = new RateLimitGovernor(environment, meterRegistry, new ObjectMapper(), clock);
+        ReflectionTestUtils.setField(governor, "backgroundReserve", 0.2);
+        ReflectionTestUtils.setField(governor, "usagePauseMinutes", 10L);
+    }
+
+    @Test
+    void emptyBucketRefusesUntilItRefills() {
+        for (int i = 0; i < 100; i++) {
+            governor.beforeRequest(FACEBOOK, graph("t" + i), new HttpHeaders());
+        }
+
+        // App bucket is empty even though each token has calls left
+        assertThrows(PlatformRateLimitException.class, () -> facebook("t0"));
+        assertEquals(1.0, counter("platform.ratelimit.throttled", FACEBOOK));
+
+        clock.advance(Duration.ofSeconds(36)); // 100 per hour - one call every 36s
+        assertDoesNotThrow(() -> facebook("t0"));
+        assertThrows(PlatformRateLimitException.class, () -> facebook("t0"));
+    }
+
+    @Test
+    void appUsageShrinksTheAppBucket() {
+        facebookResponse("t1", 200, "X-App-Usage", "{\"call_count\":90,\"total_time\":10,\"total_cputime\":5}");
+
+        assertEquals(10.0, appTokens(FACEBOOK), 0.01);
+    }
+
+    @Test
+    void fullAppUsagePausesTheAppForTheUsagePause() {
+        facebookResponse("t1", 200, "X-App-Usage", "{\"call_count\":100,\"total_time\":10,\"total_cputime\":5}");
+
+        assertThrows(PlatformRateLimitException.class, () -> facebook("t2"));
+        clock.advance(Duration.ofMinutes(9));
+        assertThrows(PlatformRateLimitException.class, () -> facebook("t2"));
+        clock.advance(Duration.ofMinutes(1));
+        assertDoesNotThrow(() -> facebook("t2"));
+    }
+
+    @Test
+    void pageUsageOnlyAffectsThatToken() {
+        facebookResponse("t1", 200, "X-Page-Usage", "{\"call_count\":100}");
+
+        assertThrows(PlatformRateLimitException.class, () -> facebook("t1"));
+        assertDoesNotThrow(() -> facebook("t2"));
+    }
+
+    @Test
+    void businessUseCaseUsagePausesUntilAccessIsRegained() {
+        facebookResponse("t1", 200, "X-Business-Use-Case-Usage",
+            "{\"page1\":[{\"type\":\"pages\",\"call_count\":60,\"total_cputime\":20,\"total_time\":10,"
+                + "\"estimated_time_to_regain_access\":5}]}");
+
+        assertThrows(PlatformRateLimitException.class, () -> facebook("t1"));
+        clock.advance(Duration.ofMinutes(5));
+        // The 40% that was left, plus five minutes of refill
+        assertEquals(48, callsAllowed("t1"));
+    }
+
+    @Test
+    void twitterRemainingCapsAndExhaustionPausesUntilReset() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("x-rate-limit-remaining", "2");
+        twitterResponse("u1", 200, headers);
+
+        twitter("u1");
+        twitter("u1");
+        assertThrows(PlatformRateLimitException.class, () -> twitter("u1"));
+
+        long reset = clock.instant().plus(Duration.ofMinutes(15)).getEpochSecond();
+        headers.set("x-rate-limit-remaining", "0");
+        headers.set("x-rate-limit-reset", String.valueOf(reset));
+        twitterResponse("u2", 200, headers);
+
+        clock.advance(Duration.ofMinutes(14));
+        assertThrows(PlatformRateLimitException.class, () -> twitter("u2"));
+        clock.advance(Duration.ofMinutes(1));
+        assertDoesNotThrow(() -> twitter("u2"));
+    }
+
+    @Test
+    void tooManyRequestsPausesForRetryAfter() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "30");
+        twitterResponse("u1", 429, headers);
+
+        assertThrows(PlatformRateLimitException.class, () -> twitter("u1"));
+        clock.advance(Duration.ofSeconds(30));
+        assertDoesNotThrow(() -> twitter("u1"));
+    }
+
+    @Test
+    void tooManyRequestsWithoutRetryAfterPausesAMinute() {
+        twitterResponse("u1", 429, new HttpHeaders());
+
+        clock.advance(Duration.ofSeconds(59));
+        assertThrows(PlatformRateLimitException.class, () -> twitter("u1"));
+        clock.advance(Duration.ofSeconds(1));
+        assertDoesNotThrow(() -> twitter("u1"));
+    }
+
+    @Test
+    void backgroundSyncsAreDeferredBelowTheReserveButUsersAreNot() {
+        assertTrue(governor.hasBackgroundCapacity(FACEBOOK, "t1"));
+
+        facebookResponse("t1", 200, "X-App-Usage", "{\"call_count\":85}");
+
+        assertFalse(governor.hasBackgroundCapacity(FACEBOOK, "t1"));
+        assertEquals(1.0, counter("platform.ratelimit.deferred", FACEBOOK));
+        assertDoesNotThrow(() -> facebook("t1"));
+
+        // Refilled back above the 20% reserve
+        clock.advance(Duration.ofMinutes(10));
+        assertTrue(governor.hasBackgroundCapacity(FACEBOOK, "t1"));
+    }
+
+    @Test
+    void platformWithoutLimitsIsNotGoverned() {
+        assertNull(governor.interceptorFor("youtube"));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "600");
+        governor.afterResponse("youtube", URI.create("https://www.googleapis.com/youtube/v3/channels"), headers, 429, headers);
+
+        assertDoesNotThrow(() -> governor.beforeRequest("youtube", URI.create("https://www.googleapis.com/youtube/v3/channels"), headers));
+        assertTrue(governor.hasBackgroundCapacity("youtube", "token"));
+    }
+
+    @Test
+    void unreadableUsageHeaderIsIgnored() {
+        facebookResponse("t1", 200, "X-App-Usage", "not json");
+
+        assertEquals(100.0, appTokens(FACEBOOK), 0.01);
+        assertDoesNotThrow(() -> facebook("t1"));
+    }
+
+    private void facebook(String token) {
+        governor.beforeRequest(FACEBOOK, graph(token), new HttpHeaders());
+    }
+
+    private void facebookResponse(String token, int status, String header, String value) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(header, value);
+        governor.afterResponse(FACEBOOK, graph(token), new HttpHeaders(), status, headers);
+    }
+
+    private void twitter(String token) {
+        governor.beforeRequest(TWITTER, URI.create("https://api.twitter.com/2/users/me"), bearer(token));
+    }
+
+    private void twitterResponse(String token, int status, HttpHeaders headers) {
+        governor.afterResponse(TWITTER, URI.create("https://api.twitter.com/2/users/me"), bearer(token), status, headers);
+    }
+
+    private int callsAllowed(String token) {
+        int calls = 0;
+        try {
+            while (calls < 1000) {
+                facebook(token);
+                calls++;
+            }
+        } catch (PlatformRateLimitException e) {
+            // Bucket empty
+        }
+        return calls;
+    }
+
+    private static URI graph(String token) {
+        return URI.create("https://graph.facebook.com/v18.0/me/feed?access_token=" + token);
+    }
+
+    private static HttpHeaders bearer(String token) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        return headers;
+    }
+
+    private double appTokens(String platform) {
+        return meterRegistry.get("platform.ratelimit.tokens").tag("platform", platform).gauge().value();
+    }
+
+    private double counter(String name, String platform) {
+        Counter counter = meterRegistry.find(name).tag("platform", platform).counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    private static final class FakeClock extends Clock {
+        private Instant now;
+
+        FakeClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.cliq24.backend.service;
+
+import com.cliq24.backend.model.Platform;
+import com.cliq24.backend.model.SocialAccount;
+import com.cliq24.backend.platforms.PlatformHttpClients;
+import com.cliq24.backend.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+/**
+ * streamInsights against canned Claude event streams
+ */
+class AIInsightsServiceStreamTest {
+
+    private static final String CLAUDE_URL = "http://claude.test/v1/messages";
+
+    private final List<String> sent = new ArrayList<>();
+
+    private MockRestServiceServer claude;
+    private InsightsCache insightsCache;
+    private AIInsightsService service;
+    private SocialAccount account;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        RestTemplate restTemplate = new RestTemplate();
+        claude = MockRestServiceServer.bindTo(restTemplate).build();
+        PlatformHttpClients platformHttpClients = mock(PlatformHttpClients.class);
+        when(platformHttpClients.forPlatform("claude")).thenReturn(restTemplate);
+
+        PreferencesService preferencesService = mock(PreferencesService.class);
+        when(preferencesService.getPlatformGoals(anyString(), anyString())).thenReturn(List.of());
+
+        insightsCache = mock(InsightsCache.class);
+        when(insightsCache.get(anyString())).thenReturn(Optional.empty());
+
+        SingleFlight singleFlight = mock(SingleFlight.class);
+        when(singleFlight.execute(anyString(), any(Supplier.class), any(Supplier.class)))
+            .thenAnswer(invocation -> invocation.<Supplier<String>>getArgument(1).get());
+
+        service = new AIInsightsService(preferencesService, mock(UserRepository.class), platformHttpClients,
+            insightsCache, new ObjectMapper(), singleFlight);
+        ReflectionTestUtils.setField(service, "claudeApiKey", "test-key");
+        ReflectionTestUtils.setField(service, "claudeApiUrl", CLAUDE_URL);
+        ReflectionTestUtils.setField(service, "generateOnMiss", true);
+
+        account = new SocialAccount();
+        account.setId("a1");
+        account.setUserId("u1");
+        account.setPlatform(Platform.FACEBOOK);
+    }
+
+    @Test
+    void completeStreamIsSentAndCached() {
+        respond(delta("Post ") + delta("more.") + "event: message_stop\ndata: {\"type\":\"message_stop\"}\n\n");
+
+        String insight = service.streamInsights("u1", account, sent::add);
+
+        assertEquals("Post more.", insight);
+        assertEquals(List.of("Post ", "more."), sent);
+        verify(insightsCache).put(anyString(), eq("Post more."));
+    }
+
+    @Test
+    void streamCutOffAfterTextFailsAndCachesNothing() {
+        respond(delta("Post ")); // Connection closed before message_stop
+
+        assertThrows(RuntimeException.class, () -> service.streamInsights("u1", account, sent::add));
+        assertEquals(List.of("Post "), sent);
+        verify(insightsCache, never()).put(anyString(), anyString());
+    }
+
+    @Test
+    void streamErrorAfterTextFails() {
+        respond(delta("Post ") + "event: error\ndata: {\"type\":\"error\",\"error\":{\"message\":\"Overloaded\"}}\n\n");
+
+        assertThrows(RuntimeException.class, () -> service.streamInsights("u1", account, sent::add));
+        verify(insightsCache, never()).put(anyString(), anyString());
+    }
+
+    @Test
+    void failureBeforeAnyTextFallsBackToThePlaceholder() {
+        claude.expect(requestTo(CLAUDE_URL)).andRespond(withServerError());
+
+        String insight = service.streamInsights("u1", account, sent::add);
+
+        assertEquals(List.of(insight), sent);
+        assertFalse(insight.isBlank());
+        verify(insightsCache, never()).put(anyString(), anyString());
+    }
+
+    private void respond(String events) {
+        claude.expect(requestTo(CLAUDE_URL)).andRespond(withSuccess(events, MediaType.TEXT_EVENT_STREAM));
+    }
+
+    private static String delta(String text) {
+        return "event: content_block_delta\ndata: {\"type\":\"content_block_delta\",\"index\":0,"
+            + "\"delta\":{\"type\":\"text_delta\",\"text\":\"" + text + "\"}}\n\n";
+    }
+}
@@ -0,0 +1,147 @@
+package com.cliq24.backend.service;
+
+import com.cliq24.backend.mapper.SocialAccountMapper;
+import com.cliq24.backend.model.Platform;
+import com.cliq24.backend.model.SocialAccount;
+import com.cliq24.backend.model.SocialAccountSummary;
+import com.cliq24.backend.model.UserDashboard;
+import com.cliq24.backend.repository.SocialAccountRepository;
+import com.cliq24.backend.repository.UserDashboardRepository;
+import com.cliq24.backend.util.ScoreCalculator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Rebuilds racing account writes, with user_dashboards replaced by a versioned in-memory store
+ */
+class DashboardServiceTest {
+
+    private static final String USER = "u1";
+
+    private final Map<String, UserDashboard> stored = new HashMap<>();
+    private final List<SocialAccountSummary> accounts = new ArrayList<>();
+
+    private SocialAccountRepository socialAccountRepository;
+    private DashboardService dashboardService;
+
+    @BeforeEach
+    void setUp() {
+        UserDashboardRepository userDashboardRepository = mock(UserDashboardRepository.class);
+        socialAccountRepository = mock(SocialAccountRepository.class);
+
+        when(userDashboardRepository.findById(anyString())).thenAnswer(invocation ->
+            Optional.ofNullable(stored.get(invocation.<String>getArgument(0))).map(DashboardServiceTest::copy));
+        when(userDashboardRepository.save(any(UserDashboard.class))).thenAnswer(invocation -> {
+            UserDashboard dashboard = invocation.getArgument(0);
+            UserDashboard current = stored.get(dashboard.getUserId());
+            if (dashboard.getVersion() == null && current != null) {
+                throw new DuplicateKeyException("E11000 duplicate key " + dashboard.getUserId());
+            }
+            if (dashboard.getVersion() != null && (current == null || !dashboard.getVersion().equals(current.getVersion()))) {
+                throw new OptimisticLockingFailureException("Stale version for " + dashboard.getUserId());
+            }
+            dashboard.setVersion(dashboard.getVersion() == null ? 0L : dashboard.getVersion() + 1);
+            stored.put(dashboard.getUserId(), copy(dashboard));
+            return dashboard;
+        });
+        when(socialAccountRepository.findSummariesByUserId(USER)).thenAnswer(invocation -> List.copyOf(accounts));
+
+        ScoreCalculator scoreCalculator = new ScoreCalculator();
+        dashboardService = new DashboardService(userDashboardRepository, socialAccountRepository,
+            new SocialAccountMapper(scoreCalculator), scoreCalculator);
+    }
+
+    @Test
+    void missingDashboardIsBuiltFromEveryAccount() {
+        accounts.add(summary("a1"));
+        accounts.add(summary("a2"));
+
+        assertEquals(List.of("a1", "a2"), ids(dashboardService.getDashboard(USER)));
+        assertFalse(stored.get(USER).isStale());
+    }
+
+    @Test
+    void accountSavedMidRebuildIsNotOverwritten() {
+        accounts.add(summary("a1"));
+        dashboardService.rebuild(USER);
+
+        // A sync saves a2 between the rebuild loading the document and reading the accounts
+        when(socialAccountRepository.findSummariesByUserId(USER))
+            .thenAnswer(invocation -> {
+                List<SocialAccountSummary> before = List.copyOf(accounts);
+                accounts.add(summary("a2"));
+                dashboardService.accountSaved(account("a2"));
+                return before;
+            })
+            .thenAnswer(invocation -> List.copyOf(accounts));
+
+        dashboardService.rebuild(USER);
+
+        assertEquals(List.of("a1", "a2"), ids(stored.get(USER)));
+    }
+
+    @Test
+    void accountSavedBeforeTheFirstInsertMakesTheRebuildRetry() {
+        accounts.add(summary("a1"));
+        when(socialAccountRepository.findSummariesByUserId(USER))
+            .thenAnswer(invocation -> {
+                List<SocialAccountSummary> before = List.copyOf(accounts);
+                accounts.add(summary("a2"));
+                // No dashboard yet, so this leaves the stale placeholder
+                dashboardService.accountSaved(account("a2"));
+                return before;
+            })
+            .thenAnswer(invocation -> List.copyOf(accounts));
+
+        UserDashboard dashboard = dashboardService.getDashboard(USER);
+
+        assertEquals(List.of("a1", "a2"), ids(dashboard));
+        assertFalse(stored.get(USER).isStale());
+    }
+
+    @Test
+    void accountSavedWithoutADashboardLeavesAPlaceholderThatIsRebuiltOnRead() {
+        accounts.add(summary("a1"));
+        accounts.add(summary("a2"));
+
+        dashboardService.accountSaved(account("a2"));
+        assertTrue(stored.get(USER).isStale());
+
+        assertEquals(List.of("a1", "a2"), ids(dashboardService.getDashboard(USER)));
+    }
+
+    private static List<String> ids(UserDashboard dashboard) {
+        return dashboard.getAccounts().stream().map(dto -> dto.getId()).toList();
+    }
+
+    private static SocialAccountSummary summary(String id) {
+        return new SocialAccountSummary(id, USER, Platform.FACEBOOK, "page-" + id, id,
+            null, null, null, false, null);
+    }
+
+    private static SocialAccount account(String id) {
+        SocialAccount account = new SocialAccount();
+        account.setId(id);
+        account.setUserId(USER);
+        account.setPlatform(Platform.FACEBOOK);
+        return account;
+    }
+
+    private static UserDashboard copy(UserDashboard source) {
+        UserDashboard copy = new UserDashboard(source.getUserId());
+        copy.setVersion(source.getVersion());
+        copy.setAccounts(new ArrayList<>(source.getAccounts()));
+        copy.setTokenExpiries(new HashMap<>(source.getTokenExpiries()));
+        copy.setNextTokenExpiry(source.getNextTokenExpiry());
+        copy.setStale(source.isStale());
+        return copy;
+    }
+}
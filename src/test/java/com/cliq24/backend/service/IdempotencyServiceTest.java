@@ -0,0 +1,142 @@
+package com.cliq24.backend.service;
+
+import com.cliq24.backend.model.IdempotencyRecord;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.net.SocketTimeoutException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Idempotency keys with the idempotency_keys collection replaced by a map
+ */
+class IdempotencyServiceTest {
+
+    private static final String SCOPE = "u1:a1";
+    private static final String REQUEST = "recipient=r1&message=hello";
+
+    private final Map<String, IdempotencyRecord> records = new HashMap<>();
+    private final AtomicInteger runs = new AtomicInteger();
+
+    private IdempotencyService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.insert(any(IdempotencyRecord.class))).thenAnswer(invocation -> {
+            IdempotencyRecord record = invocation.getArgument(0);
+            if (records.putIfAbsent(record.getId(), record) != null) {
+                throw new DuplicateKeyException("E11000 duplicate key " + record.getId());
+            }
+            return record;
+        });
+        when(mongoTemplate.findById(anyString(), eq(IdempotencyRecord.class))).thenAnswer(invocation ->
+            records.get(invocation.<String>getArgument(0)));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(IdempotencyRecord.class))).thenAnswer(invocation -> {
+            IdempotencyRecord record = records.get(idOf(invocation.getArgument(0)));
+            Document set = invocation.<Update>getArgument(1).getUpdateObject().get("$set", Document.class);
+            record.setStatus(set.getString("status"));
+            if (set.containsKey("response")) {
+                record.setResponse((Map<String, Object>) set.get("response"));
+            }
+            return UpdateResult.acknowledged(1, 1L, null);
+        });
+        when(mongoTemplate.remove(any(Query.class), eq(IdempotencyRecord.class))).thenAnswer(invocation ->
+            DeleteResult.acknowledged(records.remove(idOf(invocation.getArgument(0))) != null ? 1 : 0));
+
+        service = new IdempotencyService(mongoTemplate);
+        ReflectionTestUtils.setField(service, "ttlHours", 24L);
+    }
+
+    @Test
+    void repeatedKeyReplaysTheStoredResult() {
+        Map<String, Object> first = service.execute(SCOPE, "k1", REQUEST, this::send);
+        Map<String, Object> second = service.execute(SCOPE, "k1", REQUEST, this::send);
+
+        assertEquals(1, runs.get());
+        assertEquals("m1", second.get("messageId"));
+        assertEquals(true, second.get("replayed"));
+        assertNull(first.get("replayed"));
+    }
+
+    @Test
+    void keyIsScopedToItsClient() {
+        service.execute(SCOPE, "k1", REQUEST, this::send);
+        service.execute("u2:a2", "k1", REQUEST, this::send);
+
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    void reusingAKeyForADifferentRequestIsRefused() {
+        service.execute(SCOPE, "k1", REQUEST, this::send);
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+            () -> service.execute(SCOPE, "k1", "recipient=r1&message=bye", this::send));
+        assertTrue(e.getMessage().contains("different request"));
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void plainFailureReleasesTheKey() {
+        assertThrows(RuntimeException.class, () -> service.execute(SCOPE, "k1", REQUEST, () -> {
+            throw new RuntimeException("Invalid recipient");
+        }));
+        assertTrue(records.isEmpty());
+
+        assertEquals("m1", service.execute(SCOPE, "k1", REQUEST, this::send).get("messageId"));
+    }
+
+    @Test
+    void timeoutAfterSendingMarksTheKeyUnknownAndRefusesReuse() {
+        assertThrows(ResourceAccessException.class, () -> service.execute(SCOPE, "k1", REQUEST, () -> {
+            throw new ResourceAccessException("I/O error", new SocketTimeoutException("Read timed out"));
+        }));
+        assertEquals(IdempotencyRecord.UNKNOWN, records.get(SCOPE + ":k1").getStatus());
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> service.execute(SCOPE, "k1", REQUEST, this::send));
+        assertTrue(e.getMessage().contains("may have been delivered"));
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    void keyInProgressIsRefused() {
+        RuntimeException e = assertThrows(RuntimeException.class, () -> service.execute(SCOPE, "k1", REQUEST, () ->
+            service.execute(SCOPE, "k1", REQUEST, this::send)));
+
+        assertTrue(e.getMessage().contains("in progress"));
+    }
+
+    @Test
+    void noKeyJustRuns() {
+        service.execute(SCOPE, null, REQUEST, this::send);
+        service.execute(SCOPE, " ", REQUEST, this::send);
+
+        assertEquals(2, runs.get());
+        assertTrue(records.isEmpty());
+    }
+
+    private Map<String, Object> send() {
+        return Map.of("messageId", "m" + runs.incrementAndGet());
+    }
+
+    private static String idOf(Query query) {
+        return query.getQueryObject().getString("_id");
+    }
+}
@@ -0,0 +1,232 @@
+package com.cliq24.backend.service;
+
+import com.cliq24.backend.model.InsightBatch;
+import com.cliq24.backend.model.InsightBatchTargets;
+import com.cliq24.backend.model.OperationLease;
+import com.cliq24.backend.model.Platform;
+import com.cliq24.backend.model.SocialAccount;
+import com.cliq24.backend.model.User;
+import com.cliq24.backend.platforms.PlatformHttpClients;
+import com.cliq24.backend.repository.InsightBatchRepository;
+import com.cliq24.backend.repository.InsightBatchTargetsRepository;
+import com.cliq24.backend.repository.SocialAccountRepository;
+import com.cliq24.backend.repository.UserRepository;
+import com.cliq24.backend.stub.ClaudeApiStubController;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockMvcClientHttpRequestFactory;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Instant;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Drives submit, poll and JSONL import against ClaudeApiStubController, with Mongo replaced
+ * by in-memory repositories.
+ */
+class InsightsBatchServiceTest {
+
+    private static final int MAX_RECORD_ATTEMPTS = 3;
+
+    private static final String BATCH_URL = "http://localhost/stub/claude/v1/messages/batches";
+
+    private final Map<String, InsightBatch> batches = new HashMap<>();
+    private final List<InsightBatchTargets> targetChunks = new ArrayList<>();
+    private final Set<String> runSlots = new HashSet<>();
+    private int failedStatusUpdates;
+
+    private AIInsightsService aiInsightsService;
+    private InsightsCache insightsCache;
+    private MongoTemplate mongoTemplate;
+    private InsightsBatchService service;
+
+    @BeforeEach
+    void setUp() {
+        SocialAccountRepository socialAccountRepository = mock(SocialAccountRepository.class);
+        UserRepository userRepository = mock(UserRepository.class);
+        PreferencesService preferencesService = mock(PreferencesService.class);
+        InsightBatchRepository insightBatchRepository = mock(InsightBatchRepository.class);
+        InsightBatchTargetsRepository insightBatchTargetsRepository = mock(InsightBatchTargetsRepository.class);
+        mongoTemplate = mock(MongoTemplate.class);
+        PlatformHttpClients platformHttpClients = mock(PlatformHttpClients.class);
+        aiInsightsService = mock(AIInsightsService.class);
+        insightsCache = mock(InsightsCache.class);
+
+        // The service's HTTP client talks to the stub controller in-process
+        RestTemplate restTemplate = new RestTemplate(new MockMvcClientHttpRequestFactory(
+            MockMvcBuilders.standaloneSetup(new ClaudeApiStubController()).build()));
+        when(platformHttpClients.forPlatform("claude")).thenReturn(restTemplate);
+
+        List<SocialAccount> accounts = List.of(
+            account("a1", "u1", Platform.FACEBOOK),
+            account("a2", "u1", Platform.LINKEDIN),
+            account("a3", "u2", Platform.FACEBOOK));
+        when(socialAccountRepository.findAll(any(Pageable.class)))
+            .thenAnswer(invocation -> new PageImpl<>(accounts, invocation.getArgument(0), accounts.size()));
+        when(userRepository.findAllById(any())).thenReturn(List.of(user("u1"), user("u2")));
+        when(preferencesService.getPlatformGoals(any(User.class), anyString())).thenReturn(List.of());
+
+        // a1 and a3 share a prompt, so the batch holds two requests for three accounts
+        when(aiInsightsService.pendingInsight(any(SocialAccount.class), anyList())).thenAnswer(invocation -> {
+            SocialAccount account = invocation.getArgument(0);
+            String fingerprint = account.getPlatform() == Platform.FACEBOOK ? "fp-facebook" : "fp-linkedin";
+            return new AIInsightsService.PendingInsight(fingerprint, "prompt for " + fingerprint);
+        });
+        when(aiInsightsService.messageParams(anyString()))
+            .thenAnswer(invocation -> Map.of("messages", List.of(Map.of("role", "user", "content", invocation.getArgument(0)))));
+
+        when(insightBatchRepository.save(any(InsightBatch.class))).thenAnswer(invocation -> {
+            InsightBatch batch = invocation.getArgument(0);
+            batches.put(batch.getId(), batch);
+            return batch;
+        });
+        when(insightBatchRepository.existsByStatusIn(anyCollection())).thenAnswer(invocation ->
+            batches.values().stream().anyMatch(batch -> invocation.<Collection<String>>getArgument(0).contains(batch.getStatus())));
+        when(insightBatchRepository.findClaimable(any(Instant.class))).thenAnswer(invocation ->
+            batches.values().stream().filter(batch -> InsightBatch.SUBMITTED.equals(batch.getStatus())).toList());
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(InsightBatch.class))).thenAnswer(invocation -> {
+            InsightBatch batch = batches.get(invocation.<Query>getArgument(0).getQueryObject().getString("_id"));
+            batch.setStatus(InsightBatch.PROCESSING);
+            batch.setClaimedAt(Instant.now());
+            return batch;
+        });
+
+        when(mongoTemplate.insert(any(OperationLease.class))).thenAnswer(invocation -> {
+            OperationLease run = invocation.getArgument(0);
+            if (!runSlots.add(run.getId())) {
+                throw new DuplicateKeyException("E11000 duplicate key " + run.getId());
+            }
+            return run;
+        });
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(InsightBatch.class))).thenAnswer(invocation -> {
+            if (failedStatusUpdates > 0) {
+                failedStatusUpdates--;
+                throw new DataAccessResourceFailureException("Mongo unavailable");
+            }
+            InsightBatch batch = batches.get(invocation.<Query>getArgument(0).getQueryObject().getString("_id"));
+            Document set = invocation.<Update>getArgument(1).getUpdateObject().get("$set", Document.class);
+            batch.setBatchId(set.getString("batchId"));
+            batch.setStatus(set.getString("status"));
+            return UpdateResult.acknowledged(1, 1L, null);
+        });
+
+        when(insightBatchTargetsRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            invocation.<Iterable<InsightBatchTargets>>getArgument(0).forEach(targetChunks::add);
+            return targetChunks;
+        });
+        when(insightBatchTargetsRepository.findByBatchId(anyString())).thenAnswer(invocation ->
+            targetChunks.stream().filter(chunk -> chunk.getBatchId().equals(invocation.getArgument(0))).toList());
+        doAnswer(invocation -> targetChunks.removeIf(chunk -> chunk.getBatchId().equals(invocation.getArgument(0))))
+            .when(insightBatchTargetsRepository).deleteByBatchId(anyString());
+
+        service = new InsightsBatchService(socialAccountRepository, userRepository, preferencesService,
+            aiInsightsService, insightsCache, insightBatchRepository, insightBatchTargetsRepository,
+            mongoTemplate, new ObjectMapper(), platformHttpClients);
+        ReflectionTestUtils.setField(service, "claudeApiKey", "test-key");
+        ReflectionTestUtils.setField(service, "batchUrl", BATCH_URL);
+        ReflectionTestUtils.setField(service, "maxRequests", 10000);
+        ReflectionTestUtils.setField(service, "processingLeaseMs", 60000L);
+    }
+
+    @Test
+    void submitsPollsAndImportsBatch() {
+        service.submitStaleInsights();
+
+        assertEquals(1, batches.size());
+        InsightBatch batch = batches.values().iterator().next();
+        assertEquals(InsightBatch.SUBMITTED, batch.getStatus());
+        assertTrue(batch.getBatchId().startsWith("msgbatch_stub_"));
+        assertEquals(2, batch.getRequestCount());
+        assertFalse(targetChunks.isEmpty());
+
+        service.collectResults();
+
+        assertEquals(InsightBatch.COMPLETED, batch.getStatus());
+        assertEquals(2, batch.getSucceededCount());
+        assertEquals(0, batch.getErroredCount());
+        verify(insightsCache).put("fp-facebook", "Stub insight for fp-facebook");
+        verify(insightsCache).put("fp-linkedin", "Stub insight for fp-linkedin");
+        verify(insightsCache).point("u1", "a1", "fp-facebook");
+        verify(insightsCache).point("u2", "a3", "fp-facebook");
+        verify(insightsCache).point("u1", "a2", "fp-linkedin");
+        assertTrue(targetChunks.isEmpty());
+    }
+
+    @Test
+    void failedSubmitLeavesFailedRecordAndNoTargets() {
+        ReflectionTestUtils.setField(service, "batchUrl", "http://localhost/stub/claude/v1/missing");
+
+        service.submitStaleInsights();
+
+        assertEquals(1, batches.size());
+        InsightBatch batch = batches.values().iterator().next();
+        assertEquals(InsightBatch.FAILED, batch.getStatus());
+        assertNull(batch.getBatchId());
+        assertTrue(targetChunks.isEmpty());
+    }
+
+    @Test
+    void replicaThatLosesTheCronSlotDoesNothing() {
+        when(mongoTemplate.insert(any(OperationLease.class))).thenThrow(new DuplicateKeyException("E11000"));
+
+        service.submitStaleInsights();
+
+        assertTrue(batches.isEmpty());
+        verify(aiInsightsService, never()).pendingInsight(any(SocialAccount.class), anyList());
+    }
+
+    @Test
+    void pendingBatchCountsAsRunning() {
+        InsightBatch pending = new InsightBatch();
+        pending.setId("in-flight");
+        pending.setCreatedAt(Instant.now());
+        batches.put(pending.getId(), pending);
+
+        service.submitStaleInsights();
+
+        assertEquals(Set.of("in-flight"), batches.keySet());
+    }
+
+    @Test
+    void batchIdIsRecordedDespiteATransientFailure() {
+        failedStatusUpdates = MAX_RECORD_ATTEMPTS - 1;
+
+        service.submitStaleInsights();
+
+        InsightBatch batch = batches.values().iterator().next();
+        assertEquals(InsightBatch.SUBMITTED, batch.getStatus());
+        assertTrue(batch.getBatchId().startsWith("msgbatch_stub_"));
+    }
+
+    private static SocialAccount account(String id, String userId, Platform platform) {
+        SocialAccount account = new SocialAccount();
+        account.setId(id);
+        account.setUserId(userId);
+        account.setPlatform(platform);
+        return account;
+    }
+
+    private static User user(String id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+}
@@ -0,0 +1,78 @@
+package com.cliq24.backend.stub;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Local stand-in for the Claude Messages and Message Batches APIs, so tests can point
+ * claude.api.url / claude.api.batch-url at /stub/claude/... instead of the real service.
+ * Batches end immediately and every request succeeds with a canned insight.
+ */
+@RestController
+@RequestMapping("/stub/claude/v1/messages")
+public class ClaudeApiStubController {
+
+    private final Map<String, List<String>> batches = new ConcurrentHashMap<>();
+    private final AtomicInteger batchCount = new AtomicInteger();
+
+    @PostMapping
+    public Map<String, Object> createMessage(@RequestBody Map<String, Object> request) {
+        return Map.of(
+            "type", "message",
+            "role", "assistant",
+            "content", List.of(Map.of("type", "text", "text", "Stub insight"))
+        );
+    }
+
+    @PostMapping("/batches")
+    public Map<String, Object> createBatch(@RequestBody Map<String, List<Map<String, Object>>> body) {
+        String id = "msgbatch_stub_" + batchCount.incrementAndGet();
+        batches.put(id, body.get("requests").stream()
+            .map(request -> (String) request.get("custom_id"))
+            .collect(Collectors.toList()));
+        return batchStatus(id);
+    }
+
+    @GetMapping("/batches/{id}")
+    public ResponseEntity<Map<String, Object>> getBatch(@PathVariable String id) {
+        if (!batches.containsKey(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(batchStatus(id));
+    }
+
+    @GetMapping(value = "/batches/{id}/results", produces = "application/x-jsonl")
+    public ResponseEntity<String> getResults(@PathVariable String id) {
+        List<String> customIds = batches.get(id);
+        if (customIds == null) {
+            return ResponseEntity.notFound().build();
+        }
+        String jsonl = customIds.stream()
+            .map(customId -> "{\"custom_id\":\"" + customId + "\",\"result\":{\"type\":\"succeeded\","
+                + "\"message\":{\"content\":[{\"type\":\"text\",\"text\":\"Stub insight for " + customId + "\"}]}}}")
+            .collect(Collectors.joining("\n"));
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-jsonl")).body(jsonl);
+    }
+
+    private Map<String, Object> batchStatus(String id) {
+        String resultsUrl = ServletUriComponentsBuilder.fromCurrentContextPath()
+            .path("/stub/claude/v1/messages/batches/{id}/results")
+            .buildAndExpand(id)
+            .toUriString();
+        return Map.of(
+            "id", id,
+            "type", "message_batch",
+            "processing_status", "ended",
+            "request_counts", Map.of("succeeded", batches.get(id).size()),
+            "results_url", resultsUrl
+        );
+    }
+}
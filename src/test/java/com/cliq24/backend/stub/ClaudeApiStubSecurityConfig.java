@@ -0,0 +1,24 @@
+package com.cliq24.backend.stub;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.web.SecurityFilterChain;
+
+/**
+ * Lets the application's own HTTP clients reach the Claude stub without a JWT.
+ */
+@Configuration
+public class ClaudeApiStubSecurityConfig {
+
+    @Bean
+    @Order(1)
+    public SecurityFilterChain claudeStubFilterChain(HttpSecurity http) throws Exception {
+        http
+            .securityMatcher("/stub/**")
+            .csrf(csrf -> csrf.disable())
+            .authorizeHttpRequests(auth -> auth.anyRequest().permitAll());
+        return http.build();
+    }
+}